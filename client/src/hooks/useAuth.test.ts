@@ -196,6 +196,62 @@ describe('useAuth', () => {
     });
   });
 
+  describe('token refresh', () => {
+    afterEach(() => {
+      jest.useRealTimers();
+    });
+
+    it('refreshes the bearer token halfway through its lifetime', async () => {
+      jest.useFakeTimers();
+      mockedApi.authApi.getStatus.mockResolvedValue({
+        success: true,
+        data: { setupRequired: false, authenticated: true },
+        message: ''
+      });
+      mockedApi.authApi.tokenExpiresAt.mockImplementation(() => Date.now() + 60000);
+      mockedApi.authApi.refresh.mockResolvedValue({
+        success: true,
+        data: { token: 'fresh-token', expiresIn: 60 },
+        message: 'Token refreshed'
+      });
+
+      const { result } = renderHook(() => useAuth());
+
+      await waitFor(() => {
+        expect(result.current.status?.authenticated).toBe(true);
+      });
+
+      await act(async () => {
+        jest.advanceTimersByTime(30000);
+      });
+
+      expect(mockedApi.authApi.refresh).toHaveBeenCalledTimes(1);
+      expect(result.current.status?.authenticated).toBe(true);
+    });
+
+    it('does not refresh without a bearer token', async () => {
+      jest.useFakeTimers();
+      mockedApi.authApi.getStatus.mockResolvedValue({
+        success: true,
+        data: { setupRequired: false, authenticated: true },
+        message: ''
+      });
+      mockedApi.authApi.tokenExpiresAt.mockReturnValue(null);
+
+      const { result } = renderHook(() => useAuth());
+
+      await waitFor(() => {
+        expect(result.current.status?.authenticated).toBe(true);
+      });
+
+      await act(async () => {
+        jest.advanceTimersByTime(3600000);
+      });
+
+      expect(mockedApi.authApi.refresh).not.toHaveBeenCalled();
+    });
+  });
+
   describe('clearError', () => {
     it('clears error state', async () => {
       mockedApi.authApi.getStatus.mockResolvedValue({
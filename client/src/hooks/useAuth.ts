@@ -2,6 +2,9 @@ import { useState, useEffect, useCallback } from 'react';
 import { authApi } from '../services/api';
 import { AuthStatus } from '../types';
 
+// Never retry a token refresh more often than this.
+const MIN_REFRESH_DELAY_MS = 5000;
+
 export function useAuth() {
   const [status, setStatus] = useState<AuthStatus | null>(null);
   const [loading, setLoading] = useState(true);
@@ -27,6 +30,43 @@ export function useAuth() {
     checkStatus();
   }, [checkStatus]);
 
+  const authenticated = status?.authenticated ?? false;
+
+  // In stateless mode the bearer token is short-lived; swap it for a fresh one
+  // halfway through its remaining lifetime, so one failed attempt still leaves
+  // time for another before it runs out.
+  useEffect(() => {
+    if (!authenticated) return;
+    let cancelled = false;
+    let timer: ReturnType<typeof setTimeout> | undefined;
+
+    const schedule = () => {
+      const expiresAt = authApi.tokenExpiresAt();
+      if (expiresAt == null) return;
+      const delay = Math.max(MIN_REFRESH_DELAY_MS, (expiresAt - Date.now()) / 2);
+      timer = setTimeout(async () => {
+        try {
+          await authApi.refresh();
+        } catch (err) {
+          // Retried on the next round while the token is still valid.
+        }
+        if (cancelled) return;
+        const refreshedUntil = authApi.tokenExpiresAt();
+        if (refreshedUntil != null && refreshedUntil > Date.now()) {
+          schedule();
+        } else {
+          setStatus((prev) => (prev ? { ...prev, authenticated: false } : null));
+        }
+      }, delay);
+    };
+
+    schedule();
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [authenticated]);
+
   const setup = async (masterPassword: string): Promise<boolean> => {
     try {
       setError(null);
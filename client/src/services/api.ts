@@ -5,23 +5,52 @@ import {
   PasswordEntryRequest,
   GeneratedPassword,
   GenerateOptions,
+  LoginChallenge,
+  LoginResult,
 } from '../types';
+import { solveChallenge } from './proofOfWork';
 
 const API_BASE = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
 
-async function request<T>(
-  endpoint: string,
-  options: RequestInit = {}
-): Promise<ApiResponse<T>> {
-  const response = await fetch(`${API_BASE}${endpoint}`, {
+// Set only when the server runs in stateless mode and hands out auth tokens.
+// Kept in memory only, since the token carries the vault key: nothing else
+// on the page can read it back from storage, and a reload means unlocking
+// again.
+let authToken: string | null = null;
+let authTokenExpiresAt: number | null = null;
+
+function storeToken(result?: { token?: string; expiresIn?: number }) {
+  if (!result?.token) return;
+  authToken = result.token;
+  authTokenExpiresAt = Date.now() + (result.expiresIn ?? 0) * 1000;
+}
+
+function clearToken() {
+  authToken = null;
+  authTokenExpiresAt = null;
+}
+
+// Last full entry list with its ETag, used for conditional refetches. The
+// server sends these responses as no-store, so this is the only copy kept.
+let entriesSnapshot: { eTag: string; response: ApiResponse<PasswordEntry[]> } | null = null;
+
+function send(endpoint: string, options: RequestInit = {}): Promise<Response> {
+  return fetch(`${API_BASE}${endpoint}`, {
     ...options,
     credentials: 'include',
     headers: {
       'Content-Type': 'application/json',
+      ...(authToken ? { Authorization: `Bearer ${authToken}` } : {}),
       ...options.headers,
     },
   });
+}
 
+async function request<T>(
+  endpoint: string,
+  options: RequestInit = {}
+): Promise<ApiResponse<T>> {
+  const response = await send(endpoint, options);
   const data = await response.json();
   return data;
 }
@@ -35,23 +64,68 @@ export const authApi = {
       body: JSON.stringify({ masterPassword }),
     }),
 
-  login: (masterPassword: string) =>
-    request<{ authenticated: boolean; remainingAttempts?: number }>(
+  login: async (masterPassword: string) => {
+    const response = await request<LoginResult | LoginChallenge>(
       '/auth/login',
       {
         method: 'POST',
         body: JSON.stringify({ masterPassword }),
       }
-    ),
+    );
+    const data = response.data;
+    if (response.success || !data || !('challenge' in data)) {
+      storeToken(data as LoginResult | undefined);
+      return response as ApiResponse<LoginResult>;
+    }
+    // The server is under login load and wants a solved puzzle before it checks the password.
+    const challengeSolution = await solveChallenge(data.challenge, data.difficulty);
+    const solved = await request<LoginResult>('/auth/login', {
+      method: 'POST',
+      body: JSON.stringify({
+        masterPassword,
+        challenge: data.challenge,
+        challengeSolution,
+      }),
+    });
+    storeToken(solved.data);
+    return solved;
+  },
 
-  logout: () =>
-    request<void>('/auth/logout', {
+  refresh: async () => {
+    const response = await request<{ token: string; expiresIn: number }>('/auth/refresh', {
       method: 'POST',
-    }),
+    });
+    storeToken(response.data);
+    return response;
+  },
+
+  // When the current bearer token expires, or null outside stateless mode.
+  tokenExpiresAt: () => (authToken ? authTokenExpiresAt : null),
+
+  logout: async () => {
+    const response = await request<void>('/auth/logout', {
+      method: 'POST',
+    });
+    clearToken();
+    entriesSnapshot = null;
+    return response;
+  },
 };
 
 export const entriesApi = {
-  getAll: () => request<PasswordEntry[]>('/entries'),
+  getAll: async (): Promise<ApiResponse<PasswordEntry[]>> => {
+    const snapshot = entriesSnapshot;
+    const response = await send('/entries', {
+      headers: snapshot ? { 'If-None-Match': snapshot.eTag } : {},
+    });
+    if (response.status === 304 && snapshot) {
+      return snapshot.response;
+    }
+    const data: ApiResponse<PasswordEntry[]> = await response.json();
+    const eTag = response.headers.get('ETag');
+    entriesSnapshot = data.success && eTag ? { eTag, response: data } : null;
+    return data;
+  },
 
   get: (id: number) => request<PasswordEntry>(`/entries/${id}`),
 
@@ -0,0 +1,28 @@
+function leadingZeroBits(digest: Uint8Array): number {
+  let bits = 0;
+  for (const byte of digest) {
+    if (byte === 0) {
+      bits += 8;
+      continue;
+    }
+    return bits + Math.clz32(byte) - 24;
+  }
+  return bits;
+}
+
+export async function solveChallenge(
+  challenge: string,
+  difficulty: number
+): Promise<string> {
+  const encoder = new TextEncoder();
+  for (let counter = 0; ; counter++) {
+    const solution = counter.toString(36);
+    const digest = await crypto.subtle.digest(
+      'SHA-256',
+      encoder.encode(`${challenge}:${solution}`)
+    );
+    if (leadingZeroBits(new Uint8Array(digest)) >= difficulty) {
+      return solution;
+    }
+  }
+}
@@ -26,6 +26,18 @@ export interface AuthStatus {
   authenticated: boolean;
 }
 
+export interface LoginResult {
+  authenticated: boolean;
+  remainingAttempts?: number;
+  token?: string;
+  expiresIn?: number;
+}
+
+export interface LoginChallenge {
+  challenge: string;
+  difficulty: number;
+}
+
 export interface PasswordStrength {
   score: number;
   maxScore: number;
@@ -0,0 +1,38 @@
+package com.pwmgr.config;
+
+import com.pwmgr.model.PasswordEntry;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+public class EntrySequenceInitializer implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EntrySequenceInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        resync();
+    }
+
+    public void resync() {
+        // Vaults created before the switch from IDENTITY columns already hold ids the
+        // new sequence would hand out again; move it past them (and past tombstoned ids).
+        // Restoring a backup into a fresh database leaves it behind in the same way.
+        Long maxId = jdbcTemplate.queryForObject(
+                "SELECT GREATEST(" +
+                "(SELECT COALESCE(MAX(id), 0) FROM password_entries), " +
+                "(SELECT COALESCE(MAX(entry_id), 0) FROM deleted_entries))", Long.class);
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR password_entries_seq", Long.class);
+
+        if (maxId != null && next != null && next <= maxId + PasswordEntry.ID_ALLOCATION_SIZE) {
+            jdbcTemplate.execute("ALTER SEQUENCE password_entries_seq RESTART WITH " +
+                    (maxId + PasswordEntry.ID_ALLOCATION_SIZE + 1));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.pwmgr.config;
+
+import com.pwmgr.model.UuidV7;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+@Component
+public class EntryUuidInitializer implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EntryUuidInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // Rows written before entries carried a uuid get one stamped from their
+        // creation time, so they slot into the uuid index in roughly creation order.
+        List<Object[]> batch;
+        do {
+            batch = jdbcTemplate.query(
+                    "SELECT id, created_at FROM password_entries WHERE uuid IS NULL ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, rowNum) -> {
+                        Timestamp createdAt = rs.getTimestamp("created_at");
+                        long millis = createdAt != null ? createdAt.getTime() : System.currentTimeMillis();
+                        return new Object[] {UuidV7.fromEpochMillis(millis), rs.getLong("id")};
+                    });
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate("UPDATE password_entries SET uuid = ? WHERE id = ?", batch);
+            }
+        } while (batch.size() == BATCH_SIZE);
+    }
+}
@@ -2,10 +2,13 @@ package com.pwmgr.controller;
 
 import com.pwmgr.dto.ApiResponse;
 import com.pwmgr.dto.LoginRequest;
+import com.pwmgr.dto.QuickUnlockRequest;
 import com.pwmgr.dto.SetupRequest;
+import com.pwmgr.security.LoginChallengeService;
 import com.pwmgr.service.AuthService;
 import com.pwmgr.service.AuthService.RateLimitException;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -20,9 +23,11 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginChallengeService loginChallengeService;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, LoginChallengeService loginChallengeService) {
         this.authService = authService;
+        this.loginChallengeService = loginChallengeService;
     }
 
     @GetMapping("/status")
@@ -30,6 +35,7 @@ public class AuthController {
         Map<String, Object> status = new HashMap<>();
         status.put("setupRequired", authService.isSetupRequired());
         status.put("authenticated", authService.isAuthenticated(session));
+        status.put("quickUnlockAvailable", authService.isQuickUnlockAvailable(session));
 
         return ResponseEntity.ok(ApiResponse.success("Status retrieved", status));
     }
@@ -54,9 +60,28 @@ public class AuthController {
     public ResponseEntity<ApiResponse<Map<String, Object>>> login(
             @Valid @RequestBody LoginRequest request,
             HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse,
             HttpSession session) {
         try {
             String clientId = getClientId(httpRequest);
+            // X-Forwarded-For is whatever the sender says it is, so a flood could
+            // pick a fresh value per request and always look quiet; the puzzle
+            // keys on the connection's own address instead.
+            String puzzleClientId = httpRequest.getRemoteAddr();
+
+            int required = loginChallengeService.requiredDifficulty(puzzleClientId);
+            boolean solved = required > 0 && loginChallengeService.verify(
+                    request.getChallenge(), request.getChallengeSolution(), required);
+            if (!solved) {
+                int difficulty = loginChallengeService.recordAttempt(puzzleClientId);
+                if (difficulty > 0) {
+                    Map<String, Object> challenge = new HashMap<>();
+                    challenge.put("challenge", loginChallengeService.issue(difficulty));
+                    challenge.put("difficulty", difficulty);
+                    return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED)
+                            .body(new ApiResponse<>(false, "Proof of work required", challenge));
+                }
+            }
 
             boolean authenticated = authService.authenticate(
                     request.getMasterPassword(), clientId, session);
@@ -64,7 +89,13 @@ public class AuthController {
             Map<String, Object> data = new HashMap<>();
 
             if (authenticated) {
+                authService.writeSessionToken(session, httpResponse);
                 data.put("authenticated", true);
+                String token = authService.issueToken(session);
+                if (token != null) {
+                    data.put("token", token);
+                    data.put("expiresIn", authService.getTokenTtlSeconds());
+                }
                 return ResponseEntity.ok(ApiResponse.success("Login successful", data));
             } else {
                 data.put("authenticated", false);
@@ -84,9 +115,94 @@ public class AuthController {
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> refresh(HttpSession session) {
+        if (authService.getSessionKey(session) == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            String token = authService.issueToken(session);
+            if (token == null) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error("Token refresh is only available in stateless mode"));
+            }
+            Map<String, Object> data = new HashMap<>();
+            data.put("token", token);
+            data.put("expiresIn", authService.getTokenTtlSeconds());
+            return ResponseEntity.ok(ApiResponse.success("Token refreshed", data));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Token refresh failed: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/quick-unlock")
+    public ResponseEntity<ApiResponse<Void>> enableQuickUnlock(
+            @Valid @RequestBody QuickUnlockRequest request,
+            HttpSession session) {
+        if (authService.getSessionKey(session) == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            authService.enableQuickUnlock(session, request.getPin());
+            return ResponseEntity.ok(ApiResponse.success("Quick unlock enabled"));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to enable quick unlock: " + e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/quick-unlock")
+    public ResponseEntity<ApiResponse<Void>> disableQuickUnlock(HttpSession session) {
+        authService.disableQuickUnlock(session);
+        return ResponseEntity.ok(ApiResponse.success("Quick unlock disabled"));
+    }
+
+    @PostMapping("/lock")
+    public ResponseEntity<ApiResponse<Void>> lock(HttpSession session, HttpServletResponse httpResponse) {
+        authService.lock(session);
+        authService.clearSessionToken(httpResponse);
+        return ResponseEntity.ok(ApiResponse.success("Vault locked"));
+    }
+
+    @PostMapping("/unlock")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> unlock(
+            @Valid @RequestBody QuickUnlockRequest request,
+            HttpServletResponse httpResponse,
+            HttpSession session) {
+        try {
+            if (authService.unlock(session, request.getPin())) {
+                authService.writeSessionToken(session, httpResponse);
+                Map<String, Object> data = new HashMap<>();
+                data.put("authenticated", true);
+                return ResponseEntity.ok(ApiResponse.success("Unlock successful", data));
+            }
+
+            Map<String, Object> data = new HashMap<>();
+            data.put("authenticated", false);
+            data.put("remainingAttempts", authService.getQuickUnlockRemainingAttempts(session));
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse<>(false, "Invalid PIN", data));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Unlock failed: " + e.getMessage()));
+        }
+    }
+
     @PostMapping("/logout")
-    public ResponseEntity<ApiResponse<Void>> logout(HttpSession session) {
+    public ResponseEntity<ApiResponse<Void>> logout(HttpSession session, HttpServletResponse httpResponse) {
         authService.logout(session);
+        authService.clearSessionToken(httpResponse);
         return ResponseEntity.ok(ApiResponse.success("Logged out successfully"));
     }
 
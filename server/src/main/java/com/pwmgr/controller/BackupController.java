@@ -0,0 +1,110 @@
+package com.pwmgr.controller;
+
+import com.pwmgr.dto.ApiResponse;
+import com.pwmgr.dto.BackupInfo;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.BackupService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/backups")
+public class BackupController {
+
+    private final BackupService backupService;
+    private final AuthService authService;
+
+    public BackupController(BackupService backupService, AuthService authService) {
+        this.backupService = backupService;
+        this.authService = authService;
+    }
+
+    @GetMapping
+    public ResponseEntity<ApiResponse<List<BackupInfo>>> listBackups(HttpSession session) {
+        if (!authService.isAuthenticated(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            return ResponseEntity.ok(ApiResponse.success("Backups retrieved", backupService.listBackups()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to list backups"));
+        }
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<BackupInfo>> createBackup(
+            @RequestParam(defaultValue = "incremental") String type,
+            HttpSession session) {
+        if (!authService.isAuthenticated(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        BackupService.BackupType backupType;
+        try {
+            backupType = BackupService.BackupType.valueOf(type.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("Unsupported backup type: " + type));
+        }
+
+        try {
+            BackupInfo backup = backupService.createBackup(backupType);
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Backup created", backup));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Backup failed"));
+        }
+    }
+
+    @PostMapping("/{name}/verify")
+    public ResponseEntity<ApiResponse<BackupInfo>> verifyBackup(@PathVariable String name, HttpSession session) {
+        if (!authService.isAuthenticated(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            BackupInfo backup = backupService.verify(name);
+            return ResponseEntity.ok(ApiResponse.success(
+                    Boolean.TRUE.equals(backup.getValid()) ? "Backup verified" : "Backup verification failed",
+                    backup));
+        } catch (BackupService.BackupNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to verify backup"));
+        }
+    }
+
+    @PostMapping("/{name}/restore")
+    public ResponseEntity<ApiResponse<Void>> restoreBackup(@PathVariable String name, HttpSession session) {
+        if (!authService.isAuthenticated(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            backupService.restore(name);
+            return ResponseEntity.ok(ApiResponse.success("Backup restored"));
+        } catch (BackupService.BackupNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Restore failed"));
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.pwmgr.controller;
+
+import com.pwmgr.dto.ApiResponse;
+import com.pwmgr.dto.EntryVersionResponse;
+import com.pwmgr.dto.PasswordReuseRequest;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.EntryHistoryService;
+import com.pwmgr.service.PasswordEntryService;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.crypto.SecretKey;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/entries")
+public class EntryHistoryController {
+
+    private final EntryHistoryService entryHistoryService;
+    private final AuthService authService;
+
+    public EntryHistoryController(EntryHistoryService entryHistoryService, AuthService authService) {
+        this.entryHistoryService = entryHistoryService;
+        this.authService = authService;
+    }
+
+    @GetMapping("/{id}/history")
+    public ResponseEntity<ApiResponse<List<EntryVersionResponse>>> getHistory(
+            @PathVariable Long id, HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            List<EntryVersionResponse> history = entryHistoryService.getHistory(id, key);
+            return ResponseEntity.ok(ApiResponse.success("History retrieved", history));
+        } catch (PasswordEntryService.EntryNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve history"));
+        }
+    }
+
+    @PostMapping("/history/reuse")
+    public ResponseEntity<ApiResponse<List<Long>>> checkReuse(
+            @Valid @RequestBody PasswordReuseRequest request, HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            List<Long> entryIds = entryHistoryService.findEntriesPreviouslyUsing(request.getPassword(), key);
+            return ResponseEntity.ok(ApiResponse.success(
+                    entryIds.isEmpty() ? "Password not found in history" : "Password was used before", entryIds));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to check password reuse"));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.pwmgr.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.ApiResponse;
+import com.pwmgr.dto.ArchiveVerification;
+import com.pwmgr.dto.ExportRequest;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.ExportService;
+import com.pwmgr.service.export.VaultArchive;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import jakarta.validation.Valid;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.crypto.SecretKey;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/entries/export")
+public class ExportController {
+
+    private final ExportService exportService;
+    private final AuthService authService;
+    private final ObjectMapper objectMapper;
+
+    public ExportController(ExportService exportService, AuthService authService, ObjectMapper objectMapper) {
+        this.exportService = exportService;
+        this.authService = authService;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping
+    public ResponseEntity<StreamingResponseBody> exportVault(@Valid @RequestBody ExportRequest request,
+                                                             HttpSession session,
+                                                             HttpServletResponse response) throws IOException {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            // The declared body type has to stay StreamingResponseBody for Spring to stream it,
+            // so the error is written directly.
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), ApiResponse.error("Not authenticated"));
+            return null;
+        }
+
+        StreamingResponseBody body = output -> {
+            try {
+                exportService.exportArchive(output, request.getPassphrase(), key);
+            } catch (IOException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IOException("Export failed", e);
+            }
+        };
+
+        String filename = "pwmgr-" + LocalDate.now() + VaultArchive.FILE_EXTENSION;
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    @PostMapping("/verify")
+    public ResponseEntity<ApiResponse<ArchiveVerification>> verifyArchive(InputStream body, HttpSession session) {
+        if (!authService.isAuthenticated(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        ArchiveVerification result = exportService.verifyArchive(body);
+        return ResponseEntity.ok(ApiResponse.success(
+                result.isValid() ? "Archive verified" : "Archive verification failed", result));
+    }
+}
@@ -0,0 +1,84 @@
+package com.pwmgr.controller;
+
+import com.pwmgr.dto.ApiResponse;
+import com.pwmgr.dto.ImportProgress;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.ImportService;
+import com.pwmgr.service.importer.ImportFormat;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.WebUtils;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/entries/import")
+public class ImportController {
+
+    private static final String SESSION_PROGRESS_ATTR = "importProgress";
+
+    private final ImportService importService;
+    private final AuthService authService;
+
+    public ImportController(ImportService importService, AuthService authService) {
+        this.importService = importService;
+        this.authService = authService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<ImportProgress>> importEntries(
+            @RequestParam String format, InputStream body, HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        ImportFormat importFormat;
+        try {
+            importFormat = ImportFormat.fromString(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        }
+
+        ImportProgress progress = new ImportProgress(importFormat.name());
+        synchronized (WebUtils.getSessionMutex(session)) {
+            ImportProgress running = (ImportProgress) session.getAttribute(SESSION_PROGRESS_ATTR);
+            if (running != null && !running.isCompleted()) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("An import is already running"));
+            }
+            session.setAttribute(SESSION_PROGRESS_ATTR, progress);
+        }
+
+        try {
+            importService.importEntries(body, importFormat, key, progress);
+            return ResponseEntity.ok(ApiResponse.success("Import completed", progress));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(new ApiResponse<>(false, e.getMessage(), progress));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(new ApiResponse<>(false, "Import failed: " + e.getMessage(), progress));
+        }
+    }
+
+    @GetMapping("/progress")
+    public ResponseEntity<ApiResponse<ImportProgress>> getProgress(HttpSession session) {
+        if (!authService.isAuthenticated(session)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        ImportProgress progress = (ImportProgress) session.getAttribute(SESSION_PROGRESS_ATTR);
+        if (progress == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("No import has been started"));
+        }
+        return ResponseEntity.ok(ApiResponse.success("Import progress", progress));
+    }
+}
@@ -0,0 +1,52 @@
+package com.pwmgr.controller;
+
+import com.pwmgr.dto.ApiResponse;
+import com.pwmgr.dto.IntegrityReport;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.IntegrityScanService;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.crypto.SecretKey;
+
+@RestController
+@RequestMapping("/api/entries/integrity-scan")
+public class IntegrityScanController {
+
+    private final IntegrityScanService integrityScanService;
+    private final AuthService authService;
+
+    public IntegrityScanController(IntegrityScanService integrityScanService, AuthService authService) {
+        this.integrityScanService = integrityScanService;
+        this.authService = authService;
+    }
+
+    @PostMapping
+    public ResponseEntity<ApiResponse<IntegrityReport>> scan(HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            IntegrityReport report = integrityScanService.scan(key);
+            String message = report.getCorruptIds().isEmpty()
+                    ? "No corrupt entries found"
+                    : report.getCorruptIds().size() + " corrupt entries found";
+            return ResponseEntity.ok(ApiResponse.success(message, report));
+        } catch (IntegrityScanService.ScanInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(ApiResponse.error("Integrity scan interrupted"));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Integrity scan failed"));
+        }
+    }
+}
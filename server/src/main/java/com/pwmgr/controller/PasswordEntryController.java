@@ -1,19 +1,31 @@
 package com.pwmgr.controller;
 
 import com.pwmgr.dto.ApiResponse;
+import com.pwmgr.dto.BatchRequest;
+import com.pwmgr.dto.BatchResponse;
+import com.pwmgr.dto.EntryChangesResponse;
+import com.pwmgr.dto.PasswordEntryPatchRequest;
 import com.pwmgr.dto.PasswordEntryRequest;
 import com.pwmgr.dto.PasswordEntryResponse;
 import com.pwmgr.service.AuthService;
+import com.pwmgr.service.IdempotencyService;
 import com.pwmgr.service.PasswordEntryService;
+import com.pwmgr.service.PasswordEntryService.DuplicateEntryException;
 import com.pwmgr.service.PasswordEntryService.EntryNotFoundException;
+import com.pwmgr.service.PasswordEntryService.SyncTokenExpiredException;
+import com.pwmgr.service.VaultRevisionService;
 import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.crypto.SecretKey;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/entries")
@@ -21,23 +33,39 @@ public class PasswordEntryController {
 
     private final PasswordEntryService passwordEntryService;
     private final AuthService authService;
+    private final VaultRevisionService vaultRevisionService;
+    private final IdempotencyService idempotencyService;
 
-    public PasswordEntryController(PasswordEntryService passwordEntryService, AuthService authService) {
+    public PasswordEntryController(PasswordEntryService passwordEntryService, AuthService authService,
+                                   VaultRevisionService vaultRevisionService,
+                                   IdempotencyService idempotencyService) {
         this.passwordEntryService = passwordEntryService;
         this.authService = authService;
+        this.vaultRevisionService = vaultRevisionService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<PasswordEntryResponse>>> getAllEntries(HttpSession session) {
+    public ResponseEntity<ApiResponse<List<PasswordEntryResponse>>> getAllEntries(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpSession session) {
         SecretKey key = authService.getSessionKey(session);
         if (key == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Not authenticated"));
         }
 
+        String eTag = vaultRevisionService.getETag();
+        if (vaultRevisionService.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
         try {
-            List<PasswordEntryResponse> entries = passwordEntryService.getAllEntries(key);
-            return ResponseEntity.ok(ApiResponse.success("Entries retrieved", entries));
+            List<PasswordEntryResponse> entries = passwordEntryService.getAllEntries(key, session.getId());
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noStore())
+                    .body(ApiResponse.success("Entries retrieved", entries));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Failed to retrieve entries: " + e.getMessage()));
@@ -46,16 +74,26 @@ public class PasswordEntryController {
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<PasswordEntryResponse>> getEntry(
-            @PathVariable Long id, HttpSession session) {
+            @PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpSession session) {
         SecretKey key = authService.getSessionKey(session);
         if (key == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Not authenticated"));
         }
 
+        String eTag = vaultRevisionService.getETag();
+        if (vaultRevisionService.matches(ifNoneMatch, eTag)) {
+            return notModified(eTag);
+        }
+
         try {
             PasswordEntryResponse entry = passwordEntryService.getEntry(id, key);
-            return ResponseEntity.ok(ApiResponse.success("Entry retrieved", entry));
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .cacheControl(CacheControl.noStore())
+                    .body(ApiResponse.success("Entry retrieved", entry));
         } catch (EntryNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
@@ -67,27 +105,39 @@ public class PasswordEntryController {
 
     @PostMapping
     public ResponseEntity<ApiResponse<PasswordEntryResponse>> createEntry(
-            @Valid @RequestBody PasswordEntryRequest request, HttpSession session) {
+            @Valid @RequestBody PasswordEntryRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            HttpSession session) {
         SecretKey key = authService.getSessionKey(session);
         if (key == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(ApiResponse.error("Not authenticated"));
         }
 
-        try {
-            PasswordEntryResponse entry = passwordEntryService.createEntry(request, key);
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(ApiResponse.success("Entry created", entry));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to create entry: " + e.getMessage()));
-        }
+        return idempotent(session, "POST /api/entries", idempotencyKey, request, () -> {
+            try {
+                PasswordEntryResponse entry = passwordEntryService.createEntry(request, key);
+                return ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.success("Entry created", entry));
+            } catch (DuplicateEntryException | DataIntegrityViolationException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error(e instanceof DuplicateEntryException
+                                ? e.getMessage() : "Entry already exists"));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error(e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.error("Failed to create entry: " + e.getMessage()));
+            }
+        });
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<PasswordEntryResponse>> updateEntry(
             @PathVariable Long id,
             @Valid @RequestBody PasswordEntryRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             HttpSession session) {
         SecretKey key = authService.getSessionKey(session);
         if (key == null) {
@@ -95,20 +145,89 @@ public class PasswordEntryController {
                     .body(ApiResponse.error("Not authenticated"));
         }
 
+        return idempotent(session, "PUT /api/entries/" + id, idempotencyKey, request, () -> {
+            try {
+                PasswordEntryResponse entry = passwordEntryService.updateEntry(id, request, key);
+                return ResponseEntity.ok(ApiResponse.success("Entry updated", entry));
+            } catch (EntryNotFoundException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.error("Failed to update entry: " + e.getMessage()));
+            }
+        });
+    }
+
+    @PatchMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> patchEntry(
+            @PathVariable Long id,
+            @Valid @RequestBody PasswordEntryPatchRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        return idempotent(session, "PATCH /api/entries/" + id, idempotencyKey, request, () -> {
+            try {
+                passwordEntryService.patchEntry(id, request, key);
+                return ResponseEntity.ok(ApiResponse.success("Entry updated"));
+            } catch (EntryNotFoundException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error(e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.error("Failed to update entry: " + e.getMessage()));
+            }
+        });
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<ApiResponse<Void>> deleteEntry(
+            @PathVariable Long id, HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
         try {
-            PasswordEntryResponse entry = passwordEntryService.updateEntry(id, request, key);
-            return ResponseEntity.ok(ApiResponse.success("Entry updated", entry));
+            passwordEntryService.deleteEntry(id);
+            return ResponseEntity.ok(ApiResponse.success("Entry deleted"));
         } catch (EntryNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to update entry: " + e.getMessage()));
+                    .body(ApiResponse.error("Failed to delete entry: " + e.getMessage()));
         }
     }
 
-    @DeleteMapping("/{id}")
-    public ResponseEntity<ApiResponse<Void>> deleteEntry(
+    @GetMapping("/trash")
+    public ResponseEntity<ApiResponse<List<PasswordEntryResponse>>> getTrash(HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            List<PasswordEntryResponse> entries = passwordEntryService.getTrash(key);
+            return ResponseEntity.ok(ApiResponse.success("Trash retrieved", entries));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve trash: " + e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/restore")
+    public ResponseEntity<ApiResponse<PasswordEntryResponse>> restoreEntry(
             @PathVariable Long id, HttpSession session) {
         SecretKey key = authService.getSessionKey(session);
         if (key == null) {
@@ -117,14 +236,14 @@ public class PasswordEntryController {
         }
 
         try {
-            passwordEntryService.deleteEntry(id);
-            return ResponseEntity.ok(ApiResponse.success("Entry deleted"));
+            PasswordEntryResponse entry = passwordEntryService.restoreEntry(id, key);
+            return ResponseEntity.ok(ApiResponse.success("Entry restored", entry));
         } catch (EntryNotFoundException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error(e.getMessage()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(ApiResponse.error("Failed to delete entry: " + e.getMessage()));
+                    .body(ApiResponse.error("Failed to restore entry: " + e.getMessage()));
         }
     }
 
@@ -138,11 +257,94 @@ public class PasswordEntryController {
         }
 
         try {
-            List<PasswordEntryResponse> entries = passwordEntryService.searchEntries(q, key);
+            List<PasswordEntryResponse> entries = passwordEntryService.searchEntries(q, key, session.getId());
             return ResponseEntity.ok(ApiResponse.success("Search completed", entries));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error("Search failed: " + e.getMessage()));
         }
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<BatchResponse>> applyBatch(
+            @Valid @RequestBody BatchRequest request,
+            @RequestHeader(value = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        return idempotent(session, "POST /api/entries/batch", idempotencyKey, request, () -> {
+            try {
+                BatchResponse result = passwordEntryService.applyBatch(request.getOperations(), key);
+                return ResponseEntity.ok(ApiResponse.success("Batch applied", result));
+            } catch (EntryNotFoundException e) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error(e.getMessage()));
+            } catch (DuplicateEntryException | DataIntegrityViolationException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error(e instanceof DuplicateEntryException
+                                ? e.getMessage() : "Entry already exists"));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest()
+                        .body(ApiResponse.error(e.getMessage()));
+            } catch (Exception e) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.error("Failed to apply batch: " + e.getMessage()));
+            }
+        });
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<EntryChangesResponse>> getChanges(
+            @RequestParam(required = false) String since, HttpSession session) {
+        SecretKey key = authService.getSessionKey(session);
+        if (key == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(ApiResponse.error("Not authenticated"));
+        }
+
+        try {
+            EntryChangesResponse changes = passwordEntryService.getChanges(since, key);
+            return ResponseEntity.ok(ApiResponse.success("Changes retrieved", changes));
+        } catch (SyncTokenExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Failed to retrieve changes: " + e.getMessage()));
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> idempotent(HttpSession session, String scope, String idempotencyKey,
+                                                         Object request,
+                                                         Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        try {
+            return idempotencyService.execute(session.getId(), scope, idempotencyKey, request, action);
+        } catch (IdempotencyService.IdempotencyKeyReusedException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IdempotencyService.IdempotencyKeyInProgressException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("Request failed: " + e.getMessage()));
+        }
+    }
+
+    private <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(CacheControl.noStore())
+                .build();
+    }
 }
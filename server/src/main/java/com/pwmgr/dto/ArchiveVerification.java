@@ -0,0 +1,50 @@
+package com.pwmgr.dto;
+
+public class ArchiveVerification {
+
+    private boolean valid;
+    private long chunks;
+    private long entries;
+    private String message;
+
+    public ArchiveVerification() {}
+
+    public ArchiveVerification(boolean valid, long chunks, long entries, String message) {
+        this.valid = valid;
+        this.chunks = chunks;
+        this.entries = entries;
+        this.message = message;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+
+    public long getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(long chunks) {
+        this.chunks = chunks;
+    }
+
+    public long getEntries() {
+        return entries;
+    }
+
+    public void setEntries(long entries) {
+        this.entries = entries;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
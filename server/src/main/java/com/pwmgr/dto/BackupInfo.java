@@ -0,0 +1,80 @@
+package com.pwmgr.dto;
+
+import java.time.LocalDateTime;
+
+public class BackupInfo {
+
+    private String name;
+    private String type;
+    private String parent;
+    private LocalDateTime createdAt;
+    private long sizeBytes;
+    private Boolean valid;
+    private String message;
+
+    public BackupInfo() {}
+
+    public BackupInfo(String name, String type, String parent, LocalDateTime createdAt, long sizeBytes) {
+        this.name = name;
+        this.type = type;
+        this.parent = parent;
+        this.createdAt = createdAt;
+        this.sizeBytes = sizeBytes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getParent() {
+        return parent;
+    }
+
+    public void setParent(String parent) {
+        this.parent = parent;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public void setSizeBytes(long sizeBytes) {
+        this.sizeBytes = sizeBytes;
+    }
+
+    public Boolean getValid() {
+        return valid;
+    }
+
+    public void setValid(Boolean valid) {
+        this.valid = valid;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,63 @@
+package com.pwmgr.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.UUID;
+
+public class BatchOperation {
+
+    public enum Type {
+        CREATE, UPDATE, DELETE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    private Long id;
+
+    private UUID uuid;
+
+    @Valid
+    private PasswordEntryRequest entry;
+
+    public BatchOperation() {}
+
+    public BatchOperation(Type type, Long id, PasswordEntryRequest entry) {
+        this.type = type;
+        this.id = id;
+        this.entry = entry;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public void setType(Type type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
+    public PasswordEntryRequest getEntry() {
+        return entry;
+    }
+
+    public void setEntry(PasswordEntryRequest entry) {
+        this.entry = entry;
+    }
+}
@@ -0,0 +1,30 @@
+package com.pwmgr.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class BatchRequest {
+
+    public static final int MAX_OPERATIONS = 10000;
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = MAX_OPERATIONS, message = "Too many operations in one batch")
+    private List<@Valid BatchOperation> operations;
+
+    public BatchRequest() {}
+
+    public BatchRequest(List<BatchOperation> operations) {
+        this.operations = operations;
+    }
+
+    public List<BatchOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<BatchOperation> operations) {
+        this.operations = operations;
+    }
+}
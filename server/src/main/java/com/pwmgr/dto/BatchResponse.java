@@ -0,0 +1,43 @@
+package com.pwmgr.dto;
+
+import java.util.List;
+
+public class BatchResponse {
+
+    private List<PasswordEntryResponse> created;
+    private List<PasswordEntryResponse> updated;
+    private List<Long> deletedIds;
+
+    public BatchResponse() {}
+
+    public BatchResponse(List<PasswordEntryResponse> created, List<PasswordEntryResponse> updated,
+                         List<Long> deletedIds) {
+        this.created = created;
+        this.updated = updated;
+        this.deletedIds = deletedIds;
+    }
+
+    public List<PasswordEntryResponse> getCreated() {
+        return created;
+    }
+
+    public void setCreated(List<PasswordEntryResponse> created) {
+        this.created = created;
+    }
+
+    public List<PasswordEntryResponse> getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(List<PasswordEntryResponse> updated) {
+        this.updated = updated;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+}
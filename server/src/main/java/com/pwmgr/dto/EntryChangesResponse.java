@@ -0,0 +1,42 @@
+package com.pwmgr.dto;
+
+import java.util.List;
+
+public class EntryChangesResponse {
+
+    private List<PasswordEntryResponse> entries;
+    private List<Long> deletedIds;
+    private String token;
+
+    public EntryChangesResponse() {}
+
+    public EntryChangesResponse(List<PasswordEntryResponse> entries, List<Long> deletedIds, String token) {
+        this.entries = entries;
+        this.deletedIds = deletedIds;
+        this.token = token;
+    }
+
+    public List<PasswordEntryResponse> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<PasswordEntryResponse> entries) {
+        this.entries = entries;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+}
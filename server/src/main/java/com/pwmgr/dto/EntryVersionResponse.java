@@ -0,0 +1,93 @@
+package com.pwmgr.dto;
+
+import java.time.LocalDateTime;
+
+public class EntryVersionResponse {
+
+    private Long id;
+    private Long entryId;
+    private String siteName;
+    private String username;
+    private String password;
+    private String notes;
+    private LocalDateTime validFrom;
+    private LocalDateTime archivedAt;
+
+    public EntryVersionResponse() {}
+
+    public EntryVersionResponse(Long id, Long entryId, String siteName, String username, String password,
+                                String notes, LocalDateTime validFrom, LocalDateTime archivedAt) {
+        this.id = id;
+        this.entryId = entryId;
+        this.siteName = siteName;
+        this.username = username;
+        this.password = password;
+        this.notes = notes;
+        this.validFrom = validFrom;
+        this.archivedAt = archivedAt;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(Long entryId) {
+        this.entryId = entryId;
+    }
+
+    public String getSiteName() {
+        return siteName;
+    }
+
+    public void setSiteName(String siteName) {
+        this.siteName = siteName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    public LocalDateTime getValidFrom() {
+        return validFrom;
+    }
+
+    public void setValidFrom(LocalDateTime validFrom) {
+        this.validFrom = validFrom;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+
+    public void setArchivedAt(LocalDateTime archivedAt) {
+        this.archivedAt = archivedAt;
+    }
+}
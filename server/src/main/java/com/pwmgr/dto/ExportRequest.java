@@ -0,0 +1,25 @@
+package com.pwmgr.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+public class ExportRequest {
+
+    @NotBlank(message = "Export passphrase is required")
+    @Size(min = 8, message = "Export passphrase must be at least 8 characters")
+    private String passphrase;
+
+    public ExportRequest() {}
+
+    public ExportRequest(String passphrase) {
+        this.passphrase = passphrase;
+    }
+
+    public String getPassphrase() {
+        return passphrase;
+    }
+
+    public void setPassphrase(String passphrase) {
+        this.passphrase = passphrase;
+    }
+}
@@ -0,0 +1,67 @@
+package com.pwmgr.dto;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ImportProgress {
+
+    private final String format;
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private volatile boolean completed;
+    private volatile String error;
+
+    public ImportProgress(String format) {
+        this.format = format;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public long getParsed() {
+        return parsed.get();
+    }
+
+    public long getImported() {
+        return imported.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getSkipped() {
+        return skipped.get();
+    }
+
+    public boolean isCompleted() {
+        return completed;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void incrementParsed() {
+        parsed.incrementAndGet();
+    }
+
+    public void addImported(long count) {
+        imported.addAndGet(count);
+    }
+
+    public void incrementDuplicates() {
+        duplicates.incrementAndGet();
+    }
+
+    public void incrementSkipped() {
+        skipped.incrementAndGet();
+    }
+
+    public void complete(String error) {
+        this.error = error;
+        this.completed = true;
+    }
+}
@@ -0,0 +1,42 @@
+package com.pwmgr.dto;
+
+import java.util.List;
+
+public class IntegrityReport {
+
+    private long scanned;
+    private List<Long> corruptIds;
+    private long durationMillis;
+
+    public IntegrityReport() {}
+
+    public IntegrityReport(long scanned, List<Long> corruptIds, long durationMillis) {
+        this.scanned = scanned;
+        this.corruptIds = corruptIds;
+        this.durationMillis = durationMillis;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(long scanned) {
+        this.scanned = scanned;
+    }
+
+    public List<Long> getCorruptIds() {
+        return corruptIds;
+    }
+
+    public void setCorruptIds(List<Long> corruptIds) {
+        this.corruptIds = corruptIds;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public void setDurationMillis(long durationMillis) {
+        this.durationMillis = durationMillis;
+    }
+}
@@ -7,6 +7,10 @@ public class LoginRequest {
     @NotBlank(message = "Master password is required")
     private String masterPassword;
 
+    private String challenge;
+
+    private String challengeSolution;
+
     public LoginRequest() {}
 
     public LoginRequest(String masterPassword) {
@@ -20,4 +24,20 @@ public class LoginRequest {
     public void setMasterPassword(String masterPassword) {
         this.masterPassword = masterPassword;
     }
+
+    public String getChallenge() {
+        return challenge;
+    }
+
+    public void setChallenge(String challenge) {
+        this.challenge = challenge;
+    }
+
+    public String getChallengeSolution() {
+        return challengeSolution;
+    }
+
+    public void setChallengeSolution(String challengeSolution) {
+        this.challengeSolution = challengeSolution;
+    }
 }
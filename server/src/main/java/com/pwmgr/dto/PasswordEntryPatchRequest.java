@@ -0,0 +1,62 @@
+package com.pwmgr.dto;
+
+import jakarta.validation.constraints.Pattern;
+
+public class PasswordEntryPatchRequest {
+
+    @Pattern(regexp = ".*\\S.*", message = "Site name must not be blank")
+    private String siteName;
+
+    @Pattern(regexp = ".*\\S.*", message = "Username must not be blank")
+    private String username;
+
+    @Pattern(regexp = ".*\\S.*", message = "Password must not be blank")
+    private String password;
+
+    private String notes;
+
+    public PasswordEntryPatchRequest() {}
+
+    public PasswordEntryPatchRequest(String siteName, String username, String password, String notes) {
+        this.siteName = siteName;
+        this.username = username;
+        this.password = password;
+        this.notes = notes;
+    }
+
+    public boolean isEmpty() {
+        return siteName == null && username == null && password == null && notes == null;
+    }
+
+    public String getSiteName() {
+        return siteName;
+    }
+
+    public void setSiteName(String siteName) {
+        this.siteName = siteName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getNotes() {
+        return notes;
+    }
+
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+}
@@ -2,6 +2,8 @@ package com.pwmgr.dto;
 
 import jakarta.validation.constraints.NotBlank;
 
+import java.util.UUID;
+
 public class PasswordEntryRequest {
 
     @NotBlank(message = "Site name is required")
@@ -15,6 +17,8 @@ public class PasswordEntryRequest {
 
     private String notes;
 
+    private UUID uuid;
+
     public PasswordEntryRequest() {}
 
     public PasswordEntryRequest(String siteName, String username, String password, String notes) {
@@ -48,6 +52,14 @@ public class PasswordEntryRequest {
         this.password = password;
     }
 
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
     public String getNotes() {
         return notes;
     }
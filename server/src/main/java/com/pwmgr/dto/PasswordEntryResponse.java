@@ -1,16 +1,20 @@
 package com.pwmgr.dto;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class PasswordEntryResponse {
 
     private Long id;
+    private UUID uuid;
     private String siteName;
     private String username;
     private String password;
     private String notes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private LocalDateTime deletedAt;
+    private boolean corrupt;
 
     public PasswordEntryResponse() {}
 
@@ -33,6 +37,14 @@ public class PasswordEntryResponse {
         this.id = id;
     }
 
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
     public String getSiteName() {
         return siteName;
     }
@@ -80,4 +92,20 @@ public class PasswordEntryResponse {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public boolean isCorrupt() {
+        return corrupt;
+    }
+
+    public void setCorrupt(boolean corrupt) {
+        this.corrupt = corrupt;
+    }
 }
@@ -0,0 +1,23 @@
+package com.pwmgr.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class PasswordReuseRequest {
+
+    @NotBlank(message = "Password is required")
+    private String password;
+
+    public PasswordReuseRequest() {}
+
+    public PasswordReuseRequest(String password) {
+        this.password = password;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
@@ -0,0 +1,23 @@
+package com.pwmgr.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public class QuickUnlockRequest {
+
+    @NotBlank(message = "PIN is required")
+    private String pin;
+
+    public QuickUnlockRequest() {}
+
+    public QuickUnlockRequest(String pin) {
+        this.pin = pin;
+    }
+
+    public String getPin() {
+        return pin;
+    }
+
+    public void setPin(String pin) {
+        this.pin = pin;
+    }
+}
@@ -0,0 +1,74 @@
+package com.pwmgr.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "deleted_entries", indexes = {
+        @Index(name = "idx_deleted_entries_deleted_at", columnList = "deletedAt"),
+        @Index(name = "idx_deleted_entries_revision", columnList = "revision")
+})
+public class DeletedEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "deleted_entries_seq")
+    @SequenceGenerator(name = "deleted_entries_seq", sequenceName = "deleted_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long entryId;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+
+    @Column
+    private Long revision;
+
+    @PrePersist
+    protected void onCreate() {
+        deletedAt = LocalDateTime.now();
+    }
+
+    public DeletedEntry() {}
+
+    public DeletedEntry(Long entryId) {
+        this.entryId = entryId;
+    }
+
+    public DeletedEntry(Long entryId, Long revision) {
+        this.entryId = entryId;
+        this.revision = revision;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public void setEntryId(Long entryId) {
+        this.entryId = entryId;
+    }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+}
@@ -0,0 +1,110 @@
+package com.pwmgr.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "entry_versions", indexes = {
+        @Index(name = "idx_entry_versions_entry_id", columnList = "entryId"),
+        @Index(name = "idx_entry_versions_password_fingerprint", columnList = "passwordFingerprint")
+})
+public class EntryVersion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entry_versions_seq")
+    @SequenceGenerator(name = "entry_versions_seq", sequenceName = "entry_versions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private Long entryId;
+
+    @Column(nullable = false, updatable = false)
+    private String siteName;
+
+    @Column(nullable = false, updatable = false)
+    private String username;
+
+    @Column(nullable = false, updatable = false, length = 1000)
+    private String encryptedPassword;
+
+    @Column(nullable = false, updatable = false)
+    private String iv;
+
+    @Column(updatable = false, length = 2000)
+    private String encryptedNotes;
+
+    @Column(updatable = false)
+    private String notesIv;
+
+    @Column(updatable = false, length = 64)
+    private String passwordFingerprint;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime validFrom;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime archivedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        archivedAt = LocalDateTime.now();
+    }
+
+    public EntryVersion() {}
+
+    public EntryVersion(PasswordEntry entry, String passwordFingerprint) {
+        this.entryId = entry.getId();
+        this.siteName = entry.getSiteName();
+        this.username = entry.getUsername();
+        this.encryptedPassword = entry.getEncryptedPassword();
+        this.iv = entry.getIv();
+        this.encryptedNotes = entry.getEncryptedNotes();
+        this.notesIv = entry.getNotesIv();
+        this.passwordFingerprint = passwordFingerprint;
+        this.validFrom = entry.getUpdatedAt() != null ? entry.getUpdatedAt() : LocalDateTime.now();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getEntryId() {
+        return entryId;
+    }
+
+    public String getSiteName() {
+        return siteName;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEncryptedPassword() {
+        return encryptedPassword;
+    }
+
+    public String getIv() {
+        return iv;
+    }
+
+    public String getEncryptedNotes() {
+        return encryptedNotes;
+    }
+
+    public String getNotesIv() {
+        return notesIv;
+    }
+
+    public String getPasswordFingerprint() {
+        return passwordFingerprint;
+    }
+
+    public LocalDateTime getValidFrom() {
+        return validFrom;
+    }
+
+    public LocalDateTime getArchivedAt() {
+        return archivedAt;
+    }
+}
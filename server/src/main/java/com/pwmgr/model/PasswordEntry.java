@@ -2,43 +2,71 @@ package com.pwmgr.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 @Entity
-@Table(name = "password_entries")
+@Table(name = "password_entries", indexes = {
+        @Index(name = "idx_password_entries_updated_at", columnList = "updatedAt"),
+        @Index(name = "idx_password_entries_deleted_at_site_name", columnList = "deletedAt, siteName"),
+        @Index(name = "idx_password_entries_revision", columnList = "revision")
+})
 public class PasswordEntry {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+    public static final int SITE_NAME_MAX_LENGTH = 255;
+    public static final int USERNAME_MAX_LENGTH = 255;
+    public static final int ENCRYPTED_PASSWORD_MAX_LENGTH = 1000;
+    public static final int ENCRYPTED_NOTES_MAX_LENGTH = 2000;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "password_entries_seq")
+    @SequenceGenerator(name = "password_entries_seq", sequenceName = "password_entries_seq",
+            allocationSize = PasswordEntry.ID_ALLOCATION_SIZE)
     private Long id;
 
-    @Column(nullable = false)
+    @Column(unique = true, updatable = false)
+    private UUID uuid;
+
+    @Column(nullable = false, length = SITE_NAME_MAX_LENGTH)
     private String siteName;
 
-    @Column(nullable = false)
+    @Column(nullable = false, length = USERNAME_MAX_LENGTH)
     private String username;
 
-    @Column(nullable = false, length = 1000)
+    @Column(nullable = false, length = ENCRYPTED_PASSWORD_MAX_LENGTH)
     private String encryptedPassword;
 
     @Column(nullable = false)
     private String iv;
 
-    @Column(length = 2000)
+    @Column(length = ENCRYPTED_NOTES_MAX_LENGTH)
     private String encryptedNotes;
 
     @Column
     private String notesIv;
 
+    @Column(length = 64)
+    private String fingerprint;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column
+    private LocalDateTime deletedAt;
+
+    @Column
+    private Long revision;
+
     @PrePersist
     protected void onCreate() {
+        if (uuid == null) {
+            uuid = UuidV7.generate();
+        }
         createdAt = LocalDateTime.now();
-        updatedAt = LocalDateTime.now();
+        updatedAt = createdAt;
     }
 
     @PreUpdate
@@ -56,6 +84,14 @@ public class PasswordEntry {
         this.id = id;
     }
 
+    public UUID getUuid() {
+        return uuid;
+    }
+
+    public void setUuid(UUID uuid) {
+        this.uuid = uuid;
+    }
+
     public String getSiteName() {
         return siteName;
     }
@@ -104,6 +140,14 @@ public class PasswordEntry {
         this.notesIv = notesIv;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -119,4 +163,20 @@ public class PasswordEntry {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
 }
@@ -0,0 +1,41 @@
+package com.pwmgr.model;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+/**
+ * RFC 9562 version 7 UUIDs: a 48-bit Unix millisecond timestamp followed by
+ * random bits, so ids minted close together also sort (and index) together.
+ */
+public final class UuidV7 {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private UuidV7() {}
+
+    public static UUID generate() {
+        return fromEpochMillis(System.currentTimeMillis());
+    }
+
+    public static UUID fromEpochMillis(long epochMillis) {
+        byte[] random = new byte[10];
+        RANDOM.nextBytes(random);
+
+        long mostSigBits = (epochMillis & 0xFFFFFFFFFFFFL) << 16
+                | 0x7000L
+                | (random[0] & 0x0FL) << 8
+                | (random[1] & 0xFFL);
+        long leastSigBits = 0x8000000000000000L
+                | (ByteBuffer.wrap(random, 2, 8).getLong() & 0x3FFFFFFFFFFFFFFFL);
+        return new UUID(mostSigBits, leastSigBits);
+    }
+
+    public static boolean isValid(UUID uuid) {
+        return uuid != null && uuid.version() == 7 && uuid.variant() == 2;
+    }
+
+    public static long epochMillis(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
@@ -0,0 +1,50 @@
+package com.pwmgr.model;
+
+import jakarta.persistence.*;
+
+@Entity
+@Table(name = "vault_revision")
+public class VaultRevision {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Long revision;
+
+    @Column
+    private Long syncHorizon;
+
+    public VaultRevision() {}
+
+    public VaultRevision(Integer id, Long revision) {
+        this.id = id;
+        this.revision = revision;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getRevision() {
+        return revision;
+    }
+
+    public void setRevision(Long revision) {
+        this.revision = revision;
+    }
+
+    public Long getSyncHorizon() {
+        return syncHorizon;
+    }
+
+    public void setSyncHorizon(Long syncHorizon) {
+        this.syncHorizon = syncHorizon;
+    }
+}
@@ -0,0 +1,32 @@
+package com.pwmgr.repository;
+
+import com.pwmgr.model.DeletedEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DeletedEntryRepository extends JpaRepository<DeletedEntry, Long> {
+
+    List<DeletedEntry> findByRevisionGreaterThan(Long revision);
+
+    @Query("SELECT MAX(d.revision) FROM DeletedEntry d WHERE d.deletedAt < :cutoff")
+    Optional<Long> findMaxRevisionDeletedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeletedEntry d WHERE d.deletedAt < :cutoff")
+    int deleteByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DeletedEntry d WHERE d.entryId = :entryId")
+    int deleteByEntryId(@Param("entryId") Long entryId);
+}
@@ -0,0 +1,36 @@
+package com.pwmgr.repository;
+
+import com.pwmgr.model.EntryVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EntryVersionRepository extends JpaRepository<EntryVersion, Long> {
+
+    interface VersionKey {
+        Long getId();
+
+        Long getEntryId();
+    }
+
+    List<EntryVersion> findByEntryIdOrderByIdDesc(Long entryId);
+
+    @Query("SELECT v.id AS id, v.entryId AS entryId FROM EntryVersion v " +
+           "WHERE v.entryId IN :entryIds ORDER BY v.entryId, v.id DESC")
+    List<VersionKey> findKeysByEntryIdInNewestFirst(@Param("entryIds") Collection<Long> entryIds);
+
+    @Query("SELECT DISTINCT v.entryId FROM EntryVersion v WHERE v.passwordFingerprint = :fingerprint")
+    List<Long> findEntryIdsByPasswordFingerprint(@Param("fingerprint") String fingerprint);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EntryVersion v WHERE v.entryId IN :entryIds")
+    int deleteByEntryIdIn(@Param("entryIds") Collection<Long> entryIds);
+}
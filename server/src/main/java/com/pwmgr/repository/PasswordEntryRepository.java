@@ -1,20 +1,63 @@
 package com.pwmgr.repository;
 
 import com.pwmgr.model.PasswordEntry;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.UUID;
 
 @Repository
-public interface PasswordEntryRepository extends JpaRepository<PasswordEntry, Long> {
+public interface PasswordEntryRepository extends JpaRepository<PasswordEntry, Long>, PasswordEntryRepositoryCustom {
 
-    @Query("SELECT p FROM PasswordEntry p WHERE " +
+    @Query("SELECT p FROM PasswordEntry p WHERE p.deletedAt IS NULL AND (" +
            "LOWER(p.siteName) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
-           "LOWER(p.username) LIKE LOWER(CONCAT('%', :query, '%'))")
+           "LOWER(p.username) LIKE LOWER(CONCAT('%', :query, '%')))")
     List<PasswordEntry> searchByQuery(@Param("query") String query);
 
-    List<PasswordEntry> findAllByOrderBySiteNameAsc();
+    List<PasswordEntry> findByDeletedAtIsNullOrderBySiteNameAsc();
+
+    List<PasswordEntry> findByDeletedAtIsNullAndRevisionGreaterThanOrderBySiteNameAsc(Long revision);
+
+    List<PasswordEntry> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<PasswordEntry> findByDeletedAtIsNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<PasswordEntry> findByDeletedAtIsNotNullOrderByDeletedAtDesc();
+
+    @Query("SELECT p.id FROM PasswordEntry p WHERE p.deletedAt < :cutoff ORDER BY p.id")
+    List<Long> findIdsTrashedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PasswordEntry p SET p.deletedAt = :now, p.updatedAt = :now, p.revision = :revision " +
+           "WHERE p.id IN :ids AND p.deletedAt IS NULL")
+    int moveToTrash(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now,
+                    @Param("revision") Long revision);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE PasswordEntry p SET p.deletedAt = NULL, p.updatedAt = :now, p.revision = :revision " +
+           "WHERE p.id = :id AND p.deletedAt IS NOT NULL")
+    int restoreFromTrash(@Param("id") Long id, @Param("now") LocalDateTime now,
+                         @Param("revision") Long revision);
+
+    List<PasswordEntry> findByFingerprintIsNull();
+
+    boolean existsByUuid(UUID uuid);
+
+    List<PasswordEntry> findByUuidIn(Collection<UUID> uuids);
+
+    @Query("SELECT p.uuid FROM PasswordEntry p WHERE p.uuid IN :uuids")
+    List<UUID> findExistingUuids(@Param("uuids") Collection<UUID> uuids);
+
+    @Query("SELECT p.fingerprint FROM PasswordEntry p WHERE p.fingerprint IS NOT NULL AND p.deletedAt IS NULL")
+    List<String> findAllFingerprints();
 }
@@ -0,0 +1,8 @@
+package com.pwmgr.repository;
+
+import java.util.Map;
+
+public interface PasswordEntryRepositoryCustom {
+
+    int updateFields(Long id, Map<String, Object> changes);
+}
@@ -0,0 +1,38 @@
+package com.pwmgr.repository;
+
+import com.pwmgr.model.PasswordEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public class PasswordEntryRepositoryImpl implements PasswordEntryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int updateFields(Long id, Map<String, Object> changes) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<PasswordEntry> update = cb.createCriteriaUpdate(PasswordEntry.class);
+        Root<PasswordEntry> root = update.from(PasswordEntry.class);
+
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            if (change.getValue() == null) {
+                update.set(root.<String>get(change.getKey()), cb.nullLiteral(String.class));
+            } else {
+                update.set(change.getKey(), change.getValue());
+            }
+        }
+        update.set(root.<LocalDateTime>get("updatedAt"), LocalDateTime.now());
+        update.where(cb.equal(root.get("id"), id), cb.isNull(root.get("deletedAt")));
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,32 @@
+package com.pwmgr.repository;
+
+import com.pwmgr.model.VaultRevision;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface VaultRevisionRepository extends JpaRepository<VaultRevision, Integer> {
+
+    @Query("SELECT v.revision FROM VaultRevision v WHERE v.id = :id")
+    Optional<Long> findRevision(@Param("id") Integer id);
+
+    @Query("SELECT v.syncHorizon FROM VaultRevision v WHERE v.id = :id")
+    Optional<Long> findSyncHorizon(@Param("id") Integer id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE VaultRevision v SET v.revision = v.revision + 1 WHERE v.id = :id")
+    int increment(@Param("id") Integer id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE VaultRevision v SET v.syncHorizon = :horizon " +
+           "WHERE v.id = :id AND (v.syncHorizon IS NULL OR v.syncHorizon < :horizon)")
+    int raiseSyncHorizon(@Param("id") Integer id, @Param("horizon") Long horizon);
+}
@@ -0,0 +1,36 @@
+package com.pwmgr.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.regex.Pattern;
+
+// Groups API requests by the kind of work they trigger, so throttling and
+// concurrency limits can treat bulk decrypts, PBKDF2 logins and cheap calls apart.
+public enum ApiEndpointClass {
+    LIST, GET, GENERATE, LOGIN, OTHER;
+
+    private static final Pattern LIST_READ_PATH = Pattern.compile("/api/entries(/search|/changes|/trash)?/?");
+    private static final Pattern BULK_POST_PATH = Pattern.compile("/api/entries/(export(/verify)?|integrity-scan)/?");
+    private static final Pattern ENTRY_READ_PATH = Pattern.compile("/api/entries/\\d+(/history)?/?");
+    private static final Pattern GENERATE_PATH = Pattern.compile("/api/generate(/.*)?");
+    private static final Pattern LOGIN_PATH = Pattern.compile("/api/auth/(login|setup)/?");
+
+    public static ApiEndpointClass of(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if (GENERATE_PATH.matcher(path).matches()) {
+            return GENERATE;
+        }
+        if ("GET".equals(method) && LIST_READ_PATH.matcher(path).matches()
+                || "POST".equals(method) && BULK_POST_PATH.matcher(path).matches()) {
+            return LIST;
+        }
+        if ("GET".equals(method) && ENTRY_READ_PATH.matcher(path).matches()) {
+            return GET;
+        }
+        if ("POST".equals(method) && LOGIN_PATH.matcher(path).matches()) {
+            return LOGIN;
+        }
+        return OTHER;
+    }
+}
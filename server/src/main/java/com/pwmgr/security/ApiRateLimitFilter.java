@@ -0,0 +1,208 @@
+package com.pwmgr.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket throttle for the endpoints that decrypt or generate on every
+ * call. Each session gets one bucket per endpoint class, and each request
+ * spends tokens in proportion to the work it triggers. In stateless mode the
+ * session is the one rebuilt from the bearer token, whose id survives refresh,
+ * so the bucket follows the login rather than the token.
+ */
+@Component
+public class ApiRateLimitFilter extends OncePerRequestFilter {
+
+    // Token amounts are scaled so fractional refills don't get lost to rounding.
+    private static final long SCALE = 1_000;
+
+    @Value("${app.api-rate-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.api-rate-limit.capacity:100}")
+    private long capacity = 100;
+
+    @Value("${app.api-rate-limit.refill-per-second:20}")
+    private long refillPerSecond = 20;
+
+    @Value("${app.api-rate-limit.list-cost:10}")
+    private long listCost = 10;
+
+    @Value("${app.api-rate-limit.get-cost:2}")
+    private long getCost = 2;
+
+    @Value("${app.api-rate-limit.generate-cost:1}")
+    private long generateCost = 1;
+
+    @Value("${app.api-rate-limit.max-buckets:100000}")
+    private int maxBuckets = 100_000;
+
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+
+    // Capped at roughly maxBuckets: whoever adds a bucket past the cap sweeps
+    // the map down to nine tenths of it, so a flood of fresh sessions pays
+    // for one sweep per tenth of the cap rather than one per request.
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    @Autowired
+    public ApiRateLimitFilter(ObjectMapper objectMapper) {
+        this(objectMapper, System::nanoTime);
+    }
+
+    ApiRateLimitFilter(ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || cost(ApiEndpointClass.of(request)) == 0;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ApiEndpointClass endpoint = ApiEndpointClass.of(request);
+        HttpSession session = request.getSession(false);
+        String client = session != null ? session.getId() : request.getRemoteAddr();
+        String key = client + "|" + endpoint;
+
+        long now = nanoClock.getAsLong();
+        Bucket bucket = bucket(key, now);
+
+        long waitNanos = bucket.tryConsume(cost(endpoint) * SCALE, capacity * SCALE, refillPerSecond * SCALE, now);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Too many requests. Please slow down."));
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.api-rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        evictIdle(nanoClock.getAsLong());
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    private Bucket bucket(String key, long now) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity * SCALE, now));
+        if (buckets.size() > maxBuckets) {
+            trim(now);
+        }
+        return bucket;
+    }
+
+    private void trim(long now) {
+        // One sweep at a time; requests that overflow meanwhile go ahead, which
+        // is what makes the cap approximate.
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            evictIdle(now);
+            int target = maxBuckets - maxBuckets / 10;
+            int excess = buckets.size() - target;
+            if (excess <= 0) {
+                return;
+            }
+            // Buckets touched longest ago go first.
+            List<Map.Entry<String, Bucket>> oldest = new ArrayList<>(buckets.entrySet());
+            oldest.sort(Comparator.comparingLong(entry -> entry.getValue().state.get().updatedAt));
+            for (Map.Entry<String, Bucket> entry : oldest.subList(0, Math.min(excess, oldest.size()))) {
+                buckets.remove(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    private void evictIdle(long now) {
+        // A bucket that would have refilled completely carries no state worth keeping.
+        long fullRefillNanos = TimeUnit.SECONDS.toNanos(1) * capacity / Math.max(1, refillPerSecond);
+        buckets.values().removeIf(bucket -> now - bucket.state.get().updatedAt >= fullRefillNanos);
+    }
+
+    private long cost(ApiEndpointClass endpoint) {
+        return switch (endpoint) {
+            case LIST -> listCost;
+            case GET -> getCost;
+            case GENERATE -> generateCost;
+            default -> 0;
+        };
+    }
+
+    private static class Bucket {
+        private final AtomicReference<State> state;
+
+        private Bucket(long tokens, long now) {
+            this.state = new AtomicReference<>(new State(tokens, now));
+        }
+
+        // Returns 0 when the tokens were taken, otherwise how long until they would be available.
+        private long tryConsume(long cost, long capacity, long refillPerSecond, long now) {
+            while (true) {
+                State current = state.get();
+                long elapsed = Math.max(0, now - current.updatedAt);
+                long refill = elapsed >= TimeUnit.SECONDS.toNanos(1) * capacity / Math.max(1, refillPerSecond)
+                        ? capacity
+                        : elapsed * refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+                long tokens = Math.min(capacity, current.tokens + refill);
+                if (tokens < cost) {
+                    return Math.max(1, (cost - tokens) * TimeUnit.SECONDS.toNanos(1) / Math.max(1, refillPerSecond));
+                }
+                long updatedAt = refill > 0 ? Math.max(current.updatedAt, now) : current.updatedAt;
+                if (state.compareAndSet(current, new State(tokens - cost, updatedAt))) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private static class State {
+        private final long tokens;
+        private final long updatedAt;
+
+        private State(long tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
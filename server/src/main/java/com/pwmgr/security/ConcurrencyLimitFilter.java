@@ -0,0 +1,152 @@
+package com.pwmgr.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.ApiResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Caps how many API requests run at once, with a separate adaptive limit per
+ * endpoint class so slow PBKDF2 logins and bulk decrypts don't drag down the
+ * limit for cheap calls. Requests over the limit are rejected straight away.
+ */
+@Component
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    @Value("${app.concurrency-limit.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.concurrency-limit.initial-limit:20}")
+    private int initialLimit = 20;
+
+    @Value("${app.concurrency-limit.min-limit:4}")
+    private int minLimit = 4;
+
+    @Value("${app.concurrency-limit.max-limit:200}")
+    private int maxLimit = 200;
+
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoClock;
+    private final Map<ApiEndpointClass, AdaptiveConcurrencyLimiter> limiters = new EnumMap<>(ApiEndpointClass.class);
+
+    @Autowired
+    public ConcurrencyLimitFilter(ObjectMapper objectMapper) {
+        this(objectMapper, System::nanoTime);
+    }
+
+    ConcurrencyLimitFilter(ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+    }
+
+    @PostConstruct
+    void init() {
+        for (ApiEndpointClass endpoint : ApiEndpointClass.values()) {
+            limiters.put(endpoint, new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AdaptiveConcurrencyLimiter limiter = limiters.get(ApiEndpointClass.of(request));
+        if (!limiter.tryAcquire()) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("Server is busy. Please try again shortly."));
+            return;
+        }
+        long start = nanoClock.getAsLong();
+        boolean completed = false;
+        boolean handedOff = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                // The work is still running on another thread; the slot is held
+                // until the async request actually finishes.
+                request.getAsyncContext().addListener(new ReleaseOnComplete(limiter, response, start));
+                handedOff = true;
+            } else {
+                completed = response.getStatus() < 500;
+            }
+        } finally {
+            if (!handedOff) {
+                release(limiter, start, completed);
+            }
+        }
+    }
+
+    private void release(AdaptiveConcurrencyLimiter limiter, long start, boolean completed) {
+        if (completed) {
+            limiter.release(nanoClock.getAsLong() - start);
+        } else {
+            limiter.releaseWithoutSample();
+        }
+    }
+
+    AdaptiveConcurrencyLimiter limiter(ApiEndpointClass endpoint) {
+        return limiters.get(endpoint);
+    }
+
+    // The container always calls onComplete last, also after a timeout or
+    // error, so that is the one place the slot is given back.
+    private class ReleaseOnComplete implements AsyncListener {
+
+        private final AdaptiveConcurrencyLimiter limiter;
+        private final HttpServletResponse response;
+        private final long start;
+        private volatile boolean failed;
+
+        private ReleaseOnComplete(AdaptiveConcurrencyLimiter limiter, HttpServletResponse response, long start) {
+            this.limiter = limiter;
+            this.response = response;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release(limiter, start, !failed && response.getStatus() < 500);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            failed = true;
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A restarted async cycle drops its listeners, so stay registered.
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
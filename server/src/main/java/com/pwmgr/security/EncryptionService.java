@@ -3,13 +3,16 @@ package com.pwmgr.security;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.security.spec.KeySpec;
+import java.util.Arrays;
 import java.util.Base64;
 
 @Service
@@ -21,6 +24,8 @@ public class EncryptionService {
     private static final int KEY_LENGTH = 256;
     private static final int PBKDF2_ITERATIONS = 600000;
     private static final String KEY_ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] FINGERPRINT_LABEL = "pwmgr-fingerprint".getBytes(StandardCharsets.UTF_8);
 
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -37,8 +42,12 @@ public class EncryptionService {
     }
 
     public SecretKey deriveKey(String password, String salt) throws Exception {
+        return deriveKey(password, salt, PBKDF2_ITERATIONS);
+    }
+
+    public SecretKey deriveKey(String password, String salt, int iterations) throws Exception {
         byte[] saltBytes = Base64.getDecoder().decode(salt);
-        KeySpec spec = new PBEKeySpec(password.toCharArray(), saltBytes, PBKDF2_ITERATIONS, KEY_LENGTH);
+        KeySpec spec = new PBEKeySpec(password.toCharArray(), saltBytes, iterations, KEY_LENGTH);
         SecretKeyFactory factory = SecretKeyFactory.getInstance(KEY_ALGORITHM);
         byte[] keyBytes = factory.generateSecret(spec).getEncoded();
         return new SecretKeySpec(keyBytes, "AES");
@@ -110,6 +119,66 @@ public class EncryptionService {
         return new String(plaintext, "UTF-8");
     }
 
+    public boolean verifyWithIv(String encryptedData, String iv, SecretKey key) {
+        byte[] plaintext = null;
+        try {
+            byte[] ivBytes = Base64.getDecoder().decode(iv);
+            byte[] ciphertext = Base64.getDecoder().decode(encryptedData);
+
+            Cipher cipher = Cipher.getInstance(ALGORITHM);
+            GCMParameterSpec parameterSpec = new GCMParameterSpec(GCM_TAG_LENGTH, ivBytes);
+            cipher.init(Cipher.DECRYPT_MODE, key, parameterSpec);
+
+            plaintext = cipher.doFinal(ciphertext);
+            return true;
+        } catch (Exception e) {
+            return false;
+        } finally {
+            if (plaintext != null) {
+                Arrays.fill(plaintext, (byte) 0);
+            }
+        }
+    }
+
+    public byte[] encryptBytes(byte[] plaintext, byte[] aad, SecretKey key) throws Exception {
+        byte[] ivBytes = new byte[GCM_IV_LENGTH];
+        secureRandom.nextBytes(ivBytes);
+
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, ivBytes));
+        cipher.updateAAD(aad);
+        byte[] ciphertext = cipher.doFinal(plaintext);
+
+        byte[] result = new byte[GCM_IV_LENGTH + ciphertext.length];
+        System.arraycopy(ivBytes, 0, result, 0, GCM_IV_LENGTH);
+        System.arraycopy(ciphertext, 0, result, GCM_IV_LENGTH, ciphertext.length);
+        return result;
+    }
+
+    public byte[] decryptBytes(byte[] data, byte[] aad, SecretKey key) throws Exception {
+        if (data.length < GCM_IV_LENGTH) {
+            throw new IllegalArgumentException("Invalid encrypted data format");
+        }
+
+        Cipher cipher = Cipher.getInstance(ALGORITHM);
+        cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH, data, 0, GCM_IV_LENGTH));
+        cipher.updateAAD(aad);
+        return cipher.doFinal(data, GCM_IV_LENGTH, data.length - GCM_IV_LENGTH);
+    }
+
+    public String fingerprint(SecretKey key, String... parts) throws Exception {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(new SecretKeySpec(key.getEncoded(), HMAC_ALGORITHM));
+        byte[] fingerprintKey = mac.doFinal(FINGERPRINT_LABEL);
+
+        mac.init(new SecretKeySpec(fingerprintKey, HMAC_ALGORITHM));
+        for (String part : parts) {
+            mac.update((part == null ? "" : part).getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+        }
+        return Base64.getEncoder().encodeToString(mac.doFinal());
+    }
+
     public String generateSecurePassword(int length, boolean includeUppercase,
             boolean includeLowercase, boolean includeNumbers, boolean includeSpecial) {
         StringBuilder charPool = new StringBuilder();
@@ -0,0 +1,121 @@
+package com.pwmgr.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@ConditionalOnProperty(name = "app.auth.store", havingValue = "jdbc")
+public class JdbcRateLimitStore implements RateLimitStore {
+
+    private static final int QUERY_CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcRateLimitStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void createTables() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS auth_attempts ("
+                + "client_id VARCHAR(255) NOT NULL, bucket BIGINT NOT NULL, failures INT NOT NULL, "
+                + "PRIMARY KEY (client_id, bucket))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS auth_lockouts ("
+                + "client_id VARCHAR(255) NOT NULL PRIMARY KEY, blocked_until BIGINT NOT NULL, "
+                + "blocked_at BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_auth_lockouts_blocked_at ON auth_lockouts (blocked_at)");
+    }
+
+    @Override
+    public Map<String, WindowCounts> addFailures(Map<String, Integer> failures, long bucket) {
+        if (failures.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        List<Object[]> rows = new ArrayList<>(failures.size());
+        failures.forEach((clientId, count) -> rows.add(new Object[]{clientId, bucket, count}));
+        // Increments in the database, so concurrent flushes from other nodes add up.
+        jdbcTemplate.batchUpdate("MERGE INTO auth_attempts t "
+                + "USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS BIGINT), CAST(? AS INT))) s(client_id, bucket, failures) "
+                + "ON t.client_id = s.client_id AND t.bucket = s.bucket "
+                + "WHEN MATCHED THEN UPDATE SET failures = t.failures + s.failures "
+                + "WHEN NOT MATCHED THEN INSERT (client_id, bucket, failures) VALUES (s.client_id, s.bucket, s.failures)",
+                rows);
+
+        Map<String, int[]> totals = new HashMap<>();
+        for (List<String> chunk : chunks(failures.keySet())) {
+            String placeholders = chunk.stream().map(k -> "?").collect(Collectors.joining(", "));
+            List<Object> args = new ArrayList<>(chunk);
+            args.add(bucket - 1);
+            args.add(bucket);
+            jdbcTemplate.query("SELECT client_id, bucket, failures FROM auth_attempts WHERE client_id IN ("
+                    + placeholders + ") AND bucket BETWEEN ? AND ?", rs -> {
+                int[] counts = totals.computeIfAbsent(rs.getString(1), k -> new int[2]);
+                counts[rs.getLong(2) == bucket ? 0 : 1] = rs.getInt(3);
+            }, args.toArray());
+        }
+
+        Map<String, WindowCounts> result = new HashMap<>();
+        totals.forEach((clientId, counts) -> result.put(clientId, new WindowCounts(counts[0], counts[1])));
+        return result;
+    }
+
+    @Override
+    public void recordLockouts(Map<String, Long> blockedUntilMillis, long nowMillis) {
+        if (blockedUntilMillis.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(blockedUntilMillis.size());
+        blockedUntilMillis.forEach((clientId, until) -> rows.add(new Object[]{clientId, until, nowMillis}));
+        jdbcTemplate.batchUpdate("MERGE INTO auth_lockouts (client_id, blocked_until, blocked_at) KEY(client_id) "
+                + "VALUES (?, ?, ?)", rows);
+    }
+
+    @Override
+    public Map<String, Long> findLockoutsSince(long sinceMillis, long nowMillis) {
+        Map<String, Long> lockouts = new HashMap<>();
+        jdbcTemplate.query("SELECT client_id, blocked_until FROM auth_lockouts WHERE blocked_at >= ? AND blocked_until > ?",
+                rs -> {
+                    lockouts.put(rs.getString(1), rs.getLong(2));
+                },
+                sinceMillis, nowMillis);
+        return lockouts;
+    }
+
+    @Override
+    public void clear(Collection<String> clientIds) {
+        if (clientIds.isEmpty()) {
+            return;
+        }
+        List<Object[]> keys = clientIds.stream()
+                .map(clientId -> new Object[]{clientId})
+                .collect(Collectors.toList());
+        jdbcTemplate.batchUpdate("DELETE FROM auth_attempts WHERE client_id = ?", keys);
+        jdbcTemplate.batchUpdate("DELETE FROM auth_lockouts WHERE client_id = ?", keys);
+    }
+
+    @Override
+    public void purgeExpired(long oldestBucket, long nowMillis) {
+        jdbcTemplate.update("DELETE FROM auth_attempts WHERE bucket < ?", oldestBucket);
+        jdbcTemplate.update("DELETE FROM auth_lockouts WHERE blocked_until <= ?", nowMillis);
+    }
+
+    private static List<List<String>> chunks(Collection<String> values) {
+        List<String> all = new ArrayList<>(values);
+        List<List<String>> chunks = new ArrayList<>();
+        for (int i = 0; i < all.size(); i += QUERY_CHUNK_SIZE) {
+            chunks.add(all.subList(i, Math.min(all.size(), i + QUERY_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,60 @@
+package com.pwmgr.security;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+@Component
+@ConditionalOnProperty(name = "app.session-store.type", havingValue = "jdbc")
+public class JdbcSessionKeyStore implements SessionKeyStore {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcSessionKeyStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void createTables() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS vault_sessions ("
+                + "id VARCHAR(64) NOT NULL PRIMARY KEY, wrapped_key VARBINARY(256) NOT NULL, "
+                + "master_salt VARCHAR(255), expires_at BIGINT NOT NULL)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_vault_sessions_expires_at ON vault_sessions (expires_at)");
+    }
+
+    @Override
+    public void save(StoredKey key) {
+        jdbcTemplate.update("MERGE INTO vault_sessions (id, wrapped_key, master_salt, expires_at) KEY(id) "
+                + "VALUES (?, ?, ?, ?)", key.getId(), key.getWrappedKey(), key.getMasterSalt(), key.getExpiresAt());
+    }
+
+    @Override
+    public Optional<StoredKey> find(String id, long nowMillis) {
+        List<StoredKey> keys = jdbcTemplate.query(
+                "SELECT id, wrapped_key, master_salt, expires_at FROM vault_sessions WHERE id = ? AND expires_at > ?",
+                (rs, rowNum) -> new StoredKey(rs.getString(1), rs.getBytes(2), rs.getString(3), rs.getLong(4)),
+                id, nowMillis);
+        return keys.stream().findFirst();
+    }
+
+    @Override
+    public void touch(String id, long expiresAtMillis) {
+        // Never shortens a session another node has just extended further.
+        jdbcTemplate.update("UPDATE vault_sessions SET expires_at = ? WHERE id = ? AND expires_at < ?",
+                expiresAtMillis, id, expiresAtMillis);
+    }
+
+    @Override
+    public void delete(String id) {
+        jdbcTemplate.update("DELETE FROM vault_sessions WHERE id = ?", id);
+    }
+
+    @Override
+    public void purgeExpired(long nowMillis) {
+        jdbcTemplate.update("DELETE FROM vault_sessions WHERE expires_at <= ?", nowMillis);
+    }
+}
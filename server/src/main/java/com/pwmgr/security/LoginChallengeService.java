@@ -0,0 +1,260 @@
+package com.pwmgr.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Client puzzles for login. While login traffic stays under the threshold no
+ * puzzle is asked for; above it, each login must carry a signed challenge and
+ * a solution whose SHA-256 starts with enough zero bits. Solving takes the
+ * client many hashes, checking takes us one HMAC and one hash, and both are
+ * far cheaper than the PBKDF2 run the puzzle stands in front of. Difficulty
+ * rises with the overall attempt rate, so spreading a flood over many
+ * addresses still raises its price, and a client's own rate adds to that, so
+ * its busiest senders pay the most. The default base of 2^21 expected hashes
+ * is roughly the work of one 600,000-iteration PBKDF2 run.
+ */
+@Service
+public class LoginChallengeService {
+
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final int MAX_CHALLENGE_LENGTH = 200;
+    private static final int MAX_SOLUTION_LENGTH = 64;
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Value("${app.auth.pow.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${app.auth.pow.threshold-per-minute:30}")
+    private int thresholdPerMinute = 30;
+
+    @Value("${app.auth.pow.client-threshold-per-minute:5}")
+    private int clientThresholdPerMinute = 5;
+
+    @Value("${app.auth.pow.max-tracked-clients:100000}")
+    private int maxTrackedClients = 100_000;
+
+    @Value("${app.auth.pow.base-difficulty:21}")
+    private int baseDifficulty = 21;
+
+    @Value("${app.auth.pow.max-difficulty:26}")
+    private int maxDifficulty = 26;
+
+    @Value("${app.auth.pow.challenge-ttl-seconds:120}")
+    private long challengeTtlSeconds = 120;
+
+    private final LongSupplier nanoClock;
+    private final SecureRandom random = new SecureRandom();
+    private final SecretKeySpec signingKey;
+
+    // Solved challenges, kept until they expire so each one buys a single attempt.
+    private final ConcurrentHashMap<String, Long> usedChallenges = new ConcurrentHashMap<>();
+
+    // Sliding windows over login attempts, overall and per client; guarded by this.
+    // The client map is access-ordered and capped at maxTrackedClients.
+    private final RateWindow totalAttempts;
+    private final LinkedHashMap<String, RateWindow> clientAttempts = new LinkedHashMap<>(16, 0.75f, true);
+
+    public LoginChallengeService() {
+        this(System::nanoTime);
+    }
+
+    LoginChallengeService(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.totalAttempts = new RateWindow(nanoClock.getAsLong());
+        byte[] secret = new byte[32];
+        random.nextBytes(secret);
+        this.signingKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    // The difficulty a login from this client has to meet right now, 0 for none.
+    public synchronized int requiredDifficulty(String clientId) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        RateWindow client = clientAttempts.get(RateLimitService.clientKey(clientId));
+        return difficultyFor(totalAttempts.rate(now), client != null ? client.rate(now) : 0);
+    }
+
+    // Counts one login attempt from this client and returns the difficulty the
+    // next one has to meet. Retries that carry a valid solution are not counted,
+    // since the request that fetched their challenge already was.
+    public synchronized int recordAttempt(String clientId) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        String key = RateLimitService.clientKey(clientId);
+        RateWindow client = clientAttempts.get(key);
+        if (client == null) {
+            client = new RateWindow(now);
+            clientAttempts.put(key, client);
+            Iterator<RateWindow> eldest = clientAttempts.values().iterator();
+            while (clientAttempts.size() > maxTrackedClients && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+            }
+        }
+        totalAttempts.record(now);
+        client.record(now);
+        return difficultyFor(totalAttempts.rate(now), client.rate(now));
+    }
+
+    public String issue(int difficulty) {
+        byte[] nonce = new byte[16];
+        random.nextBytes(nonce);
+        long expiresAt = nanoClock.getAsLong() + TimeUnit.SECONDS.toNanos(challengeTtlSeconds);
+        String payload = difficulty + "." + expiresAt + "." + ENCODER.encodeToString(nonce);
+        return payload + "." + sign(payload);
+    }
+
+    public boolean verify(String challenge, String solution, int requiredDifficulty) {
+        if (challenge == null || solution == null
+                || challenge.length() > MAX_CHALLENGE_LENGTH || solution.length() > MAX_SOLUTION_LENGTH) {
+            return false;
+        }
+        String[] parts = challenge.split("\\.");
+        if (parts.length != 4) {
+            return false;
+        }
+        String payload = parts[0] + "." + parts[1] + "." + parts[2];
+        if (!MessageDigest.isEqual(sign(payload).getBytes(StandardCharsets.US_ASCII),
+                parts[3].getBytes(StandardCharsets.US_ASCII))) {
+            return false;
+        }
+        int difficulty;
+        long expiresAt;
+        try {
+            difficulty = Integer.parseInt(parts[0]);
+            expiresAt = Long.parseLong(parts[1]);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        long now = nanoClock.getAsLong();
+        // Allow a little slack so a client that started solving just before load rose isn't sent round again.
+        if (expiresAt - now <= 0 || difficulty < requiredDifficulty - 2) {
+            return false;
+        }
+        if (leadingZeroBits(sha256(challenge + ":" + solution)) < difficulty) {
+            return false;
+        }
+        return usedChallenges.putIfAbsent(challenge, expiresAt) == null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.pow.sweep-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = nanoClock.getAsLong();
+        usedChallenges.values().removeIf(expiresAt -> expiresAt - now <= 0);
+        synchronized (this) {
+            clientAttempts.values().removeIf(window -> window.rate(now) == 0);
+        }
+    }
+
+    int usedChallengeCount() {
+        return usedChallenges.size();
+    }
+
+    synchronized int trackedClients() {
+        return clientAttempts.size();
+    }
+
+    static int leadingZeroBits(byte[] digest) {
+        int bits = 0;
+        for (byte b : digest) {
+            if (b == 0) {
+                bits += 8;
+                continue;
+            }
+            return bits + Integer.numberOfLeadingZeros(b & 0xff) - 24;
+        }
+        return bits;
+    }
+
+    static byte[] sha256(String value) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int difficultyFor(double totalRate, double clientRate) {
+        if (totalRate <= thresholdPerMinute) {
+            return 0;
+        }
+        // One extra bit doubles the work, so each doubling of the overall rate
+        // doubles what every attempt costs, and each doubling of a client's own
+        // rate past its threshold doubles it again for that client.
+        int difficulty = baseDifficulty + doublings(totalRate, thresholdPerMinute);
+        if (clientRate > clientThresholdPerMinute) {
+            difficulty += doublings(clientRate, clientThresholdPerMinute);
+        }
+        return Math.min(maxDifficulty, difficulty);
+    }
+
+    private static int doublings(double rate, int threshold) {
+        return (int) Math.floor(Math.log(rate / Math.max(1, threshold)) / Math.log(2));
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(signingKey);
+            return ENCODER.encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Two-bucket sliding window over one minute.
+    private static class RateWindow {
+        private long windowStart;
+        private long currentCount;
+        private long previousCount;
+
+        private RateWindow(long now) {
+            this.windowStart = now;
+        }
+
+        private void record(long now) {
+            roll(now);
+            currentCount++;
+        }
+
+        private double rate(long now) {
+            roll(now);
+            double remaining = 1.0 - (double) (now - windowStart) / WINDOW_NANOS;
+            return previousCount * Math.max(0, remaining) + currentCount;
+        }
+
+        private void roll(long now) {
+            long elapsed = now - windowStart;
+            if (elapsed >= 2 * WINDOW_NANOS) {
+                previousCount = 0;
+                currentCount = 0;
+                windowStart = now;
+            } else if (elapsed >= WINDOW_NANOS) {
+                previousCount = currentCount;
+                currentCount = 0;
+                windowStart += WINDOW_NANOS;
+            }
+        }
+    }
+}
@@ -1,77 +1,362 @@
 package com.pwmgr.security;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.util.concurrent.ConcurrentHashMap;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
 
 @Service
 public class RateLimitService {
 
+    private static final Logger log = LoggerFactory.getLogger(RateLimitService.class);
+
+    private static final int EVICTION_SCAN_LIMIT = 64;
+    private static final int MAX_CLIENT_ID_LENGTH = 255;
+    private static final long LOCKOUT_SYNC_OVERLAP_MILLIS = 5000;
+
     @Value("${app.auth.max-attempts:5}")
     private int maxAttempts;
 
     @Value("${app.auth.lockout-minutes:15}")
     private int lockoutMinutes;
 
-    private final ConcurrentHashMap<String, AttemptInfo> attemptCache = new ConcurrentHashMap<>();
+    @Value("${app.auth.attempt-window-minutes:15}")
+    private int windowMinutes = 15;
 
-    public boolean isBlocked(String clientId) {
-        AttemptInfo info = attemptCache.get(clientId);
-        if (info == null) {
-            return false;
-        }
+    @Value("${app.auth.max-tracked-clients:100000}")
+    private int maxTrackedClients = 100_000;
 
-        if (info.blockedUntil != null && LocalDateTime.now().isBefore(info.blockedUntil)) {
-            return true;
-        }
+    private final RateLimitStore store;
+    private final LongSupplier nanoClock;
+    private final LongSupplier wallClock;
+
+    // Access-ordered and capped at maxTrackedClients, so spoofed client ids
+    // can't grow the heap; the least recently seen client is dropped first.
+    private final LinkedHashMap<String, AttemptInfo> attemptCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    // Near-cache of the shared store: failures and lockouts are buffered here
+    // and synced in the background, and lockouts from other nodes are pulled
+    // into remoteLockouts, so a login never waits on the database.
+    private final Map<String, Integer> pendingFailures = new HashMap<>();
+    private final Map<String, Long> pendingLockouts = new HashMap<>();
+    private final Set<String> pendingClears = new HashSet<>();
+    private final LinkedHashMap<String, Long> remoteLockouts = new LinkedHashMap<>();
+    private long lastLockoutSync = Long.MIN_VALUE;
+
+    public RateLimitService() {
+        this(null, System::nanoTime, System::currentTimeMillis);
+    }
 
-        if (info.blockedUntil != null && LocalDateTime.now().isAfter(info.blockedUntil)) {
-            attemptCache.remove(clientId);
+    @Autowired
+    public RateLimitService(ObjectProvider<RateLimitStore> store) {
+        this(store.getIfAvailable(), System::nanoTime, System::currentTimeMillis);
+    }
+
+    RateLimitService(LongSupplier nanoClock) {
+        this(null, nanoClock, System::currentTimeMillis);
+    }
+
+    RateLimitService(RateLimitStore store, LongSupplier nanoClock, LongSupplier wallClock) {
+        this.store = store;
+        this.nanoClock = nanoClock;
+        this.wallClock = wallClock;
+    }
+
+    public boolean isBlocked(String clientId) {
+        String key = clientKey(clientId);
+        long now = nanoClock.getAsLong();
+        synchronized (attemptCache) {
+            AttemptInfo info = attemptCache.get(key);
+            if (info != null && info.blocked) {
+                if (now - info.blockedUntil < 0) {
+                    return true;
+                }
+                attemptCache.remove(key);
+            }
+            Long remoteUntil = remoteLockouts.get(key);
+            if (remoteUntil != null) {
+                if (wallClock.getAsLong() < remoteUntil) {
+                    return true;
+                }
+                remoteLockouts.remove(key);
+            }
             return false;
         }
-
-        return false;
     }
 
     public void recordFailedAttempt(String clientId) {
-        attemptCache.compute(clientId, (key, info) -> {
+        String key = clientKey(clientId);
+        long now = nanoClock.getAsLong();
+        synchronized (attemptCache) {
+            AttemptInfo info = attemptCache.get(key);
             if (info == null) {
-                info = new AttemptInfo();
+                info = new AttemptInfo(now);
+                attemptCache.put(key, info);
+                evictOverflow();
             }
-            info.failedAttempts++;
+            info.roll(now, windowNanos());
+            info.currentCount++;
+            info.lastSeen = now;
 
-            if (info.failedAttempts >= maxAttempts) {
-                info.blockedUntil = LocalDateTime.now().plusMinutes(lockoutMinutes);
+            if (store != null) {
+                pendingFailures.merge(key, 1, Integer::sum);
+                pendingClears.remove(key);
             }
-
-            return info;
-        });
+            if (!info.blocked && failedAttempts(key, info, now) >= maxAttempts) {
+                block(key, info, now);
+            }
+        }
     }
 
     public void recordSuccessfulAttempt(String clientId) {
-        attemptCache.remove(clientId);
+        String key = clientKey(clientId);
+        synchronized (attemptCache) {
+            attemptCache.remove(key);
+            remoteLockouts.remove(key);
+            if (store != null) {
+                pendingFailures.remove(key);
+                pendingLockouts.remove(key);
+                pendingClears.add(key);
+            }
+        }
     }
 
     public int getRemainingAttempts(String clientId) {
-        AttemptInfo info = attemptCache.get(clientId);
-        if (info == null) {
-            return maxAttempts;
+        String key = clientKey(clientId);
+        long now = nanoClock.getAsLong();
+        synchronized (attemptCache) {
+            AttemptInfo info = attemptCache.get(key);
+            if (info == null) {
+                return maxAttempts;
+            }
+            if (info.blocked) {
+                return 0;
+            }
+            return Math.max(0, maxAttempts - failedAttempts(key, info, now));
         }
-        return Math.max(0, maxAttempts - info.failedAttempts);
     }
 
     public LocalDateTime getBlockedUntil(String clientId) {
-        AttemptInfo info = attemptCache.get(clientId);
-        if (info == null) {
-            return null;
+        String key = clientKey(clientId);
+        long now = nanoClock.getAsLong();
+        synchronized (attemptCache) {
+            AttemptInfo info = attemptCache.get(key);
+            if (info == null || !info.blocked) {
+                return null;
+            }
+            // Deadlines are kept on the monotonic clock; wall time is only derived for display.
+            return LocalDateTime.now().plus(Math.max(0, info.blockedUntil - now), ChronoUnit.NANOS);
         }
-        return info.blockedUntil;
     }
 
+    @Scheduled(fixedDelayString = "${app.auth.store-sync-interval-ms:1000}")
+    public void syncWithStore() {
+        if (store == null) {
+            return;
+        }
+
+        Map<String, Integer> failures;
+        Map<String, Long> lockouts;
+        Set<String> clears;
+        synchronized (attemptCache) {
+            failures = new HashMap<>(pendingFailures);
+            lockouts = new HashMap<>(pendingLockouts);
+            clears = new HashSet<>(pendingClears);
+            pendingFailures.clear();
+            pendingLockouts.clear();
+            pendingClears.clear();
+        }
+
+        long wallNow = wallClock.getAsLong();
+        long windowMillis = TimeUnit.NANOSECONDS.toMillis(windowNanos());
+        long bucket = wallNow / windowMillis;
+        try {
+            store.clear(clears);
+            Map<String, RateLimitStore.WindowCounts> totals = store.addFailures(failures, bucket);
+            double overlap = 1.0 - (double) (wallNow % windowMillis) / windowMillis;
+
+            long now = nanoClock.getAsLong();
+            synchronized (attemptCache) {
+                totals.forEach((key, counts) -> {
+                    AttemptInfo info = attemptCache.get(key);
+                    if (info == null) {
+                        return;
+                    }
+                    info.clusterCount = counts.getCurrent() + (int) (counts.getPrevious() * overlap);
+                    if (!info.blocked && failedAttempts(key, info, now) >= maxAttempts) {
+                        block(key, info, now);
+                    }
+                });
+                lockouts.putAll(pendingLockouts);
+                pendingLockouts.clear();
+            }
+
+            store.recordLockouts(lockouts, wallNow);
+            // Overlap the window to tolerate clock skew between nodes; re-reading a lockout is harmless.
+            long since = lastLockoutSync == Long.MIN_VALUE ? 0 : lastLockoutSync - LOCKOUT_SYNC_OVERLAP_MILLIS;
+            Map<String, Long> remote = store.findLockoutsSince(since, wallNow);
+            lastLockoutSync = wallNow;
+            synchronized (attemptCache) {
+                remote.forEach((key, until) -> {
+                    if (!pendingClears.contains(key)) {
+                        remoteLockouts.put(key, until);
+                    }
+                });
+                Iterator<Long> iterator = remoteLockouts.values().iterator();
+                while (remoteLockouts.size() > maxTrackedClients && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        } catch (RuntimeException e) {
+            // Keep limiting locally and retry the buffered changes on the next sync.
+            log.warn("Rate limit store sync failed: {}", e.getMessage());
+            synchronized (attemptCache) {
+                failures.forEach((key, count) -> pendingFailures.merge(key, count, Integer::sum));
+                lockouts.forEach(pendingLockouts::putIfAbsent);
+                pendingClears.addAll(clears);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.auth.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = nanoClock.getAsLong();
+        long wallNow = wallClock.getAsLong();
+        synchronized (attemptCache) {
+            attemptCache.values().removeIf(info -> info.isExpired(now, windowNanos()));
+            remoteLockouts.values().removeIf(until -> until <= wallNow);
+        }
+        if (store != null) {
+            try {
+                long windowMillis = TimeUnit.NANOSECONDS.toMillis(windowNanos());
+                store.purgeExpired(wallNow / windowMillis - 1, wallNow);
+            } catch (RuntimeException e) {
+                log.warn("Rate limit store purge failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    int trackedClients() {
+        synchronized (attemptCache) {
+            return attemptCache.size();
+        }
+    }
+
+    private int failedAttempts(String key, AttemptInfo info, long now) {
+        int local = info.failedAttempts(now, windowNanos());
+        if (store == null) {
+            return local;
+        }
+        // Cluster totals lag by one sync; add what this node hasn't flushed yet.
+        return Math.max(local, info.clusterCount + pendingFailures.getOrDefault(key, 0));
+    }
+
+    private void block(String key, AttemptInfo info, long now) {
+        long lockoutNanos = TimeUnit.MINUTES.toNanos(lockoutMinutes);
+        info.blocked = true;
+        info.blockedUntil = now + lockoutNanos;
+        if (store != null) {
+            pendingLockouts.put(key, wallClock.getAsLong() + TimeUnit.NANOSECONDS.toMillis(lockoutNanos));
+        }
+    }
+
+    private void evictOverflow() {
+        if (attemptCache.size() <= maxTrackedClients) {
+            return;
+        }
+        // Only the least recently used end is touched here, so the cost per new
+        // client stays constant during a flood; expired entries are left to
+        // the scheduled sweep. Prefer dropping a client that isn't locked out,
+        // so a flood of new ids can't push real lockouts out of the table.
+        Iterator<AttemptInfo> iterator = attemptCache.values().iterator();
+        int scanned = 0;
+        while (attemptCache.size() > maxTrackedClients && iterator.hasNext() && scanned++ < EVICTION_SCAN_LIMIT) {
+            if (!iterator.next().blocked) {
+                iterator.remove();
+            }
+        }
+        iterator = attemptCache.values().iterator();
+        while (attemptCache.size() > maxTrackedClients && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private long windowNanos() {
+        return TimeUnit.MINUTES.toNanos(Math.max(1, windowMinutes));
+    }
+
+    // Client ids come from X-Forwarded-For and can be arbitrarily long; oversized
+    // ones are keyed by digest so they neither bloat the heap nor overflow the store.
+    static String clientKey(String clientId) {
+        if (clientId == null || clientId.length() <= MAX_CLIENT_ID_LENGTH) {
+            return clientId;
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(clientId.getBytes(StandardCharsets.UTF_8));
+            return "sha256:" + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Sliding window approximated with two fixed buckets: the previous
+    // window's count is weighted by how much of it still overlaps.
     private static class AttemptInfo {
-        int failedAttempts = 0;
-        LocalDateTime blockedUntil = null;
+        long windowStart;
+        int currentCount;
+        int previousCount;
+        int clusterCount;
+        long lastSeen;
+        boolean blocked;
+        long blockedUntil;
+
+        AttemptInfo(long now) {
+            this.windowStart = now;
+            this.lastSeen = now;
+        }
+
+        void roll(long now, long window) {
+            long elapsed = now - windowStart;
+            if (elapsed < window) {
+                return;
+            }
+            previousCount = elapsed < 2 * window ? currentCount : 0;
+            currentCount = 0;
+            clusterCount = 0;
+            windowStart += (elapsed / window) * window;
+        }
+
+        int failedAttempts(long now, long window) {
+            roll(now, window);
+            long overlap = window - (now - windowStart);
+            return currentCount + (int) (previousCount * overlap / window);
+        }
+
+        boolean isExpired(long now, long window) {
+            if (blocked) {
+                return now - blockedUntil >= 0;
+            }
+            return now - lastSeen >= 2 * window;
+        }
     }
 }
@@ -0,0 +1,42 @@
+package com.pwmgr.security;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface RateLimitStore {
+
+    /**
+     * Adds locally buffered failure counts to each client's bucket and returns
+     * the cluster-wide totals for that bucket and the one before it.
+     */
+    Map<String, WindowCounts> addFailures(Map<String, Integer> failures, long bucket);
+
+    void recordLockouts(Map<String, Long> blockedUntilMillis, long nowMillis);
+
+    /**
+     * Lockouts recorded at or after {@code sinceMillis} that are still active.
+     */
+    Map<String, Long> findLockoutsSince(long sinceMillis, long nowMillis);
+
+    void clear(Collection<String> clientIds);
+
+    void purgeExpired(long oldestBucket, long nowMillis);
+
+    class WindowCounts {
+        private final int current;
+        private final int previous;
+
+        public WindowCounts(int current, int previous) {
+            this.current = current;
+            this.previous = previous;
+        }
+
+        public int getCurrent() {
+            return current;
+        }
+
+        public int getPrevious() {
+            return previous;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.pwmgr.security;
+
+import com.pwmgr.service.AuthService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Brings the local HTTP session in line with the shared session store before
+ * the request reaches a controller: a session started on another node (or
+ * before a restart) gets its key back, and one logged out elsewhere loses it.
+ */
+@Component
+public class SessionKeyFilter extends OncePerRequestFilter {
+
+    private final ObjectProvider<AuthService> authService;
+
+    public SessionKeyFilter(ObjectProvider<AuthService> authService) {
+        this.authService = authService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AuthService auth = authService.getIfAvailable();
+        if (auth != null) {
+            auth.syncSharedSession(request, response);
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,271 @@
+package com.pwmgr.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Keeps each logged-in session's vault key in a store shared by all nodes,
+ * wrapped under a server key-encryption key, so any node can serve the
+ * session and a redeploy doesn't force everyone through PBKDF2 again. The
+ * client holds an opaque token in a cookie; the store only sees its hash.
+ * Off unless {@code app.session-store.type=jdbc} is set along with a KEK.
+ */
+@Service
+public class SessionKeyService {
+
+    private static final String COOKIE_NAME = "PWMGR_VAULT";
+    private static final int TOKEN_BYTES = 32;
+    private static final int KEK_BYTES = 32;
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Value("${app.session-store.kek:}")
+    private String kekBase64 = "";
+
+    @Value("${app.session-store.near-cache-ttl-seconds:15}")
+    private long nearCacheTtlSeconds = 15;
+
+    @Value("${app.session-store.near-cache-size:10000}")
+    private int nearCacheSize = 10_000;
+
+    @Value("${server.servlet.session.timeout:30m}")
+    private Duration sessionTimeout = Duration.ofMinutes(30);
+
+    @Value("${server.servlet.session.cookie.secure:false}")
+    private boolean secureCookie;
+
+    private final SessionKeyStore store;
+    private final EncryptionService encryptionService;
+    private final LongSupplier nanoClock;
+    private final LongSupplier wallClock;
+    private final SecureRandom random = new SecureRandom();
+    private SecretKey kek;
+
+    // Access-ordered; entries are re-checked against the store once they are
+    // older than the TTL, so a logout on another node takes effect within it.
+    private final LinkedHashMap<String, CachedKey> nearCache = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public SessionKeyService(ObjectProvider<SessionKeyStore> store, EncryptionService encryptionService) {
+        this(store.getIfAvailable(), encryptionService, System::nanoTime, System::currentTimeMillis);
+    }
+
+    SessionKeyService(SessionKeyStore store, EncryptionService encryptionService,
+                      LongSupplier nanoClock, LongSupplier wallClock) {
+        this.store = store;
+        this.encryptionService = encryptionService;
+        this.nanoClock = nanoClock;
+        this.wallClock = wallClock;
+    }
+
+    @PostConstruct
+    void init() {
+        if (store == null) {
+            return;
+        }
+        // A per-process key would leave wrapped vault keys in the database that no
+        // other node, and no later restart, could ever unwrap.
+        if (kekBase64 == null || kekBase64.isBlank()) {
+            throw new IllegalStateException("app.session-store.kek must be set when app.session-store.type=jdbc");
+        }
+        byte[] configured = Base64.getDecoder().decode(kekBase64.trim());
+        if (configured.length != KEK_BYTES) {
+            throw new IllegalStateException("app.session-store.kek must be " + KEK_BYTES + " bytes, base64-encoded");
+        }
+        kek = new SecretKeySpec(configured, "AES");
+    }
+
+    public boolean isEnabled() {
+        return store != null;
+    }
+
+    // Returns the token to hand to the client, or null when no shared store is configured.
+    public String register(SecretKey key, String masterSalt) throws Exception {
+        if (store == null) {
+            return null;
+        }
+        byte[] tokenBytes = new byte[TOKEN_BYTES];
+        random.nextBytes(tokenBytes);
+        String token = ENCODER.encodeToString(tokenBytes);
+        String id = storeId(token);
+
+        byte[] wrappedKey = encryptionService.encryptBytes(key.getEncoded(), id.getBytes(StandardCharsets.US_ASCII), kek);
+        store.save(new SessionKeyStore.StoredKey(id, wrappedKey, masterSalt, expiresAt()));
+        synchronized (nearCache) {
+            putCached(id, new CachedKey(key, masterSalt, nanoClock.getAsLong()));
+        }
+        return token;
+    }
+
+    public Optional<RestoredKey> resolve(String token) {
+        if (store == null || token == null || token.length() > 64) {
+            return Optional.empty();
+        }
+        String id = storeId(token);
+        long now = nanoClock.getAsLong();
+        synchronized (nearCache) {
+            CachedKey cached = nearCache.get(id);
+            if (cached != null && now - cached.checkedAt < TimeUnit.SECONDS.toNanos(nearCacheTtlSeconds)) {
+                return Optional.of(new RestoredKey(cached.key, cached.masterSalt));
+            }
+        }
+
+        Optional<SessionKeyStore.StoredKey> stored = store.find(id, wallClock.getAsLong());
+        if (stored.isEmpty()) {
+            synchronized (nearCache) {
+                nearCache.remove(id);
+            }
+            return Optional.empty();
+        }
+        SecretKey key;
+        try {
+            byte[] keyBytes = encryptionService.decryptBytes(stored.get().getWrappedKey(),
+                    id.getBytes(StandardCharsets.US_ASCII), kek);
+            key = new SecretKeySpec(keyBytes, "AES");
+        } catch (AEADBadTagException e) {
+            // Wrapped under a different KEK, e.g. one rotated out or a node without the shared one.
+            return Optional.empty();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to unwrap session key", e);
+        }
+        // Each refresh slides the shared expiry, at most once per TTL per session.
+        store.touch(id, expiresAt());
+        synchronized (nearCache) {
+            putCached(id, new CachedKey(key, stored.get().getMasterSalt(), now));
+        }
+        return Optional.of(new RestoredKey(key, stored.get().getMasterSalt()));
+    }
+
+    public void revoke(String token) {
+        if (store == null || token == null) {
+            return;
+        }
+        String id = storeId(token);
+        synchronized (nearCache) {
+            nearCache.remove(id);
+        }
+        store.delete(id);
+    }
+
+    public String readToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    public void writeToken(HttpServletResponse response, String token) {
+        if (token == null) {
+            return;
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(token, -1).toString());
+    }
+
+    public void clearToken(HttpServletResponse response) {
+        if (store == null) {
+            return;
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie("", 0).toString());
+    }
+
+    @Scheduled(fixedDelayString = "${app.session-store.sweep-interval-ms:300000}")
+    public void purgeExpired() {
+        if (store != null) {
+            store.purgeExpired(wallClock.getAsLong());
+        }
+    }
+
+    int nearCacheSize() {
+        synchronized (nearCache) {
+            return nearCache.size();
+        }
+    }
+
+    private ResponseCookie cookie(String value, long maxAgeSeconds) {
+        return ResponseCookie.from(COOKIE_NAME, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAgeSeconds)
+                .build();
+    }
+
+    private void putCached(String id, CachedKey cached) {
+        nearCache.put(id, cached);
+        while (nearCache.size() > nearCacheSize) {
+            nearCache.remove(nearCache.keySet().iterator().next());
+        }
+    }
+
+    private long expiresAt() {
+        return wallClock.getAsLong() + sessionTimeout.toMillis();
+    }
+
+    private static String storeId(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return ENCODER.encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static class RestoredKey {
+        private final SecretKey key;
+        private final String masterSalt;
+
+        public RestoredKey(SecretKey key, String masterSalt) {
+            this.key = key;
+            this.masterSalt = masterSalt;
+        }
+
+        public SecretKey getKey() {
+            return key;
+        }
+
+        public String getMasterSalt() {
+            return masterSalt;
+        }
+    }
+
+    private static class CachedKey {
+        private final SecretKey key;
+        private final String masterSalt;
+        private final long checkedAt;
+
+        private CachedKey(SecretKey key, String masterSalt, long checkedAt) {
+            this.key = key;
+            this.masterSalt = masterSalt;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
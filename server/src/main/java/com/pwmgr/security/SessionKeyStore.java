@@ -0,0 +1,49 @@
+package com.pwmgr.security;
+
+import java.util.Optional;
+
+public interface SessionKeyStore {
+
+    void save(StoredKey key);
+
+    /**
+     * The stored key for {@code id}, unless it has expired by {@code nowMillis}.
+     */
+    Optional<StoredKey> find(String id, long nowMillis);
+
+    void touch(String id, long expiresAtMillis);
+
+    void delete(String id);
+
+    void purgeExpired(long nowMillis);
+
+    class StoredKey {
+        private final String id;
+        private final byte[] wrappedKey;
+        private final String masterSalt;
+        private final long expiresAt;
+
+        public StoredKey(String id, byte[] wrappedKey, String masterSalt, long expiresAt) {
+            this.id = id;
+            this.wrappedKey = wrappedKey;
+            this.masterSalt = masterSalt;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public byte[] getWrappedKey() {
+            return wrappedKey;
+        }
+
+        public String getMasterSalt() {
+            return masterSalt;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
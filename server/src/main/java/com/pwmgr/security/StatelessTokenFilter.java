@@ -0,0 +1,107 @@
+package com.pwmgr.security;
+
+import com.pwmgr.service.AuthService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * In stateless mode, replaces the container session on API requests with one
+ * rebuilt from the bearer token, so controllers keep reading the vault key
+ * from the session while the server stores nothing between requests.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "app.auth.mode", havingValue = "stateless")
+public class StatelessTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final StatelessTokenService tokenService;
+    private final AuthService authService;
+    private final SecureRandom random = new SecureRandom();
+
+    public StatelessTokenFilter(StatelessTokenService tokenService, AuthService authService) {
+        this.tokenService = tokenService;
+        this.authService = authService;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !path.startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TokenSession session = null;
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            session = tokenService.parse(header.substring(BEARER_PREFIX.length()).trim())
+                    .map(claims -> restore(claims, request))
+                    .orElse(null);
+        }
+        chain.doFilter(new TokenRequest(request, session), response);
+    }
+
+    private TokenSession restore(StatelessTokenService.TokenClaims claims, HttpServletRequest request) {
+        TokenSession session = new TokenSession(claims.getSessionId(), request.getServletContext(), false);
+        authService.restoreSessionKey(session, claims.getKey(), claims.getMasterSalt());
+        return session;
+    }
+
+    private String newSessionId() {
+        byte[] id = new byte[16];
+        random.nextBytes(id);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(id);
+    }
+
+    private class TokenRequest extends HttpServletRequestWrapper {
+        private TokenSession session;
+
+        private TokenRequest(HttpServletRequest request, TokenSession session) {
+            super(request);
+            this.session = session;
+        }
+
+        @Override
+        public HttpSession getSession(boolean create) {
+            if (session != null && session.isInvalid()) {
+                session = null;
+            }
+            if (session == null && create) {
+                session = new TokenSession(newSessionId(), getServletContext(), true);
+            }
+            return session;
+        }
+
+        @Override
+        public HttpSession getSession() {
+            return getSession(true);
+        }
+
+        @Override
+        public String changeSessionId() {
+            return getSession(true).getId();
+        }
+
+        @Override
+        public boolean isRequestedSessionIdValid() {
+            return session != null && !session.isInvalid();
+        }
+    }
+}
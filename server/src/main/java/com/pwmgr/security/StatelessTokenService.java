@@ -0,0 +1,249 @@
+package com.pwmgr.security;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.AEADBadTagException;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Self-contained auth tokens for the stateless mode. A token carries the
+ * vault key, encrypted and authenticated under a server key that rotates
+ * every epoch. Epoch keys are derived from one configured secret, so every
+ * node can read every token without sharing any state.
+ */
+@Service
+public class StatelessTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(StatelessTokenService.class);
+
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 1 + Long.BYTES + Long.BYTES;
+    private static final int MAX_TOKEN_LENGTH = 1024;
+    private static final int SECRET_BYTES = 32;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_LABEL = "pwmgr-token-key".getBytes(StandardCharsets.UTF_8);
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Value("${app.auth.mode:session}")
+    private String authMode = "session";
+
+    @Value("${app.auth.token.secret:}")
+    private String secretBase64 = "";
+
+    @Value("${app.auth.token.ttl-minutes:15}")
+    private long ttlMinutes = 15;
+
+    @Value("${app.auth.token.rotation-minutes:60}")
+    private long rotationMinutes = 60;
+
+    @Value("${app.auth.token.cache-size:1024}")
+    private int cacheSize = 1024;
+
+    private final EncryptionService encryptionService;
+    private final LongSupplier wallClock;
+    private final SecureRandom random = new SecureRandom();
+    private final ConcurrentHashMap<Long, SecretKey> epochKeys = new ConcurrentHashMap<>();
+    private SecretKeySpec secret;
+
+    // Access-ordered, so a client polling with the same token skips the unwrap.
+    private final LinkedHashMap<String, TokenClaims> cache = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Autowired
+    public StatelessTokenService(EncryptionService encryptionService) {
+        this(encryptionService, System::currentTimeMillis);
+    }
+
+    StatelessTokenService(EncryptionService encryptionService, LongSupplier wallClock) {
+        this.encryptionService = encryptionService;
+        this.wallClock = wallClock;
+    }
+
+    @PostConstruct
+    void init() {
+        byte[] bytes;
+        if (secretBase64 == null || secretBase64.isBlank()) {
+            bytes = new byte[SECRET_BYTES];
+            random.nextBytes(bytes);
+            if ("stateless".equalsIgnoreCase(authMode)) {
+                log.warn("No app.auth.token.secret configured; using a random one, so tokens "
+                        + "are only accepted by this node and only until it restarts");
+            }
+        } else {
+            bytes = Base64.getDecoder().decode(secretBase64.trim());
+            if (bytes.length != SECRET_BYTES) {
+                throw new IllegalStateException("app.auth.token.secret must be " + SECRET_BYTES + " bytes, base64-encoded");
+            }
+        }
+        secret = new SecretKeySpec(bytes, HMAC_ALGORITHM);
+        epochKeys.clear();
+    }
+
+    public long getTtlSeconds() {
+        return TimeUnit.MINUTES.toSeconds(ttlMinutes);
+    }
+
+    public String issue(String sessionId, SecretKey key, String masterSalt) throws Exception {
+        long now = wallClock.getAsLong();
+        long epoch = epochOf(now);
+        long expiresAt = now + TimeUnit.MINUTES.toMillis(ttlMinutes);
+        byte[] header = ByteBuffer.allocate(HEADER_LENGTH).put(VERSION).putLong(epoch).putLong(expiresAt).array();
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            byte[] keyBytes = key.getEncoded();
+            out.writeShort(keyBytes.length);
+            out.write(keyBytes);
+            out.writeUTF(masterSalt == null ? "" : masterSalt);
+            out.writeUTF(sessionId);
+        }
+        byte[] sealed = encryptionService.encryptBytes(payload.toByteArray(), header, epochKey(epoch));
+
+        byte[] token = new byte[header.length + sealed.length];
+        System.arraycopy(header, 0, token, 0, header.length);
+        System.arraycopy(sealed, 0, token, header.length, sealed.length);
+        return ENCODER.encodeToString(token);
+    }
+
+    public Optional<TokenClaims> parse(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return Optional.empty();
+        }
+        long now = wallClock.getAsLong();
+        synchronized (cache) {
+            TokenClaims cached = cache.get(token);
+            if (cached != null) {
+                if (cached.expiresAt > now) {
+                    return Optional.of(cached);
+                }
+                cache.remove(token);
+                return Optional.empty();
+            }
+        }
+
+        TokenClaims claims;
+        try {
+            claims = unseal(Base64.getUrlDecoder().decode(token), now);
+        } catch (IllegalArgumentException | IOException | AEADBadTagException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to read auth token", e);
+        }
+        if (claims == null) {
+            return Optional.empty();
+        }
+        synchronized (cache) {
+            cache.put(token, claims);
+            while (cache.size() > cacheSize) {
+                cache.remove(cache.keySet().iterator().next());
+            }
+        }
+        return Optional.of(claims);
+    }
+
+    int cachedTokens() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private TokenClaims unseal(byte[] token, long now) throws Exception {
+        if (token.length <= HEADER_LENGTH) {
+            return null;
+        }
+        ByteBuffer header = ByteBuffer.wrap(token, 0, HEADER_LENGTH);
+        byte version = header.get();
+        long epoch = header.getLong();
+        long expiresAt = header.getLong();
+        // Keys older than the longest token lifetime are never needed, so tokens claiming them are rejected outright.
+        long oldestEpoch = epochOf(now - TimeUnit.MINUTES.toMillis(ttlMinutes));
+        if (version != VERSION || expiresAt <= now || epoch > epochOf(now) || epoch < oldestEpoch) {
+            return null;
+        }
+
+        byte[] headerBytes = new byte[HEADER_LENGTH];
+        System.arraycopy(token, 0, headerBytes, 0, HEADER_LENGTH);
+        byte[] sealed = new byte[token.length - HEADER_LENGTH];
+        System.arraycopy(token, HEADER_LENGTH, sealed, 0, sealed.length);
+        byte[] payload = encryptionService.decryptBytes(sealed, headerBytes, epochKey(epoch));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        byte[] keyBytes = new byte[in.readUnsignedShort()];
+        in.readFully(keyBytes);
+        String masterSalt = in.readUTF();
+        String sessionId = in.readUTF();
+        return new TokenClaims(sessionId, new SecretKeySpec(keyBytes, "AES"),
+                masterSalt.isEmpty() ? null : masterSalt, expiresAt);
+    }
+
+    private long epochOf(long millis) {
+        return Math.floorDiv(millis, TimeUnit.MINUTES.toMillis(Math.max(1, rotationMinutes)));
+    }
+
+    private SecretKey epochKey(long epoch) throws Exception {
+        SecretKey key = epochKeys.get(epoch);
+        if (key != null) {
+            return key;
+        }
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(secret);
+        mac.update(KEY_LABEL);
+        mac.update(ByteBuffer.allocate(Long.BYTES).putLong(epoch).array());
+        key = new SecretKeySpec(mac.doFinal(), "AES");
+        if (epochKeys.size() > 8) {
+            epochKeys.keySet().removeIf(e -> e < epoch - 4);
+        }
+        epochKeys.put(epoch, key);
+        return key;
+    }
+
+    public static class TokenClaims {
+        private final String sessionId;
+        private final SecretKey key;
+        private final String masterSalt;
+        private final long expiresAt;
+
+        private TokenClaims(String sessionId, SecretKey key, String masterSalt, long expiresAt) {
+            this.sessionId = sessionId;
+            this.key = key;
+            this.masterSalt = masterSalt;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public SecretKey getKey() {
+            return key;
+        }
+
+        public String getMasterSalt() {
+            return masterSalt;
+        }
+
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+}
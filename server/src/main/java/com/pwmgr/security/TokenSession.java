@@ -0,0 +1,97 @@
+package com.pwmgr.security;
+
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpSession;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A session that lives only for one request in stateless mode. It is rebuilt
+ * from the auth token each time, so the server keeps nothing between requests.
+ */
+class TokenSession implements HttpSession {
+
+    private final String id;
+    private final ServletContext servletContext;
+    private final long creationTime = System.currentTimeMillis();
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final boolean isNew;
+    private boolean invalid;
+
+    TokenSession(String id, ServletContext servletContext, boolean isNew) {
+        this.id = id;
+        this.servletContext = servletContext;
+        this.isNew = isNew;
+    }
+
+    @Override
+    public long getCreationTime() {
+        return creationTime;
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public long getLastAccessedTime() {
+        return creationTime;
+    }
+
+    @Override
+    public ServletContext getServletContext() {
+        return servletContext;
+    }
+
+    @Override
+    public void setMaxInactiveInterval(int interval) {
+    }
+
+    @Override
+    public int getMaxInactiveInterval() {
+        return 0;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public void invalidate() {
+        invalid = true;
+        attributes.clear();
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    boolean isInvalid() {
+        return invalid;
+    }
+}
@@ -4,35 +4,79 @@ import com.pwmgr.model.MasterPassword;
 import com.pwmgr.repository.MasterPasswordRepository;
 import com.pwmgr.security.EncryptionService;
 import com.pwmgr.security.RateLimitService;
+import com.pwmgr.security.SessionKeyService;
+import com.pwmgr.security.SessionKeyService.RestoredKey;
+import com.pwmgr.security.StatelessTokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 @Service
 public class AuthService {
 
     private static final String SESSION_KEY_ATTR = "encryptionKey";
     private static final String SESSION_SALT_ATTR = "masterSalt";
+    private static final String SESSION_QUICK_UNLOCK_ATTR = "quickUnlock";
+    private static final String SESSION_TOKEN_ATTR = "sessionToken";
+    private static final byte[] QUICK_UNLOCK_AAD = "pwmgr-quick-unlock".getBytes(StandardCharsets.UTF_8);
+    private static final Pattern PIN_PATTERN = Pattern.compile("\\d{4,12}");
+
+    @Value("${app.auth.mode:session}")
+    private String authMode = "session";
+
+    @Value("${app.auth.quick-unlock.enabled:true}")
+    private boolean quickUnlockEnabled = true;
+
+    @Value("${app.auth.quick-unlock.iterations:10000}")
+    private int quickUnlockIterations = 10_000;
+
+    @Value("${app.auth.quick-unlock.max-attempts:3}")
+    private int quickUnlockMaxAttempts = 3;
 
     private final MasterPasswordRepository masterPasswordRepository;
     private final EncryptionService encryptionService;
     private final RateLimitService rateLimitService;
+    private final SessionEntryCache sessionEntryCache;
+    private final IdempotencyService idempotencyService;
+    private final VaultPrefetchService vaultPrefetchService;
+    private final SessionKeyService sessionKeyService;
+    private final StatelessTokenService statelessTokenService;
+
+    private volatile MasterPassword cachedMasterPassword;
 
     public AuthService(MasterPasswordRepository masterPasswordRepository,
                        EncryptionService encryptionService,
-                       RateLimitService rateLimitService) {
+                       RateLimitService rateLimitService,
+                       SessionEntryCache sessionEntryCache,
+                       IdempotencyService idempotencyService,
+                       VaultPrefetchService vaultPrefetchService,
+                       SessionKeyService sessionKeyService,
+                       StatelessTokenService statelessTokenService) {
         this.masterPasswordRepository = masterPasswordRepository;
         this.encryptionService = encryptionService;
         this.rateLimitService = rateLimitService;
+        this.sessionEntryCache = sessionEntryCache;
+        this.idempotencyService = idempotencyService;
+        this.vaultPrefetchService = vaultPrefetchService;
+        this.sessionKeyService = sessionKeyService;
+        this.statelessTokenService = statelessTokenService;
     }
 
     public boolean isSetupRequired() {
-        return masterPasswordRepository.findFirstByOrderByIdAsc().isEmpty();
+        return getMasterPassword().isEmpty();
     }
 
-    public void setupMasterPassword(String masterPassword) throws Exception {
+    public synchronized void setupMasterPassword(String masterPassword) throws Exception {
         if (!isSetupRequired()) {
             throw new IllegalStateException("Master password already configured");
         }
@@ -42,6 +86,27 @@ public class AuthService {
 
         MasterPassword mp = new MasterPassword(verificationHash, salt);
         masterPasswordRepository.save(mp);
+        invalidateMasterPasswordCache();
+    }
+
+    public synchronized void invalidateMasterPasswordCache() {
+        cachedMasterPassword = null;
+    }
+
+    private Optional<MasterPassword> getMasterPassword() {
+        MasterPassword cached = cachedMasterPassword;
+        if (cached == null) {
+            synchronized (this) {
+                cached = cachedMasterPassword;
+                if (cached == null) {
+                    // Only a configured record is cached; until setup happens
+                    // (possibly on another node) every call asks the database.
+                    cached = masterPasswordRepository.findFirstByOrderByIdAsc().orElse(null);
+                    cachedMasterPassword = cached;
+                }
+            }
+        }
+        return Optional.ofNullable(cached);
     }
 
     public boolean authenticate(String masterPassword, String clientId, HttpSession session) throws Exception {
@@ -49,7 +114,7 @@ public class AuthService {
             throw new RateLimitException("Too many failed attempts. Please try again later.");
         }
 
-        Optional<MasterPassword> mpOpt = masterPasswordRepository.findFirstByOrderByIdAsc();
+        Optional<MasterPassword> mpOpt = getMasterPassword();
         if (mpOpt.isEmpty()) {
             throw new IllegalStateException("Master password not configured");
         }
@@ -65,16 +130,183 @@ public class AuthService {
         rateLimitService.recordSuccessfulAttempt(clientId);
 
         SecretKey key = encryptionService.deriveKey(masterPassword, mp.getSalt());
-        session.setAttribute(SESSION_KEY_ATTR, key);
-        session.setAttribute(SESSION_SALT_ATTR, mp.getSalt());
+        startSession(session, key, mp.getSalt());
 
         return true;
     }
 
+    // Wraps the session key under a PIN-derived key. The low iteration count is
+    // only acceptable because the wrapped key never leaves the server session and
+    // is thrown away after a few wrong PINs.
+    public void enableQuickUnlock(HttpSession session, String pin) throws Exception {
+        if (!quickUnlockEnabled) {
+            throw new IllegalStateException("Quick unlock is disabled");
+        }
+        if (isStateless()) {
+            throw new IllegalStateException("Quick unlock is not available in stateless mode");
+        }
+        SecretKey key = getSessionKey(session);
+        if (key == null) {
+            throw new IllegalStateException("Not authenticated");
+        }
+        if (pin == null || !PIN_PATTERN.matcher(pin).matches()) {
+            throw new IllegalArgumentException("PIN must be 4 to 12 digits");
+        }
+
+        String salt = encryptionService.generateSalt();
+        SecretKey pinKey = encryptionService.deriveKey(pin, salt, quickUnlockIterations);
+        byte[] wrappedKey = encryptionService.encryptBytes(key.getEncoded(), QUICK_UNLOCK_AAD, pinKey);
+        session.setAttribute(SESSION_QUICK_UNLOCK_ATTR, new QuickUnlockKey(wrappedKey, salt));
+    }
+
+    public void disableQuickUnlock(HttpSession session) {
+        session.removeAttribute(SESSION_QUICK_UNLOCK_ATTR);
+    }
+
+    public void lock(HttpSession session) {
+        sessionKeyService.revoke((String) session.getAttribute(SESSION_TOKEN_ATTR));
+        sessionEntryCache.evict(session.getId());
+        idempotencyService.evictSession(session.getId());
+        session.removeAttribute(SESSION_KEY_ATTR);
+        session.removeAttribute(SESSION_TOKEN_ATTR);
+    }
+
+    public boolean unlock(HttpSession session, String pin) throws Exception {
+        QuickUnlockKey quickUnlock = (QuickUnlockKey) session.getAttribute(SESSION_QUICK_UNLOCK_ATTR);
+        if (quickUnlock == null) {
+            throw new IllegalStateException("Quick unlock is not available. Please log in with the master password.");
+        }
+
+        // One attempt at a time per session, so parallel guesses can't overrun the limit.
+        synchronized (quickUnlock) {
+            if (quickUnlock.failures >= quickUnlockMaxAttempts) {
+                session.removeAttribute(SESSION_QUICK_UNLOCK_ATTR);
+                throw new IllegalStateException("Quick unlock is not available. Please log in with the master password.");
+            }
+
+            byte[] keyBytes;
+            try {
+                SecretKey pinKey = encryptionService.deriveKey(pin == null ? "" : pin, quickUnlock.salt,
+                        quickUnlockIterations);
+                keyBytes = encryptionService.decryptBytes(quickUnlock.wrappedKey, QUICK_UNLOCK_AAD, pinKey);
+            } catch (AEADBadTagException e) {
+                quickUnlock.failures++;
+                if (quickUnlock.failures >= quickUnlockMaxAttempts) {
+                    session.removeAttribute(SESSION_QUICK_UNLOCK_ATTR);
+                } else {
+                    session.setAttribute(SESSION_QUICK_UNLOCK_ATTR, quickUnlock);
+                }
+                return false;
+            }
+
+            quickUnlock.failures = 0;
+            session.setAttribute(SESSION_QUICK_UNLOCK_ATTR, quickUnlock);
+            startSession(session, new SecretKeySpec(keyBytes, "AES"), (String) session.getAttribute(SESSION_SALT_ATTR));
+            return true;
+        }
+    }
+
+    public boolean isQuickUnlockAvailable(HttpSession session) {
+        return session.getAttribute(SESSION_QUICK_UNLOCK_ATTR) != null;
+    }
+
+    public int getQuickUnlockRemainingAttempts(HttpSession session) {
+        QuickUnlockKey quickUnlock = (QuickUnlockKey) session.getAttribute(SESSION_QUICK_UNLOCK_ATTR);
+        if (quickUnlock == null) {
+            return 0;
+        }
+        synchronized (quickUnlock) {
+            return Math.max(0, quickUnlockMaxAttempts - quickUnlock.failures);
+        }
+    }
+
+    // Called before each API request: picks up a session started on another
+    // node or before a restart, and drops one that was ended elsewhere.
+    public void syncSharedSession(HttpServletRequest request, HttpServletResponse response) {
+        if (isStateless() || !sessionKeyService.isEnabled()) {
+            return;
+        }
+        String token = sessionKeyService.readToken(request);
+        if (token == null) {
+            return;
+        }
+        HttpSession session = request.getSession(false);
+        boolean current = session != null && token.equals(session.getAttribute(SESSION_TOKEN_ATTR))
+                && session.getAttribute(SESSION_KEY_ATTR) != null;
+
+        Optional<RestoredKey> restored = sessionKeyService.resolve(token);
+        if (restored.isEmpty()) {
+            if (current) {
+                sessionEntryCache.evict(session.getId());
+                session.removeAttribute(SESSION_KEY_ATTR);
+                session.removeAttribute(SESSION_TOKEN_ATTR);
+            }
+            sessionKeyService.clearToken(response);
+            return;
+        }
+        if (!current) {
+            session = request.getSession(true);
+            sessionEntryCache.evict(session.getId());
+            restoreSessionKey(session, restored.get().getKey(), restored.get().getMasterSalt());
+            session.setAttribute(SESSION_TOKEN_ATTR, token);
+        }
+    }
+
+    public void restoreSessionKey(HttpSession session, SecretKey key, String masterSalt) {
+        session.setAttribute(SESSION_KEY_ATTR, key);
+        session.setAttribute(SESSION_SALT_ATTR, masterSalt);
+    }
+
+    // In stateless mode the client carries the session as a token; otherwise null.
+    public String issueToken(HttpSession session) throws Exception {
+        SecretKey key = getSessionKey(session);
+        if (!isStateless() || key == null) {
+            return null;
+        }
+        return statelessTokenService.issue(session.getId(), key, (String) session.getAttribute(SESSION_SALT_ATTR));
+    }
+
+    public long getTokenTtlSeconds() {
+        return statelessTokenService.getTtlSeconds();
+    }
+
+    public boolean isStateless() {
+        return "stateless".equalsIgnoreCase(authMode);
+    }
+
+    public void writeSessionToken(HttpSession session, HttpServletResponse response) {
+        sessionKeyService.writeToken(response, (String) session.getAttribute(SESSION_TOKEN_ATTR));
+    }
+
+    public void clearSessionToken(HttpServletResponse response) {
+        sessionKeyService.clearToken(response);
+    }
+
     public void logout(HttpSession session) {
+        sessionKeyService.revoke((String) session.getAttribute(SESSION_TOKEN_ATTR));
+        sessionEntryCache.evict(session.getId());
+        idempotencyService.evictSession(session.getId());
         session.invalidate();
     }
 
+    private void startSession(HttpSession session, SecretKey key, String salt) throws Exception {
+        sessionKeyService.revoke((String) session.getAttribute(SESSION_TOKEN_ATTR));
+        String token = isStateless() ? null : sessionKeyService.register(key, salt);
+        sessionEntryCache.evict(session.getId());
+        session.setAttribute(SESSION_KEY_ATTR, key);
+        session.setAttribute(SESSION_SALT_ATTR, salt);
+        if (token != null) {
+            session.setAttribute(SESSION_TOKEN_ATTR, token);
+        } else {
+            session.removeAttribute(SESSION_TOKEN_ATTR);
+        }
+        // The dashboard lists the vault right after login, so start decrypting it now.
+        // Stateless mode keeps no session cache to warm.
+        if (!isStateless()) {
+            vaultPrefetchService.prefetch(session.getId(), key);
+        }
+    }
+
     public SecretKey getSessionKey(HttpSession session) {
         return (SecretKey) session.getAttribute(SESSION_KEY_ATTR);
     }
@@ -92,4 +324,15 @@ public class AuthService {
             super(message);
         }
     }
+
+    private static class QuickUnlockKey implements Serializable {
+        private final byte[] wrappedKey;
+        private final String salt;
+        private int failures;
+
+        private QuickUnlockKey(byte[] wrappedKey, String salt) {
+            this.wrappedKey = wrappedKey;
+            this.salt = salt;
+        }
+    }
 }
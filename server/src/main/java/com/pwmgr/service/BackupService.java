@@ -0,0 +1,474 @@
+package com.pwmgr.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.config.EntrySequenceInitializer;
+import com.pwmgr.dto.BackupInfo;
+import com.pwmgr.model.DeletedEntry;
+import com.pwmgr.repository.DeletedEntryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Online logical backups of the vault tables.
+ *
+ * <p>Backups are gzip'd JSON-lines files holding rows exactly as stored, so
+ * entry secrets stay encrypted under the master key. A full backup copies
+ * every row in short keyset-paged reads, which never hold locks against
+ * writers; an incremental backup copies the rows and tombstones stamped with
+ * a vault revision newer than the one its parent recorded. Restoring replays a
+ * full backup and its incremental chain inside one transaction.
+ */
+@Service
+public class BackupService {
+
+    public enum BackupType { FULL, INCREMENTAL }
+
+    private static final Logger log = LoggerFactory.getLogger(BackupService.class);
+
+    private static final int BATCH_SIZE = 500;
+    private static final String EXTENSION = ".bak.gz";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final Pattern NAME_PATTERN = Pattern.compile("^(full|incr)-[0-9-]+\\.bak\\.gz$");
+    private static final Pattern COLUMN_PATTERN = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]*$");
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+    private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {};
+
+    private static final String ENTRIES_TABLE = "password_entries";
+    private static final String MASTER_TABLE = "master_password";
+    private static final String VERSIONS_TABLE = "entry_versions";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final DeletedEntryRepository deletedEntryRepository;
+    private final AuthService authService;
+    private final VaultRevisionService vaultRevisionService;
+    private final EntryRowCache entryRowCache;
+    private final SessionEntryCache sessionEntryCache;
+    private final EntrySequenceInitializer entrySequenceInitializer;
+
+    @Value("${app.backup.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.backup.directory:./data/backups}")
+    private String directory;
+
+    @Value("${app.backup.retain-full:7}")
+    private int retainFull;
+
+    public BackupService(JdbcTemplate jdbcTemplate,
+                         TransactionTemplate transactionTemplate,
+                         ObjectMapper objectMapper,
+                         DeletedEntryRepository deletedEntryRepository,
+                         AuthService authService,
+                         VaultRevisionService vaultRevisionService,
+                         EntryRowCache entryRowCache,
+                         SessionEntryCache sessionEntryCache,
+                         EntrySequenceInitializer entrySequenceInitializer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.deletedEntryRepository = deletedEntryRepository;
+        this.authService = authService;
+        this.vaultRevisionService = vaultRevisionService;
+        this.entryRowCache = entryRowCache;
+        this.sessionEntryCache = sessionEntryCache;
+        this.entrySequenceInitializer = entrySequenceInitializer;
+    }
+
+    @Scheduled(cron = "${app.backup.full-cron:0 30 2 * * *}")
+    public void scheduledFullBackup() {
+        runScheduled(BackupType.FULL);
+    }
+
+    @Scheduled(cron = "${app.backup.incremental-cron:0 0 * * * *}")
+    public void scheduledIncrementalBackup() {
+        runScheduled(BackupType.INCREMENTAL);
+    }
+
+    private void runScheduled(BackupType type) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            createBackup(type);
+        } catch (Exception e) {
+            log.error("Scheduled {} backup failed", type, e);
+        }
+    }
+
+    public synchronized BackupInfo createBackup(BackupType type) throws IOException {
+        Path dir = Files.createDirectories(Paths.get(directory));
+        List<BackupInfo> existing = listBackups();
+        BackupInfo parent = existing.isEmpty() ? null : existing.get(existing.size() - 1);
+        Long parentRevision = parent != null ? readRevision(dir.resolve(parent.getName())) : null;
+        if (parentRevision == null) {
+            // Backups written before revisions were recorded can't anchor a delta.
+            type = BackupType.FULL;
+        }
+        // Read before any row: everything stamped at or below it has committed,
+        // so the next incremental can start exactly here.
+        long revision = vaultRevisionService.getRevision();
+
+        LocalDateTime startedAt = LocalDateTime.now();
+        String prefix = type == BackupType.FULL ? "full-" : "incr-";
+        String base = prefix + startedAt.format(NAME_FORMAT);
+        String name = base + EXTENSION;
+        for (int i = 1; Files.exists(dir.resolve(name)); i++) {
+            name = base + "-" + i + EXTENSION;
+        }
+
+        Path temp = dir.resolve(name + TEMP_SUFFIX);
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            Map<String, Object> manifest = new LinkedHashMap<>();
+            manifest.put("type", "manifest");
+            manifest.put("name", name);
+            manifest.put("kind", type.name());
+            manifest.put("createdAt", startedAt.toString());
+            manifest.put("parent", type == BackupType.FULL ? null : parent.getName());
+            manifest.put("revision", revision);
+            writeRecord(writer, manifest);
+
+            long[] records = {0};
+            dumpRows(writer, "master", "SELECT * FROM " + MASTER_TABLE, records);
+            if (type == BackupType.FULL) {
+                dumpAllEntries(writer, records);
+            } else {
+                dumpRows(writer, "entry",
+                        "SELECT * FROM " + ENTRIES_TABLE + " WHERE revision > ? ORDER BY id", records, parentRevision);
+                dumpTombstones(writer, parentRevision, records);
+            }
+            writeRecord(writer, Map.of("type", "end", "records", records[0]));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Path target = dir.resolve(name);
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        if (type == BackupType.FULL) {
+            applyRetention();
+        }
+        return readInfo(target);
+    }
+
+    public List<BackupInfo> listBackups() throws IOException {
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+        List<BackupInfo> backups = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> NAME_PATTERN.matcher(f.getFileName().toString()).matches())
+                    .collect(Collectors.toList())) {
+                try {
+                    backups.add(readInfo(file));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Skipping unreadable backup {}", file.getFileName());
+                }
+            }
+        }
+        backups.sort(Comparator.comparing(BackupInfo::getCreatedAt).thenComparing(BackupInfo::getName));
+        return backups;
+    }
+
+    public BackupInfo verify(String name) throws IOException {
+        Path file = resolve(name);
+        if (!Files.exists(file)) {
+            throw new BackupNotFoundException("Backup not found: " + name);
+        }
+        BackupInfo info = new BackupInfo(name, null, null, null, Files.size(file));
+        try {
+            info = readInfo(file);
+            long records = readRecords(file, record -> {});
+            if (info.getParent() != null && !Files.exists(resolve(info.getParent()))) {
+                info.setValid(false);
+                info.setMessage("Parent backup " + info.getParent() + " is missing");
+            } else {
+                info.setValid(true);
+                info.setMessage("Backup is intact (" + records + " records)");
+            }
+        } catch (IOException | IllegalStateException e) {
+            info.setValid(false);
+            info.setMessage(e.getMessage() != null ? e.getMessage() : "Backup is corrupt");
+        }
+        return info;
+    }
+
+    public synchronized void restore(String name) throws IOException {
+        List<Path> chain = resolveChain(name);
+        for (Path file : chain) {
+            BackupInfo info = verify(file.getFileName().toString());
+            if (!Boolean.TRUE.equals(info.getValid())) {
+                throw new IllegalStateException("Backup " + info.getName() + " failed verification: " + info.getMessage());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> previousIds = jdbcTemplate.queryForList("SELECT id FROM " + ENTRIES_TABLE, Long.class);
+            jdbcTemplate.update("DELETE FROM " + ENTRIES_TABLE);
+            Set<String> entryColumns = columnsOf(ENTRIES_TABLE);
+            Set<String> masterColumns = columnsOf(MASTER_TABLE);
+
+            for (Path file : chain) {
+                try {
+                    jdbcTemplate.update("DELETE FROM " + MASTER_TABLE);
+                    readRecords(file, record -> replay(record, entryColumns, masterColumns));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            // Restored rows count as fresh changes so delta-sync clients pick them up,
+            // and ids that vanished get tombstones like any other delete.
+            long revision = vaultRevisionService.increment();
+            jdbcTemplate.update("UPDATE " + ENTRIES_TABLE + " SET updated_at = ?, revision = ?",
+                    LocalDateTime.now(), revision);
+            Set<Long> restoredIds = new HashSet<>(
+                    jdbcTemplate.queryForList("SELECT id FROM " + ENTRIES_TABLE, Long.class));
+            deletedEntryRepository.saveAll(previousIds.stream()
+                    .filter(id -> !restoredIds.contains(id))
+                    .map(id -> new DeletedEntry(id, revision))
+                    .collect(Collectors.toList()));
+            // History isn't part of a backup; versions of entries the backup
+            // doesn't know would otherwise outlive them as orphans.
+            jdbcTemplate.update("DELETE FROM " + VERSIONS_TABLE
+                    + " WHERE entry_id NOT IN (SELECT id FROM " + ENTRIES_TABLE + ")");
+        });
+
+        entrySequenceInitializer.resync();
+        authService.invalidateMasterPasswordCache();
+        entryRowCache.invalidateAll();
+        sessionEntryCache.invalidateAll();
+    }
+
+    private void dumpAllEntries(BufferedWriter writer, long[] records) throws IOException {
+        long lastId = 0;
+        while (true) {
+            long before = records[0];
+            lastId = dumpRows(writer, "entry",
+                    "SELECT * FROM " + ENTRIES_TABLE + " WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE,
+                    records, lastId);
+            if (records[0] - before < BATCH_SIZE) {
+                return;
+            }
+        }
+    }
+
+    private long dumpRows(BufferedWriter writer, String type, String sql, long[] records, Object... args)
+            throws IOException {
+        long[] lastId = {args.length > 0 && args[0] instanceof Long ? (Long) args[0] : 0};
+        try {
+            jdbcTemplate.query(sql, rs -> {
+                ResultSetMetaData meta = rs.getMetaData();
+                Map<String, String> row = new LinkedHashMap<>();
+                for (int i = 1; i <= meta.getColumnCount(); i++) {
+                    row.put(meta.getColumnLabel(i).toUpperCase(), rs.getString(i));
+                }
+                lastId[0] = rs.getLong("id");
+                try {
+                    writeRecord(writer, Map.of("type", type, "row", row));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                records[0]++;
+            }, args);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return lastId[0];
+    }
+
+    private void dumpTombstones(BufferedWriter writer, long sinceRevision, long[] records) throws IOException {
+        for (DeletedEntry tombstone : deletedEntryRepository.findByRevisionGreaterThan(sinceRevision)) {
+            writeRecord(writer, Map.of("type", "deleted", "id", tombstone.getEntryId()));
+            records[0]++;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void replay(Map<String, Object> record, Set<String> entryColumns, Set<String> masterColumns) {
+        String type = String.valueOf(record.get("type"));
+        switch (type) {
+            case "entry" -> merge(ENTRIES_TABLE, (Map<String, Object>) record.get("row"), entryColumns);
+            case "master" -> merge(MASTER_TABLE, (Map<String, Object>) record.get("row"), masterColumns);
+            // Tombstones are written when an entry moves to the trash, so replaying one
+            // must leave the row restorable rather than delete it.
+            case "deleted" -> jdbcTemplate.update("UPDATE " + ENTRIES_TABLE
+                            + " SET deleted_at = COALESCE(deleted_at, ?) WHERE id = ?",
+                    LocalDateTime.now(), ((Number) record.get("id")).longValue());
+            default -> throw new IllegalStateException("Unknown backup record type: " + type);
+        }
+    }
+
+    private void merge(String table, Map<String, Object> row, Set<String> allowedColumns) {
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        for (Map.Entry<String, Object> column : row.entrySet()) {
+            String columnName = column.getKey().toUpperCase();
+            if (!COLUMN_PATTERN.matcher(columnName).matches()) {
+                throw new IllegalStateException("Invalid column name in backup: " + columnName);
+            }
+            if (allowedColumns.contains(columnName)) {
+                columns.add(columnName);
+                values.add(column.getValue());
+            }
+        }
+        String placeholders = columns.stream().map(c -> "?").collect(Collectors.joining(", "));
+        jdbcTemplate.update("MERGE INTO " + table + " (" + String.join(", ", columns) + ") KEY(ID) VALUES ("
+                + placeholders + ")", values.toArray());
+    }
+
+    private Set<String> columnsOf(String table) {
+        return jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+            Set<String> columns = new HashSet<>();
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                columns.add(meta.getColumnLabel(i).toUpperCase());
+            }
+            return columns;
+        });
+    }
+
+    private void writeRecord(BufferedWriter writer, Map<String, ?> record) throws IOException {
+        writer.write(objectMapper.writeValueAsString(record));
+        writer.newLine();
+    }
+
+    private interface RecordHandler {
+        void handle(Map<String, Object> record);
+    }
+
+    private long readRecords(Path file, RecordHandler handler) throws IOException {
+        try (BufferedReader reader = openReader(file)) {
+            String line = reader.readLine();
+            if (line == null || !"manifest".equals(objectMapper.readValue(line, RECORD_TYPE).get("type"))) {
+                throw new IllegalStateException("Backup has no manifest");
+            }
+            long records = 0;
+            while ((line = reader.readLine()) != null) {
+                Map<String, Object> record = objectMapper.readValue(line, RECORD_TYPE);
+                if ("end".equals(record.get("type"))) {
+                    long expected = ((Number) record.get("records")).longValue();
+                    if (expected != records || reader.readLine() != null) {
+                        throw new IllegalStateException("Backup record count does not match");
+                    }
+                    return records;
+                }
+                handler.handle(record);
+                records++;
+            }
+            throw new IllegalStateException("Backup is truncated");
+        }
+    }
+
+    private BackupInfo readInfo(Path file) throws IOException {
+        Map<String, Object> manifest = readManifest(file);
+        return new BackupInfo(file.getFileName().toString(),
+                String.valueOf(manifest.get("kind")),
+                (String) manifest.get("parent"),
+                LocalDateTime.parse(String.valueOf(manifest.get("createdAt"))),
+                Files.size(file));
+    }
+
+    private Long readRevision(Path file) throws IOException {
+        Object revision = readManifest(file).get("revision");
+        return revision instanceof Number ? ((Number) revision).longValue() : null;
+    }
+
+    private Map<String, Object> readManifest(Path file) throws IOException {
+        try (BufferedReader reader = openReader(file)) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IllegalStateException("Backup has no manifest");
+            }
+            return objectMapper.readValue(line, RECORD_TYPE);
+        }
+    }
+
+    private BufferedReader openReader(Path file) throws IOException {
+        return new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8));
+    }
+
+    private List<Path> resolveChain(String name) throws IOException {
+        List<Path> chain = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        String current = name;
+        while (current != null) {
+            if (!seen.add(current)) {
+                throw new IllegalStateException("Backup chain is cyclic");
+            }
+            Path file = resolve(current);
+            if (!Files.exists(file)) {
+                throw new BackupNotFoundException("Backup not found: " + current);
+            }
+            chain.add(0, file);
+            current = readInfo(file).getParent();
+        }
+        return chain;
+    }
+
+    private Path resolve(String name) {
+        if (name == null || !NAME_PATTERN.matcher(name).matches()) {
+            throw new BackupNotFoundException("Backup not found: " + name);
+        }
+        return Paths.get(directory).resolve(name);
+    }
+
+    private void applyRetention() throws IOException {
+        List<BackupInfo> backups = listBackups();
+        List<BackupInfo> fulls = backups.stream()
+                .filter(b -> BackupType.FULL.name().equals(b.getType()))
+                .collect(Collectors.toList());
+        if (retainFull <= 0 || fulls.size() <= retainFull) {
+            return;
+        }
+        LocalDateTime oldestKept = fulls.get(fulls.size() - retainFull).getCreatedAt();
+        for (BackupInfo backup : backups) {
+            if (backup.getCreatedAt().isBefore(oldestKept)) {
+                Files.deleteIfExists(resolve(backup.getName()));
+            }
+        }
+    }
+
+    public static class BackupNotFoundException extends RuntimeException {
+        public BackupNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.EntryVersionResponse;
+import com.pwmgr.model.EntryVersion;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.EntryVersionRepository;
+import com.pwmgr.repository.PasswordEntryRepository;
+import com.pwmgr.security.EncryptionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class EntryHistoryService {
+
+    private static final String PASSWORD_FINGERPRINT_LABEL = "password";
+
+    @Value("${app.history.max-versions:10}")
+    private int maxVersions;
+
+    private final EntryVersionRepository entryVersionRepository;
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EncryptionService encryptionService;
+
+    public EntryHistoryService(EntryVersionRepository entryVersionRepository,
+                               PasswordEntryRepository passwordEntryRepository,
+                               EncryptionService encryptionService) {
+        this.entryVersionRepository = entryVersionRepository;
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.encryptionService = encryptionService;
+    }
+
+    public void archive(Collection<PasswordEntry> entries, SecretKey key) {
+        if (maxVersions <= 0 || entries.isEmpty()) {
+            return;
+        }
+
+        // The stored ciphertext is copied as-is; only the password is decrypted,
+        // once, to compute the fingerprint that reuse checks match against.
+        List<EntryVersion> versions = new ArrayList<>(entries.size());
+        for (PasswordEntry entry : entries) {
+            String fingerprint;
+            try {
+                String password = encryptionService.decryptWithIv(entry.getEncryptedPassword(), entry.getIv(), key);
+                fingerprint = passwordFingerprint(password, key);
+            } catch (Exception e) {
+                fingerprint = null;
+            }
+            versions.add(new EntryVersion(entry, fingerprint));
+        }
+        entryVersionRepository.saveAll(versions);
+
+        // Keys come back grouped by entry, newest first, so everything past the
+        // first maxVersions of each group goes in a single delete.
+        List<Long> entryIds = entries.stream().map(PasswordEntry::getId).collect(Collectors.toList());
+        List<Long> excess = new ArrayList<>();
+        Long currentEntryId = null;
+        int kept = 0;
+        for (EntryVersionRepository.VersionKey version : entryVersionRepository.findKeysByEntryIdInNewestFirst(entryIds)) {
+            if (!version.getEntryId().equals(currentEntryId)) {
+                currentEntryId = version.getEntryId();
+                kept = 0;
+            }
+            if (++kept > maxVersions) {
+                excess.add(version.getId());
+            }
+        }
+        if (!excess.isEmpty()) {
+            entryVersionRepository.deleteAllByIdInBatch(excess);
+        }
+    }
+
+    public List<EntryVersionResponse> getHistory(Long entryId, SecretKey key) throws Exception {
+        if (!passwordEntryRepository.existsById(entryId)) {
+            throw new PasswordEntryService.EntryNotFoundException("Password entry not found");
+        }
+
+        List<EntryVersion> versions = entryVersionRepository.findByEntryIdOrderByIdDesc(entryId);
+        List<EntryVersionResponse> responses = new ArrayList<>(versions.size());
+        for (EntryVersion version : versions) {
+            String notes = null;
+            if (version.getEncryptedNotes() != null && version.getNotesIv() != null) {
+                notes = encryptionService.decryptWithIv(version.getEncryptedNotes(), version.getNotesIv(), key);
+            }
+            responses.add(new EntryVersionResponse(
+                    version.getId(),
+                    version.getEntryId(),
+                    version.getSiteName(),
+                    version.getUsername(),
+                    encryptionService.decryptWithIv(version.getEncryptedPassword(), version.getIv(), key),
+                    notes,
+                    version.getValidFrom(),
+                    version.getArchivedAt()
+            ));
+        }
+        return responses;
+    }
+
+    public List<Long> findEntriesPreviouslyUsing(String password, SecretKey key) throws Exception {
+        return entryVersionRepository.findEntryIdsByPasswordFingerprint(passwordFingerprint(password, key));
+    }
+
+    public void deleteHistory(Collection<Long> entryIds) {
+        if (!entryIds.isEmpty()) {
+            entryVersionRepository.deleteByEntryIdIn(entryIds);
+        }
+    }
+
+    private String passwordFingerprint(String password, SecretKey key) throws Exception {
+        return encryptionService.fingerprint(key, PASSWORD_FINGERPRINT_LABEL, password);
+    }
+}
@@ -0,0 +1,138 @@
+package com.pwmgr.service;
+
+import com.pwmgr.model.PasswordEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shared, size-bounded cache of ciphertext rows keyed by entry id. Rows are
+ * stored exactly as they sit in the database, so nothing here is readable
+ * without a session key; callers always get a detached copy back.
+ */
+@Service
+public class EntryRowCache {
+
+    @Value("${app.entry-cache.max-entries:1000}")
+    private int maxEntries;
+
+    @Value("${app.session-store.type:none}")
+    private String sessionStoreType = "none";
+
+    // Access-ordered, so the least recently read row is evicted first.
+    private final LinkedHashMap<Long, PasswordEntry> rows = new LinkedHashMap<>(16, 0.75f, true);
+    private long generation;
+
+    public Optional<PasswordEntry> get(Long id) {
+        if (!isActive()) {
+            return Optional.empty();
+        }
+        synchronized (rows) {
+            PasswordEntry row = rows.get(id);
+            return row == null ? Optional.empty() : Optional.of(copy(row));
+        }
+    }
+
+    // Taken before a load and handed to put(); any invalidation in between
+    // makes the loaded row too old to cache.
+    public long generation() {
+        synchronized (rows) {
+            return generation;
+        }
+    }
+
+    public void put(PasswordEntry entry, long loadedAt) {
+        if (!isActive() || entry.getId() == null) {
+            return;
+        }
+        synchronized (rows) {
+            if (loadedAt != generation) {
+                return;
+            }
+            rows.put(entry.getId(), copy(entry));
+            while (rows.size() > maxEntries) {
+                Long eldest = rows.keySet().iterator().next();
+                rows.remove(eldest);
+            }
+        }
+    }
+
+    public void invalidate(Long id) {
+        invalidate(List.of(id));
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        evict(ids);
+        // Evict again once the write is visible, so a reader that loaded the
+        // old row mid-transaction can't leave it behind.
+        afterCompletion(() -> evict(ids));
+    }
+
+    public void invalidateAll() {
+        clear();
+        afterCompletion(this::clear);
+    }
+
+    int size() {
+        synchronized (rows) {
+            return rows.size();
+        }
+    }
+
+    // A shared session store means other nodes write to the same vault, and
+    // their invalidations never reach this node's copy, so rows aren't kept.
+    private boolean isActive() {
+        return maxEntries > 0 && "none".equalsIgnoreCase(sessionStoreType);
+    }
+
+    private void evict(Collection<Long> ids) {
+        synchronized (rows) {
+            generation++;
+            rows.keySet().removeAll(ids);
+        }
+    }
+
+    private void clear() {
+        synchronized (rows) {
+            generation++;
+            rows.clear();
+        }
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static PasswordEntry copy(PasswordEntry source) {
+        PasswordEntry copy = new PasswordEntry();
+        copy.setId(source.getId());
+        copy.setUuid(source.getUuid());
+        copy.setSiteName(source.getSiteName());
+        copy.setUsername(source.getUsername());
+        copy.setEncryptedPassword(source.getEncryptedPassword());
+        copy.setIv(source.getIv());
+        copy.setEncryptedNotes(source.getEncryptedNotes());
+        copy.setNotesIv(source.getNotesIv());
+        copy.setFingerprint(source.getFingerprint());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setDeletedAt(source.getDeletedAt());
+        return copy;
+    }
+}
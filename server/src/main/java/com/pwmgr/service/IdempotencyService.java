@@ -0,0 +1,192 @@
+package com.pwmgr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Service
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    @Value("${app.idempotency.ttl-minutes:10}")
+    private long ttlMinutes;
+
+    @Value("${app.idempotency.max-entries:10000}")
+    private int maxEntries;
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec fingerprintKey;
+
+    // Insertion-ordered, so the eldest record is the first to go when the cache is full.
+    private final LinkedHashMap<String, Record> records = new LinkedHashMap<>();
+
+    public IdempotencyService(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.fingerprintKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String sessionId, String scope, String idempotencyKey, Object request,
+                                         Supplier<ResponseEntity<T>> action) throws Exception {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = sessionId + "\u0000" + scope + "\u0000" + idempotencyKey;
+        String fingerprint = fingerprint(request);
+        long now = System.nanoTime();
+
+        Record record;
+        boolean owner = false;
+        synchronized (records) {
+            record = records.get(cacheKey);
+            if (record != null && record.isExpired(now)) {
+                records.remove(cacheKey);
+                record = null;
+            }
+            if (record == null) {
+                record = new Record(fingerprint, now + TimeUnit.MINUTES.toNanos(ttlMinutes));
+                records.put(cacheKey, record);
+                owner = true;
+                evictOverflow(now);
+            }
+        }
+
+        if (!record.fingerprint.equals(fingerprint)) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key was already used with a different request");
+        }
+
+        if (!owner) {
+            // A retry that races the original request waits for its outcome rather than writing again.
+            try {
+                return (ResponseEntity<T>) replay(record.response.get(30, TimeUnit.SECONDS));
+            } catch (TimeoutException e) {
+                throw new IdempotencyKeyInProgressException("A request with this Idempotency-Key is still in progress");
+            } catch (ExecutionException e) {
+                throw (Exception) e.getCause();
+            }
+        }
+
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            forget(cacheKey, record);
+            record.response.completeExceptionally(e);
+            throw e;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            // Failures are not remembered so the client can retry them for real.
+            forget(cacheKey, record);
+        }
+        record.response.complete(response);
+        return response;
+    }
+
+    /**
+     * Drops every record held for a session. Replayed responses can carry
+     * decrypted secrets, so they must not outlive the session's key.
+     */
+    public void evictSession(String sessionId) {
+        String prefix = sessionId + "\u0000";
+        synchronized (records) {
+            records.keySet().removeIf(cacheKey -> cacheKey.startsWith(prefix));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.sweep-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.nanoTime();
+        synchronized (records) {
+            records.values().removeIf(record -> record.isExpired(now));
+        }
+    }
+
+    int size() {
+        synchronized (records) {
+            return records.size();
+        }
+    }
+
+    private void evictOverflow(long now) {
+        Iterator<Map.Entry<String, Record>> iterator = records.entrySet().iterator();
+        while (records.size() > maxEntries && iterator.hasNext()) {
+            Record eldest = iterator.next().getValue();
+            if (eldest.response.isDone() || eldest.isExpired(now)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void forget(String cacheKey, Record record) {
+        synchronized (records) {
+            records.remove(cacheKey, record);
+        }
+    }
+
+    private ResponseEntity<?> replay(ResponseEntity<?> original) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(original.getHeaders());
+        headers.set(REPLAYED_HEADER, "true");
+        return new ResponseEntity<>(original.getBody(), headers, original.getStatusCode());
+    }
+
+    private String fingerprint(Object request) throws Exception {
+        Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+        mac.init(fingerprintKey);
+        return Base64.getEncoder().encodeToString(mac.doFinal(objectMapper.writeValueAsBytes(request)));
+    }
+
+    private static class Record {
+        private final String fingerprint;
+        private final long expiresAt;
+        private final CompletableFuture<ResponseEntity<?>> response = new CompletableFuture<>();
+
+        private Record(String fingerprint, long expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+
+    public static class IdempotencyKeyReusedException extends RuntimeException {
+        public IdempotencyKeyReusedException(String message) {
+            super(message);
+        }
+    }
+
+    public static class IdempotencyKeyInProgressException extends RuntimeException {
+        public IdempotencyKeyInProgressException(String message) {
+            super(message);
+        }
+    }
+}
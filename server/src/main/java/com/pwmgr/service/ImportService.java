@@ -0,0 +1,184 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.ImportProgress;
+import com.pwmgr.dto.PasswordEntryRequest;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.PasswordEntryRepository;
+import com.pwmgr.service.importer.ImportFormat;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+@Service
+public class ImportService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_IN_FLIGHT_BATCHES = 4;
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEntryService passwordEntryService;
+    private final VaultRevisionService vaultRevisionService;
+    private final SessionEntryCache sessionEntryCache;
+
+    private final ExecutorService encryptExecutor =
+            Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    private final ExecutorService persistExecutor = Executors.newSingleThreadExecutor();
+
+    public ImportService(PasswordEntryRepository passwordEntryRepository,
+                         TransactionTemplate transactionTemplate,
+                         PasswordEntryService passwordEntryService,
+                         VaultRevisionService vaultRevisionService,
+                         SessionEntryCache sessionEntryCache) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.passwordEntryService = passwordEntryService;
+        this.vaultRevisionService = vaultRevisionService;
+        this.sessionEntryCache = sessionEntryCache;
+    }
+
+    public void importEntries(InputStream input, ImportFormat format, SecretKey key,
+                              ImportProgress progress) throws Exception {
+        String error = null;
+        try {
+            passwordEntryService.backfillFingerprints(key);
+            Set<String> fingerprints = new HashSet<>(passwordEntryRepository.findAllFingerprints());
+            ImportPipeline pipeline = new ImportPipeline(key, progress);
+
+            format.createParser().parse(input, request -> {
+                progress.incrementParsed();
+                if (isBlank(request.getSiteName()) || isBlank(request.getUsername()) || isBlank(request.getPassword())) {
+                    progress.incrementSkipped();
+                    return;
+                }
+                try {
+                    if (!fingerprints.add(passwordEntryService.fingerprint(request, key))) {
+                        progress.incrementDuplicates();
+                        return;
+                    }
+                } catch (Exception e) {
+                    throw new CompletionException(e);
+                }
+                pipeline.add(request);
+            });
+            pipeline.finish();
+        } catch (CompletionException e) {
+            error = e.getCause().getMessage();
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        } catch (Exception e) {
+            error = e.getMessage();
+            throw e;
+        } finally {
+            progress.complete(error);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        encryptExecutor.shutdownNow();
+        persistExecutor.shutdownNow();
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private boolean fits(String value, int maxLength) {
+        return value == null || value.length() <= maxLength;
+    }
+
+    private class ImportPipeline {
+
+        private final SecretKey key;
+        private final ImportProgress progress;
+        private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT_BATCHES);
+        private CompletableFuture<Void> tail = CompletableFuture.completedFuture(null);
+        private List<PasswordEntryRequest> batch = new ArrayList<>(BATCH_SIZE);
+
+        ImportPipeline(SecretKey key, ImportProgress progress) {
+            this.key = key;
+            this.progress = progress;
+        }
+
+        void add(PasswordEntryRequest request) {
+            batch.add(request);
+            if (batch.size() >= BATCH_SIZE) {
+                submitBatch();
+            }
+        }
+
+        void finish() {
+            submitBatch();
+            tail.join();
+        }
+
+        private void submitBatch() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (tail.isCompletedExceptionally()) {
+                tail.join();
+            }
+
+            List<PasswordEntryRequest> requests = batch;
+            batch = new ArrayList<>(BATCH_SIZE);
+
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<List<PasswordEntry>> encrypted =
+                    CompletableFuture.supplyAsync(() -> encrypt(requests), encryptExecutor);
+            tail = tail.thenCombineAsync(encrypted, (ignored, entries) -> {
+                if (entries.isEmpty()) {
+                    return (Void) null;
+                }
+                // Each batch commits with its own revision bump, so a reader that
+                // sees the new revision also sees every row stamped with it.
+                transactionTemplate.executeWithoutResult(status -> {
+                    long revision = vaultRevisionService.increment();
+                    entries.forEach(entry -> entry.setRevision(revision));
+                    passwordEntryRepository.saveAll(entries);
+                });
+                sessionEntryCache.invalidate(entries.stream().map(PasswordEntry::getId).collect(Collectors.toList()));
+                progress.addImported(entries.size());
+                return (Void) null;
+            }, persistExecutor).whenComplete((ignored, e) -> inFlight.release());
+        }
+
+        private List<PasswordEntry> encrypt(List<PasswordEntryRequest> requests) {
+            List<PasswordEntry> entries = new ArrayList<>(requests.size());
+            try {
+                for (PasswordEntryRequest request : requests) {
+                    // A row that can't fit its columns would fail the whole batch
+                    // insert, so it is skipped on its own instead.
+                    if (!fits(request.getSiteName(), PasswordEntry.SITE_NAME_MAX_LENGTH)
+                            || !fits(request.getUsername(), PasswordEntry.USERNAME_MAX_LENGTH)) {
+                        progress.incrementSkipped();
+                        continue;
+                    }
+                    PasswordEntry entry = passwordEntryService.buildEntry(request, key);
+                    if (!fits(entry.getEncryptedPassword(), PasswordEntry.ENCRYPTED_PASSWORD_MAX_LENGTH)
+                            || !fits(entry.getEncryptedNotes(), PasswordEntry.ENCRYPTED_NOTES_MAX_LENGTH)) {
+                        progress.incrementSkipped();
+                        continue;
+                    }
+                    entries.add(entry);
+                }
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+            return entries;
+        }
+    }
+}
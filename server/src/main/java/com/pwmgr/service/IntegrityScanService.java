@@ -0,0 +1,109 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.IntegrityReport;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.PasswordEntryRepository;
+import com.pwmgr.security.EncryptionService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+public class IntegrityScanService {
+
+    private static final int BATCH_SIZE = 500;
+    private static final int MAX_IN_FLIGHT_BATCHES = 4;
+
+    private final PasswordEntryRepository passwordEntryRepository;
+    private final EncryptionService encryptionService;
+
+    private final ExecutorService verifyExecutor =
+            Executors.newFixedThreadPool(Math.max(1, Runtime.getRuntime().availableProcessors()));
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public IntegrityScanService(PasswordEntryRepository passwordEntryRepository,
+                                EncryptionService encryptionService) {
+        this.passwordEntryRepository = passwordEntryRepository;
+        this.encryptionService = encryptionService;
+    }
+
+    public IntegrityReport scan(SecretKey key) throws InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            throw new ScanInProgressException("An integrity scan is already running");
+        }
+        try {
+            long started = System.currentTimeMillis();
+            AtomicLong scanned = new AtomicLong();
+            ConcurrentLinkedQueue<Long> corruptIds = new ConcurrentLinkedQueue<>();
+            Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT_BATCHES);
+            List<CompletableFuture<Void>> batches = new ArrayList<>();
+
+            // Pages are read on the calling thread by id keyset; only the GCM
+            // checks fan out, and the semaphore caps how many pages sit in memory.
+            long lastId = 0;
+            while (true) {
+                List<PasswordEntry> page = passwordEntryRepository.findByIdGreaterThanOrderByIdAsc(
+                        lastId, PageRequest.of(0, BATCH_SIZE));
+                if (page.isEmpty()) {
+                    break;
+                }
+                lastId = page.get(page.size() - 1).getId();
+
+                inFlight.acquire();
+                batches.add(CompletableFuture.runAsync(() -> {
+                    for (PasswordEntry entry : page) {
+                        if (!isIntact(entry, key)) {
+                            corruptIds.add(entry.getId());
+                        }
+                    }
+                    scanned.addAndGet(page.size());
+                }, verifyExecutor).whenComplete((result, error) -> inFlight.release()));
+
+                if (page.size() < BATCH_SIZE) {
+                    break;
+                }
+            }
+            CompletableFuture.allOf(batches.toArray(new CompletableFuture[0])).join();
+
+            List<Long> sorted = new ArrayList<>(corruptIds);
+            sorted.sort(Long::compare);
+            return new IntegrityReport(scanned.get(), sorted, System.currentTimeMillis() - started);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private boolean isIntact(PasswordEntry entry, SecretKey key) {
+        if (entry.getEncryptedPassword() == null || entry.getIv() == null
+                || !encryptionService.verifyWithIv(entry.getEncryptedPassword(), entry.getIv(), key)) {
+            return false;
+        }
+        if (entry.getEncryptedNotes() == null && entry.getNotesIv() == null) {
+            return true;
+        }
+        return entry.getEncryptedNotes() != null && entry.getNotesIv() != null
+                && encryptionService.verifyWithIv(entry.getEncryptedNotes(), entry.getNotesIv(), key);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        verifyExecutor.shutdownNow();
+    }
+
+    public static class ScanInProgressException extends RuntimeException {
+        public ScanInProgressException(String message) {
+            super(message);
+        }
+    }
+}
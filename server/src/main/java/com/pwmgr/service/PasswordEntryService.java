@@ -1,56 +1,501 @@
 package com.pwmgr.service;
 
+import com.pwmgr.dto.BatchOperation;
+import com.pwmgr.dto.BatchResponse;
+import com.pwmgr.dto.EntryChangesResponse;
+import com.pwmgr.dto.PasswordEntryPatchRequest;
 import com.pwmgr.dto.PasswordEntryRequest;
 import com.pwmgr.dto.PasswordEntryResponse;
+import com.pwmgr.model.DeletedEntry;
 import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.model.UuidV7;
+import com.pwmgr.repository.DeletedEntryRepository;
 import com.pwmgr.repository.PasswordEntryRepository;
 import com.pwmgr.security.EncryptionService;
 import com.pwmgr.security.EncryptionService.EncryptedData;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 public class PasswordEntryService {
 
+    private static final int PURGE_BATCH_SIZE = 500;
+
+    @Value("${app.sync.tombstone-retention-days:30}")
+    private int tombstoneRetentionDays;
+
+    @Value("${app.trash.retention-days:30}")
+    private int trashRetentionDays;
+
     private final PasswordEntryRepository passwordEntryRepository;
+    private final DeletedEntryRepository deletedEntryRepository;
     private final EncryptionService encryptionService;
+    private final VaultRevisionService vaultRevisionService;
+    private final EntryHistoryService entryHistoryService;
+    private final EntryRowCache entryRowCache;
+    private final SessionEntryCache sessionEntryCache;
+    private final RequestCoalescer requestCoalescer;
+    private final TransactionTemplate transactionTemplate;
 
     public PasswordEntryService(PasswordEntryRepository passwordEntryRepository,
-                                EncryptionService encryptionService) {
+                                DeletedEntryRepository deletedEntryRepository,
+                                EncryptionService encryptionService,
+                                VaultRevisionService vaultRevisionService,
+                                EntryHistoryService entryHistoryService,
+                                EntryRowCache entryRowCache,
+                                SessionEntryCache sessionEntryCache,
+                                RequestCoalescer requestCoalescer,
+                                TransactionTemplate transactionTemplate) {
         this.passwordEntryRepository = passwordEntryRepository;
+        this.deletedEntryRepository = deletedEntryRepository;
         this.encryptionService = encryptionService;
+        this.vaultRevisionService = vaultRevisionService;
+        this.entryHistoryService = entryHistoryService;
+        this.entryRowCache = entryRowCache;
+        this.sessionEntryCache = sessionEntryCache;
+        this.requestCoalescer = requestCoalescer;
+        this.transactionTemplate = transactionTemplate;
     }
 
+    @Transactional
     public PasswordEntryResponse createEntry(PasswordEntryRequest request, SecretKey key) throws Exception {
-        PasswordEntry entry = new PasswordEntry();
-        entry.setSiteName(request.getSiteName());
-        entry.setUsername(request.getUsername());
-
-        EncryptedData encryptedPassword = encryptionService.encryptWithIv(request.getPassword(), key);
-        entry.setEncryptedPassword(encryptedPassword.getCiphertext());
-        entry.setIv(encryptedPassword.getIv());
-
-        if (request.getNotes() != null && !request.getNotes().isEmpty()) {
-            EncryptedData encryptedNotes = encryptionService.encryptWithIv(request.getNotes(), key);
-            entry.setEncryptedNotes(encryptedNotes.getCiphertext());
-            entry.setNotesIv(encryptedNotes.getIv());
+        if (request.getUuid() != null) {
+            requireUuidV7(request.getUuid());
+            if (passwordEntryRepository.existsByUuid(request.getUuid())) {
+                throw new DuplicateEntryException("Entry " + request.getUuid() + " already exists");
+            }
         }
 
+        PasswordEntry entry = new PasswordEntry();
+        entry.setUuid(request.getUuid());
+        applyRequest(entry, request, key);
+        entry.setRevision(vaultRevisionService.increment());
+
         PasswordEntry saved = passwordEntryRepository.save(entry);
+        invalidateCaches(saved.getId());
         return toResponse(saved, key);
     }
 
+    @Transactional
     public PasswordEntryResponse updateEntry(Long id, PasswordEntryRequest request, SecretKey key) throws Exception {
         Optional<PasswordEntry> entryOpt = passwordEntryRepository.findById(id);
-        if (entryOpt.isEmpty()) {
+        if (entryOpt.isEmpty() || entryOpt.get().getDeletedAt() != null) {
             throw new EntryNotFoundException("Password entry not found");
         }
 
         PasswordEntry entry = entryOpt.get();
+        entryHistoryService.archive(List.of(entry), key);
+        applyRequest(entry, request, key);
+        entry.setRevision(vaultRevisionService.increment());
+
+        PasswordEntry saved = passwordEntryRepository.save(entry);
+        invalidateCaches(id);
+        return toResponse(saved, key);
+    }
+
+    @Transactional
+    public void patchEntry(Long id, PasswordEntryPatchRequest patch, SecretKey key) throws Exception {
+        if (patch.isEmpty()) {
+            throw new IllegalArgumentException("No fields to update");
+        }
+
+        // Secrets are about to be replaced, so the current version is archived
+        // first; metadata-only edits skip the read and all crypto.
+        if (patch.getPassword() != null || patch.getNotes() != null) {
+            PasswordEntry current = passwordEntryRepository.findById(id)
+                    .filter(entry -> entry.getDeletedAt() == null)
+                    .orElseThrow(() -> new EntryNotFoundException("Password entry not found"));
+            entryHistoryService.archive(List.of(current), key);
+        }
+
+        Map<String, Object> changes = new LinkedHashMap<>();
+        if (patch.getSiteName() != null) {
+            changes.put("siteName", patch.getSiteName());
+        }
+        if (patch.getUsername() != null) {
+            changes.put("username", patch.getUsername());
+        }
+        if (patch.getPassword() != null) {
+            EncryptedData encryptedPassword = encryptionService.encryptWithIv(patch.getPassword(), key);
+            changes.put("encryptedPassword", encryptedPassword.getCiphertext());
+            changes.put("iv", encryptedPassword.getIv());
+        }
+        if (patch.getNotes() != null) {
+            if (patch.getNotes().isEmpty()) {
+                changes.put("encryptedNotes", null);
+                changes.put("notesIv", null);
+            } else {
+                EncryptedData encryptedNotes = encryptionService.encryptWithIv(patch.getNotes(), key);
+                changes.put("encryptedNotes", encryptedNotes.getCiphertext());
+                changes.put("notesIv", encryptedNotes.getIv());
+            }
+        }
+        if (patch.getSiteName() != null || patch.getUsername() != null || patch.getPassword() != null) {
+            // Without all three plaintexts the fingerprint can't be recomputed here;
+            // clearing it lets backfillFingerprints fill it in lazily.
+            boolean complete = patch.getSiteName() != null && patch.getUsername() != null
+                    && patch.getPassword() != null;
+            changes.put("fingerprint", complete
+                    ? encryptionService.fingerprint(key, patch.getSiteName(), patch.getUsername(), patch.getPassword())
+                    : null);
+        }
+        changes.put("revision", vaultRevisionService.increment());
+
+        if (passwordEntryRepository.updateFields(id, changes) == 0) {
+            throw new EntryNotFoundException("Password entry not found");
+        }
+        invalidateCaches(id);
+    }
+
+    @Transactional
+    public void deleteEntry(Long id) {
+        long revision = vaultRevisionService.increment();
+        if (passwordEntryRepository.moveToTrash(List.of(id), LocalDateTime.now(), revision) == 0) {
+            throw new EntryNotFoundException("Password entry not found");
+        }
+        deletedEntryRepository.save(new DeletedEntry(id, revision));
+        invalidateCaches(id);
+    }
+
+    @Transactional
+    public PasswordEntryResponse restoreEntry(Long id, SecretKey key) throws Exception {
+        long revision = vaultRevisionService.increment();
+        if (passwordEntryRepository.restoreFromTrash(id, LocalDateTime.now(), revision) == 0) {
+            throw new EntryNotFoundException("Password entry not found in trash");
+        }
+        deletedEntryRepository.deleteByEntryId(id);
+        invalidateCaches(id);
+        return getEntry(id, key);
+    }
+
+    public List<PasswordEntryResponse> getTrash(SecretKey key) {
+        return toResponses(passwordEntryRepository.findByDeletedAtIsNotNullOrderByDeletedAtDesc(), key);
+    }
+
+    @Scheduled(cron = "${app.trash.purge-cron:0 15 3 * * *}")
+    public void purgeTrash() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(trashRetentionDays);
+        List<Long> ids;
+        do {
+            ids = passwordEntryRepository.findIdsTrashedBefore(cutoff, PageRequest.of(0, PURGE_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                // Each batch commits on its own, so a failure mid-purge never
+                // leaves entries whose history is already gone, and the next
+                // run picks up where this one stopped.
+                List<Long> batch = ids;
+                transactionTemplate.executeWithoutResult(status -> {
+                    passwordEntryRepository.deleteAllByIdInBatch(batch);
+                    entryHistoryService.deleteHistory(batch);
+                });
+                invalidateCaches(ids);
+            }
+        } while (ids.size() == PURGE_BATCH_SIZE);
+    }
+
+    @Transactional
+    public BatchResponse applyBatch(List<BatchOperation> operations, SecretKey key) throws Exception {
+        resolveUuidTargets(operations);
+
+        Set<UUID> createdUuids = new LinkedHashSet<>();
+        Set<Long> targetIds = new LinkedHashSet<>();
+        for (BatchOperation operation : operations) {
+            if (operation.getType() != BatchOperation.Type.DELETE && operation.getEntry() == null) {
+                throw new IllegalArgumentException(operation.getType() + " operation requires an entry");
+            }
+            if (operation.getType() == BatchOperation.Type.CREATE) {
+                UUID uuid = operation.getEntry().getUuid();
+                if (uuid != null) {
+                    requireUuidV7(uuid);
+                    if (!createdUuids.add(uuid)) {
+                        throw new IllegalArgumentException("Entry " + uuid + " is created more than once");
+                    }
+                }
+            } else {
+                if (operation.getId() == null) {
+                    throw new IllegalArgumentException(operation.getType() + " operation requires an id or uuid");
+                }
+                if (!targetIds.add(operation.getId())) {
+                    throw new IllegalArgumentException("Entry " + operation.getId() + " appears in more than one operation");
+                }
+            }
+        }
+
+        if (!createdUuids.isEmpty()) {
+            List<UUID> taken = passwordEntryRepository.findExistingUuids(createdUuids);
+            if (!taken.isEmpty()) {
+                throw new DuplicateEntryException("Entry " + taken.get(0) + " already exists");
+            }
+        }
+
+        Map<Long, PasswordEntry> existing = new HashMap<>();
+        for (PasswordEntry entry : passwordEntryRepository.findAllById(targetIds)) {
+            if (entry.getDeletedAt() == null) {
+                existing.put(entry.getId(), entry);
+            }
+        }
+        if (existing.size() != targetIds.size()) {
+            throw new EntryNotFoundException("Password entry not found");
+        }
+
+        List<PasswordEntry> created = new ArrayList<>();
+        List<PasswordEntryRequest> createdRequests = new ArrayList<>();
+        List<PasswordEntry> updated = new ArrayList<>();
+        List<PasswordEntryRequest> updatedRequests = new ArrayList<>();
+        List<Long> deletedIds = new ArrayList<>();
+
+        entryHistoryService.archive(operations.stream()
+                .filter(operation -> operation.getType() == BatchOperation.Type.UPDATE)
+                .map(operation -> existing.get(operation.getId()))
+                .collect(Collectors.toList()), key);
+
+        for (BatchOperation operation : operations) {
+            switch (operation.getType()) {
+                case CREATE -> {
+                    PasswordEntry entry = new PasswordEntry();
+                    entry.setUuid(operation.getEntry().getUuid());
+                    applyRequest(entry, operation.getEntry(), key);
+                    created.add(entry);
+                    createdRequests.add(operation.getEntry());
+                }
+                case UPDATE -> {
+                    PasswordEntry entry = existing.get(operation.getId());
+                    applyRequest(entry, operation.getEntry(), key);
+                    updated.add(entry);
+                    updatedRequests.add(operation.getEntry());
+                }
+                case DELETE -> deletedIds.add(operation.getId());
+            }
+        }
+
+        long revision = vaultRevisionService.increment();
+        created.forEach(entry -> entry.setRevision(revision));
+        updated.forEach(entry -> entry.setRevision(revision));
+        passwordEntryRepository.saveAll(created);
+        passwordEntryRepository.saveAll(updated);
+        passwordEntryRepository.flush();
+        if (!deletedIds.isEmpty()) {
+            passwordEntryRepository.moveToTrash(deletedIds, LocalDateTime.now(), revision);
+            deletedEntryRepository.saveAll(deletedIds.stream()
+                    .map(id -> new DeletedEntry(id, revision))
+                    .collect(Collectors.toList()));
+        }
+        invalidateCaches(targetIds);
+        invalidateCaches(created.stream().map(PasswordEntry::getId).collect(Collectors.toList()));
+
+        return new BatchResponse(
+                toResponses(created, createdRequests),
+                toResponses(updated, updatedRequests),
+                deletedIds);
+    }
+
+    public PasswordEntry buildEntry(PasswordEntryRequest request, SecretKey key) throws Exception {
+        PasswordEntry entry = new PasswordEntry();
+        applyRequest(entry, request, key);
+        return entry;
+    }
+
+    public String fingerprint(PasswordEntryRequest request, SecretKey key) throws Exception {
+        return encryptionService.fingerprint(key, request.getSiteName(), request.getUsername(), request.getPassword());
+    }
+
+    public PasswordEntryResponse decryptEntry(PasswordEntry entry, SecretKey key) throws Exception {
+        return toResponse(entry, key);
+    }
+
+    public void backfillFingerprints(SecretKey key) throws Exception {
+        List<PasswordEntry> entries = passwordEntryRepository.findByFingerprintIsNull();
+        List<PasswordEntry> backfilled = new ArrayList<>();
+        for (PasswordEntry entry : entries) {
+            String password;
+            try {
+                password = encryptionService.decryptWithIv(entry.getEncryptedPassword(), entry.getIv(), key);
+            } catch (Exception e) {
+                continue;
+            }
+            entry.setFingerprint(encryptionService.fingerprint(
+                    key, entry.getSiteName(), entry.getUsername(), password));
+            backfilled.add(entry);
+        }
+        if (!backfilled.isEmpty()) {
+            passwordEntryRepository.saveAll(backfilled);
+            invalidateCaches(backfilled.stream().map(PasswordEntry::getId).collect(Collectors.toList()));
+        }
+    }
+
+    public PasswordEntryResponse getEntry(Long id, SecretKey key) throws Exception {
+        PasswordEntry entry = findCached(id);
+        if (entry == null || entry.getDeletedAt() != null) {
+            throw new EntryNotFoundException("Password entry not found");
+        }
+        return toResponse(entry, key);
+    }
+
+    public List<PasswordEntryResponse> getAllEntries(SecretKey key) throws Exception {
+        List<PasswordEntry> entries = passwordEntryRepository.findByDeletedAtIsNullOrderBySiteNameAsc();
+        return toResponses(entries, key);
+    }
+
+    public List<PasswordEntryResponse> getAllEntries(SecretKey key, String sessionId) throws Exception {
+        return requestCoalescer.execute(coalescingKey(sessionId, "list", ""),
+                () -> loadAllEntries(key, sessionId));
+    }
+
+    private List<PasswordEntryResponse> loadAllEntries(SecretKey key, String sessionId) throws Exception {
+        SessionEntryCache.Snapshot snapshot = sessionEntryCache.get(sessionId);
+        if (snapshot == null) {
+            long generation = sessionEntryCache.generation();
+            List<PasswordEntryResponse> entries = getAllEntries(key);
+            sessionEntryCache.put(sessionId, entries, generation);
+            return entries;
+        }
+        if (snapshot.getStaleIds().isEmpty()) {
+            return snapshot.getEntries();
+        }
+
+        List<PasswordEntry> rows = new ArrayList<>();
+        for (PasswordEntry entry : passwordEntryRepository.findAllById(snapshot.getStaleIds())) {
+            if (entry.getDeletedAt() == null) {
+                rows.add(entry);
+            }
+        }
+        List<PasswordEntryResponse> reloaded = toResponses(rows, key);
+        sessionEntryCache.merge(snapshot, sessionId, reloaded);
+        return snapshot.withReloaded(reloaded);
+    }
+
+    public List<PasswordEntryResponse> searchEntries(String query, SecretKey key) throws Exception {
+        List<PasswordEntry> entries = passwordEntryRepository.searchByQuery(query);
+        return toResponses(entries, key);
+    }
+
+    public List<PasswordEntryResponse> searchEntries(String query, SecretKey key, String sessionId) throws Exception {
+        return requestCoalescer.execute(coalescingKey(sessionId, "search", query),
+                () -> searchEntries(query, key));
+    }
+
+    public EntryChangesResponse getChanges(String sinceToken, SecretKey key) throws Exception {
+        // Read the revision before the rows: every row stamped at or below it
+        // has committed, so nothing the token covers can be missed later.
+        long revision = vaultRevisionService.getRevision();
+        String token = String.valueOf(revision);
+
+        if (sinceToken == null || sinceToken.isEmpty()) {
+            return new EntryChangesResponse(getAllEntries(key), Collections.emptyList(), token);
+        }
+
+        long since = fromSyncToken(sinceToken);
+        if (since < vaultRevisionService.getSyncHorizon() || since > revision) {
+            throw new SyncTokenExpiredException("Sync token expired, a full reload is required");
+        }
+
+        List<PasswordEntryResponse> entries = toResponses(
+                passwordEntryRepository.findByDeletedAtIsNullAndRevisionGreaterThanOrderBySiteNameAsc(since), key);
+        List<Long> deletedIds = deletedEntryRepository.findByRevisionGreaterThan(since).stream()
+                .map(DeletedEntry::getEntryId)
+                .distinct()
+                .collect(Collectors.toList());
+
+        return new EntryChangesResponse(entries, deletedIds, token);
+    }
+
+    @Scheduled(cron = "${app.sync.tombstone-purge-cron:0 0 3 * * *}")
+    public void purgeExpiredTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        // Tokens older than the newest purged tombstone could miss its delete,
+        // so the horizon moves before the tombstones go.
+        deletedEntryRepository.findMaxRevisionDeletedBefore(cutoff).ifPresent(vaultRevisionService::raiseSyncHorizon);
+        deletedEntryRepository.deleteByDeletedAtBefore(cutoff);
+    }
+
+    private long fromSyncToken(String token) {
+        try {
+            return Long.parseLong(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token");
+        }
+    }
+
+    private void resolveUuidTargets(List<BatchOperation> operations) {
+        Set<UUID> uuids = operations.stream()
+                .filter(operation -> operation.getType() != BatchOperation.Type.CREATE)
+                .filter(operation -> operation.getId() == null && operation.getUuid() != null)
+                .map(BatchOperation::getUuid)
+                .collect(Collectors.toSet());
+        if (uuids.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Long> ids = new HashMap<>();
+        for (PasswordEntry entry : passwordEntryRepository.findByUuidIn(uuids)) {
+            ids.put(entry.getUuid(), entry.getId());
+        }
+        for (BatchOperation operation : operations) {
+            if (operation.getType() != BatchOperation.Type.CREATE && operation.getId() == null
+                    && operation.getUuid() != null) {
+                Long id = ids.get(operation.getUuid());
+                if (id == null) {
+                    throw new EntryNotFoundException("Password entry not found");
+                }
+                operation.setId(id);
+            }
+        }
+    }
+
+    private String coalescingKey(String sessionId, String scope, String query) {
+        // The revision is part of the key so a read that starts after a write
+        // never joins a computation that may have seen the old data.
+        return sessionId + "\u0000" + vaultRevisionService.getRevision() + "\u0000" + scope + "\u0000" + query;
+    }
+
+    private void invalidateCaches(Long id) {
+        // A row without an id was never loaded, so neither cache can hold it.
+        if (id != null) {
+            invalidateCaches(List.of(id));
+        }
+    }
+
+    private void invalidateCaches(Collection<Long> ids) {
+        entryRowCache.invalidate(ids);
+        sessionEntryCache.invalidate(ids);
+    }
+
+    private PasswordEntry findCached(Long id) {
+        Optional<PasswordEntry> cached = entryRowCache.get(id);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        long generation = entryRowCache.generation();
+        Optional<PasswordEntry> loaded = passwordEntryRepository.findById(id);
+        loaded.ifPresent(entry -> entryRowCache.put(entry, generation));
+        return loaded.orElse(null);
+    }
+
+    private void requireUuidV7(UUID uuid) {
+        if (!UuidV7.isValid(uuid)) {
+            throw new IllegalArgumentException("Entry uuid must be a version 7 UUID");
+        }
+    }
+
+    private void applyRequest(PasswordEntry entry, PasswordEntryRequest request, SecretKey key) throws Exception {
         entry.setSiteName(request.getSiteName());
         entry.setUsername(request.getUsername());
 
@@ -67,49 +512,56 @@ public class PasswordEntryService {
             entry.setNotesIv(null);
         }
 
-        PasswordEntry saved = passwordEntryRepository.save(entry);
-        return toResponse(saved, key);
+        entry.setFingerprint(fingerprint(request, key));
     }
 
-    public void deleteEntry(Long id) {
-        if (!passwordEntryRepository.existsById(id)) {
-            throw new EntryNotFoundException("Password entry not found");
+    private List<PasswordEntryResponse> toResponses(List<PasswordEntry> entries, List<PasswordEntryRequest> requests) {
+        List<PasswordEntryResponse> responses = new ArrayList<>(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            PasswordEntry entry = entries.get(i);
+            PasswordEntryRequest request = requests.get(i);
+            String notes = request.getNotes() != null && !request.getNotes().isEmpty() ? request.getNotes() : null;
+            PasswordEntryResponse response = new PasswordEntryResponse(
+                    entry.getId(),
+                    entry.getSiteName(),
+                    entry.getUsername(),
+                    request.getPassword(),
+                    notes,
+                    entry.getCreatedAt(),
+                    entry.getUpdatedAt()
+            );
+            response.setUuid(entry.getUuid());
+            responses.add(response);
         }
-        passwordEntryRepository.deleteById(id);
+        return responses;
     }
 
-    public PasswordEntryResponse getEntry(Long id, SecretKey key) throws Exception {
-        Optional<PasswordEntry> entryOpt = passwordEntryRepository.findById(id);
-        if (entryOpt.isEmpty()) {
-            throw new EntryNotFoundException("Password entry not found");
-        }
-        return toResponse(entryOpt.get(), key);
-    }
-
-    public List<PasswordEntryResponse> getAllEntries(SecretKey key) throws Exception {
-        List<PasswordEntry> entries = passwordEntryRepository.findAllByOrderBySiteNameAsc();
+    private List<PasswordEntryResponse> toResponses(List<PasswordEntry> entries, SecretKey key) {
         return entries.stream()
                 .map(entry -> {
                     try {
                         return toResponse(entry, key);
                     } catch (Exception e) {
-                        throw new RuntimeException("Failed to decrypt entry", e);
+                        return toCorruptResponse(entry);
                     }
                 })
                 .collect(Collectors.toList());
     }
 
-    public List<PasswordEntryResponse> searchEntries(String query, SecretKey key) throws Exception {
-        List<PasswordEntry> entries = passwordEntryRepository.searchByQuery(query);
-        return entries.stream()
-                .map(entry -> {
-                    try {
-                        return toResponse(entry, key);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Failed to decrypt entry", e);
-                    }
-                })
-                .collect(Collectors.toList());
+    private PasswordEntryResponse toCorruptResponse(PasswordEntry entry) {
+        PasswordEntryResponse response = new PasswordEntryResponse(
+                entry.getId(),
+                entry.getSiteName(),
+                entry.getUsername(),
+                null,
+                null,
+                entry.getCreatedAt(),
+                entry.getUpdatedAt()
+        );
+        response.setUuid(entry.getUuid());
+        response.setCorrupt(true);
+        response.setDeletedAt(entry.getDeletedAt());
+        return response;
     }
 
     private PasswordEntryResponse toResponse(PasswordEntry entry, SecretKey key) throws Exception {
@@ -122,7 +574,7 @@ public class PasswordEntryService {
                     entry.getEncryptedNotes(), entry.getNotesIv(), key);
         }
 
-        return new PasswordEntryResponse(
+        PasswordEntryResponse response = new PasswordEntryResponse(
                 entry.getId(),
                 entry.getSiteName(),
                 entry.getUsername(),
@@ -131,6 +583,9 @@ public class PasswordEntryService {
                 entry.getCreatedAt(),
                 entry.getUpdatedAt()
         );
+        response.setUuid(entry.getUuid());
+        response.setDeletedAt(entry.getDeletedAt());
+        return response;
     }
 
     public static class EntryNotFoundException extends RuntimeException {
@@ -138,4 +593,16 @@ public class PasswordEntryService {
             super(message);
         }
     }
+
+    public static class DuplicateEntryException extends RuntimeException {
+        public DuplicateEntryException(String message) {
+            super(message);
+        }
+    }
+
+    public static class SyncTokenExpiredException extends RuntimeException {
+        public SyncTokenExpiredException(String message) {
+            super(message);
+        }
+    }
 }
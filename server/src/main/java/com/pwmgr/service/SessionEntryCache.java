@@ -0,0 +1,277 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.PasswordEntryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-session cache of the decrypted entry list. Writes don't drop a
+ * session's list; they mark the touched ids stale so the next read only
+ * reloads and decrypts those rows.
+ */
+@Service
+public class SessionEntryCache {
+
+    private static final Comparator<PasswordEntryResponse> SITE_ORDER =
+            Comparator.comparing(PasswordEntryResponse::getSiteName).thenComparing(PasswordEntryResponse::getId);
+
+    private static final long ENTRY_OVERHEAD_BYTES = 160;
+
+    @Value("${app.session-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.auth.mode:session}")
+    private String authMode = "session";
+
+    @Value("${app.session-store.type:none}")
+    private String sessionStoreType = "none";
+
+    @Value("${app.session-cache.max-bytes:16777216}")
+    private long maxBytes;
+
+    @Value("${app.session-cache.idle-minutes:10}")
+    private long idleMinutes;
+
+    // Access-ordered, so the least recently used session goes first when over budget.
+    private final LinkedHashMap<String, SessionEntries> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+    private long generation;
+
+    public Snapshot get(String sessionId) {
+        if (!isActive() || sessionId == null) {
+            return null;
+        }
+        List<PasswordEntryResponse> entries;
+        Set<Long> staleIds;
+        long loadedAt;
+        synchronized (sessions) {
+            SessionEntries cached = sessions.get(sessionId);
+            if (cached == null) {
+                return null;
+            }
+            cached.lastAccess = System.nanoTime();
+            entries = new ArrayList<>(cached.entries.values());
+            staleIds = new HashSet<>(cached.staleIds);
+            loadedAt = generation;
+        }
+        entries.sort(SITE_ORDER);
+        return new Snapshot(entries, staleIds, loadedAt);
+    }
+
+    // Taken before a full load and handed to put(); a write in between makes
+    // the loaded list too old to cache.
+    public long generation() {
+        synchronized (sessions) {
+            return generation;
+        }
+    }
+
+    public void put(String sessionId, List<PasswordEntryResponse> entries, long loadedAt) {
+        if (!isActive() || sessionId == null) {
+            return;
+        }
+        synchronized (sessions) {
+            if (loadedAt != generation) {
+                return;
+            }
+            SessionEntries cached = new SessionEntries();
+            for (PasswordEntryResponse entry : entries) {
+                cached.put(entry);
+            }
+            totalBytes += cached.bytes - remove(sessionId);
+            sessions.put(sessionId, cached);
+            evictOverBudget();
+        }
+    }
+
+    public void merge(Snapshot snapshot, String sessionId, List<PasswordEntryResponse> reloaded) {
+        synchronized (sessions) {
+            SessionEntries cached = sessions.get(sessionId);
+            if (cached == null) {
+                return;
+            }
+            long before = cached.bytes;
+            for (Long id : snapshot.getStaleIds()) {
+                cached.remove(id);
+            }
+            for (PasswordEntryResponse entry : reloaded) {
+                cached.put(entry);
+            }
+            // A write that landed after the snapshot keeps its ids stale for the next read.
+            if (snapshot.generation == generation) {
+                cached.staleIds.removeAll(snapshot.getStaleIds());
+            }
+            totalBytes += cached.bytes - before;
+            evictOverBudget();
+        }
+    }
+
+    public void invalidate(Long id) {
+        invalidate(List.of(id));
+    }
+
+    public void invalidate(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        markStale(ids);
+        afterCompletion(() -> markStale(ids));
+    }
+
+    public void invalidateAll() {
+        clear();
+        afterCompletion(this::clear);
+    }
+
+    public void evict(String sessionId) {
+        synchronized (sessions) {
+            totalBytes -= remove(sessionId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.session-cache.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - TimeUnit.MINUTES.toNanos(idleMinutes);
+        synchronized (sessions) {
+            Iterator<SessionEntries> iterator = sessions.values().iterator();
+            while (iterator.hasNext()) {
+                SessionEntries cached = iterator.next();
+                if (cached.lastAccess - cutoff <= 0) {
+                    totalBytes -= cached.bytes;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    long getTotalBytes() {
+        synchronized (sessions) {
+            return totalBytes;
+        }
+    }
+
+    // Stateless mode promises no per-session state on the server, and with a
+    // shared session store a session moves between nodes, so a write served
+    // elsewhere would never mark this node's list stale; the cache stays out
+    // of both.
+    private boolean isActive() {
+        return enabled && !"stateless".equalsIgnoreCase(authMode) && "none".equalsIgnoreCase(sessionStoreType);
+    }
+
+    private void markStale(Collection<Long> ids) {
+        synchronized (sessions) {
+            generation++;
+            for (SessionEntries cached : sessions.values()) {
+                cached.staleIds.addAll(ids);
+            }
+        }
+    }
+
+    private void clear() {
+        synchronized (sessions) {
+            generation++;
+            sessions.clear();
+            totalBytes = 0;
+        }
+    }
+
+    private long remove(String sessionId) {
+        SessionEntries removed = sessions.remove(sessionId);
+        return removed == null ? 0 : removed.bytes;
+    }
+
+    private void evictOverBudget() {
+        Iterator<SessionEntries> iterator = sessions.values().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            totalBytes -= iterator.next().bytes;
+            iterator.remove();
+        }
+    }
+
+    private void afterCompletion(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private static long estimateBytes(PasswordEntryResponse entry) {
+        return ENTRY_OVERHEAD_BYTES + 2L * (length(entry.getSiteName()) + length(entry.getUsername())
+                + length(entry.getPassword()) + length(entry.getNotes()));
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    public static class Snapshot {
+        private final List<PasswordEntryResponse> entries;
+        private final Set<Long> staleIds;
+        private final long generation;
+
+        private Snapshot(List<PasswordEntryResponse> entries, Set<Long> staleIds, long generation) {
+            this.entries = entries;
+            this.staleIds = staleIds;
+            this.generation = generation;
+        }
+
+        public List<PasswordEntryResponse> getEntries() {
+            return entries;
+        }
+
+        public Set<Long> getStaleIds() {
+            return staleIds;
+        }
+
+        public List<PasswordEntryResponse> withReloaded(List<PasswordEntryResponse> reloaded) {
+            List<PasswordEntryResponse> merged = new ArrayList<>(entries.size() + reloaded.size());
+            for (PasswordEntryResponse entry : entries) {
+                if (!staleIds.contains(entry.getId())) {
+                    merged.add(entry);
+                }
+            }
+            merged.addAll(reloaded);
+            merged.sort(SITE_ORDER);
+            return merged;
+        }
+    }
+
+    private static class SessionEntries {
+        private final Map<Long, PasswordEntryResponse> entries = new HashMap<>();
+        private final Set<Long> staleIds = new HashSet<>();
+        private long bytes;
+        private long lastAccess = System.nanoTime();
+
+        private void put(PasswordEntryResponse entry) {
+            remove(entry.getId());
+            entries.put(entry.getId(), entry);
+            bytes += estimateBytes(entry);
+        }
+
+        private void remove(Long id) {
+            PasswordEntryResponse removed = entries.remove(id);
+            if (removed != null) {
+                bytes -= estimateBytes(removed);
+            }
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.pwmgr.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Service
+public class VaultPrefetchService {
+
+    private static final Logger log = LoggerFactory.getLogger(VaultPrefetchService.class);
+
+    @Value("${app.prefetch.enabled:true}")
+    private boolean enabled;
+
+    private final PasswordEntryService passwordEntryService;
+
+    // Warm-ups are best effort: when logins outpace the pool, extra ones are
+    // dropped and those sessions just load on their first request.
+    private final ThreadPoolExecutor prefetchExecutor = new ThreadPoolExecutor(
+            2, 2, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(32), new ThreadPoolExecutor.DiscardPolicy());
+
+    public VaultPrefetchService(PasswordEntryService passwordEntryService) {
+        this.passwordEntryService = passwordEntryService;
+    }
+
+    public void prefetch(String sessionId, SecretKey key) {
+        if (!enabled || sessionId == null) {
+            return;
+        }
+        prefetchExecutor.execute(() -> {
+            try {
+                passwordEntryService.getAllEntries(key, sessionId);
+            } catch (Exception e) {
+                log.debug("Vault prefetch failed", e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package com.pwmgr.service;
+
+import com.pwmgr.model.VaultRevision;
+import com.pwmgr.repository.VaultRevisionRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Vault-wide revision counter behind the entry ETags. It lives in the
+ * database so every node hands out comparable ETags.
+ */
+@Service
+public class VaultRevisionService {
+
+    private final VaultRevisionRepository vaultRevisionRepository;
+
+    public VaultRevisionService(VaultRevisionRepository vaultRevisionRepository) {
+        this.vaultRevisionRepository = vaultRevisionRepository;
+    }
+
+    @PostConstruct
+    public void seed() {
+        if (vaultRevisionRepository.existsById(VaultRevision.SINGLETON_ID)) {
+            return;
+        }
+        try {
+            // Seeding from the clock keeps a rebuilt database from handing out
+            // revisions a client may still hold from the old one; the horizon
+            // expires any sync token issued before the seed.
+            long seed = System.currentTimeMillis();
+            VaultRevision revision = new VaultRevision(VaultRevision.SINGLETON_ID, seed);
+            revision.setSyncHorizon(seed);
+            vaultRevisionRepository.saveAndFlush(revision);
+        } catch (DataIntegrityViolationException e) {
+            // Another node seeded it first.
+        }
+    }
+
+    public long getRevision() {
+        return vaultRevisionRepository.findRevision(VaultRevision.SINGLETON_ID).orElse(0L);
+    }
+
+    /**
+     * Bumps the revision and returns the new value, which writers stamp on the
+     * rows they change. Inside a write transaction the bump commits or rolls
+     * back together with the change it stands for, and the row lock it takes
+     * is held until then, so revisions become visible in commit order; callers
+     * without one (such as a scheduled job) get a short transaction of its
+     * own, committed after their change.
+     */
+    public long increment() {
+        vaultRevisionRepository.increment(VaultRevision.SINGLETON_ID);
+        return getRevision();
+    }
+
+    /**
+     * Oldest revision a sync token may still carry. Tokens below it could have
+     * missed a delete whose tombstone has since been purged.
+     */
+    public long getSyncHorizon() {
+        return vaultRevisionRepository.findSyncHorizon(VaultRevision.SINGLETON_ID).orElse(0L);
+    }
+
+    public void raiseSyncHorizon(long revision) {
+        vaultRevisionRepository.raiseSyncHorizon(VaultRevision.SINGLETON_ID, revision);
+    }
+
+    public String getETag() {
+        return "\"" + getRevision() + "\"";
+    }
+
+    public boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,197 @@
+package com.pwmgr.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.ArchiveVerification;
+import com.pwmgr.dto.PasswordEntryResponse;
+import com.pwmgr.security.EncryptionService;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Layout: header (magic, version, KDF salt), then chunk records of
+ * {@code [int entryCount][int length][iv + AES-GCM ciphertext of gzip'd JSON lines]},
+ * closed by a record with {@code entryCount == 0}, then a SHA-256 of everything before it.
+ * The closing record's payload is a JSON object whose {@code skippedIds} lists entries that
+ * could not be decrypted for export, so a short archive says so instead of looking complete.
+ * Each chunk's AAD binds the header, the chunk index and the end-of-archive flag, so chunks
+ * can't be reordered or dropped; the trailing digest lets the archive be checked without the passphrase.
+ */
+public final class VaultArchive {
+
+    public static final String FILE_EXTENSION = ".pwmx";
+
+    private static final byte[] MAGIC = "PWMGRARC".getBytes(StandardCharsets.US_ASCII);
+    private static final int VERSION = 1;
+    private static final int DIGEST_LENGTH = 32;
+    private static final int MAX_RECORD_LENGTH = 64 * 1024 * 1024;
+
+    private VaultArchive() {}
+
+    public static class Writer {
+
+        private final OutputStream output;
+        private final MessageDigest digest;
+        private final DataOutputStream out;
+        private final SecretKey key;
+        private final EncryptionService encryptionService;
+        private final ObjectMapper objectMapper;
+        private final byte[] headerDigest;
+        private long chunkIndex;
+
+        public Writer(OutputStream output, String salt, SecretKey key,
+                      EncryptionService encryptionService, ObjectMapper objectMapper) throws IOException {
+            this.output = output;
+            this.digest = sha256();
+            this.out = new DataOutputStream(new DigestOutputStream(output, digest));
+            this.key = key;
+            this.encryptionService = encryptionService;
+            this.objectMapper = objectMapper;
+
+            byte[] header = header(Base64.getDecoder().decode(salt));
+            this.headerDigest = sha256().digest(header);
+            out.write(header);
+        }
+
+        public void writeChunk(List<PasswordEntryResponse> entries) throws Exception {
+            if (entries.isEmpty()) {
+                // An empty chunk would read as the end of the archive.
+                return;
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                for (PasswordEntryResponse entry : entries) {
+                    gzip.write(objectMapper.writeValueAsBytes(entry));
+                    gzip.write('\n');
+                }
+            }
+            writeRecord(entries.size(), buffer.toByteArray());
+        }
+
+        public void finish(Collection<Long> skippedIds) throws Exception {
+            writeRecord(0, objectMapper.writeValueAsBytes(Map.of("skippedIds", skippedIds)));
+            out.flush();
+            output.write(digest.digest());
+            output.flush();
+        }
+
+        private void writeRecord(int entryCount, byte[] plaintext) throws Exception {
+            byte[] sealed = encryptionService.encryptBytes(
+                    plaintext, aad(headerDigest, chunkIndex, entryCount == 0), key);
+            out.writeInt(entryCount);
+            out.writeInt(sealed.length);
+            out.write(sealed);
+            out.flush();
+            chunkIndex++;
+        }
+    }
+
+    public static ArchiveVerification verify(InputStream input) {
+        long chunks = 0;
+        long entries = 0;
+        try {
+            MessageDigest digest = sha256();
+            DigestInputStream digestInput = new DigestInputStream(input, digest);
+            DataInputStream in = new DataInputStream(digestInput);
+
+            readHeader(in);
+            while (true) {
+                int entryCount = in.readInt();
+                readRecordBody(in, entryCount);
+                chunks++;
+                entries += entryCount;
+                if (entryCount == 0) {
+                    break;
+                }
+            }
+
+            digestInput.on(false);
+            checkTrailer(in, digest.digest());
+            return new ArchiveVerification(true, chunks, entries, "Archive is intact");
+        } catch (EOFException e) {
+            return new ArchiveVerification(false, chunks, entries, "Archive is truncated");
+        } catch (IOException | IllegalArgumentException e) {
+            return new ArchiveVerification(false, chunks, entries, e.getMessage());
+        }
+    }
+
+    static byte[] header(byte[] salt) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(buffer);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeByte(salt.length);
+        out.write(salt);
+        return buffer.toByteArray();
+    }
+
+    static byte[] readHeader(DataInputStream in) throws IOException {
+        byte[] magic = new byte[MAGIC.length];
+        in.readFully(magic);
+        if (!Arrays.equals(magic, MAGIC)) {
+            throw new IllegalArgumentException("Not a vault archive");
+        }
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported archive version: " + version);
+        }
+        byte[] salt = new byte[in.readUnsignedByte()];
+        in.readFully(salt);
+        return salt;
+    }
+
+    static byte[] readRecordBody(DataInputStream in, int entryCount) throws IOException {
+        int length = in.readInt();
+        if (entryCount < 0 || length < 0 || length > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("Corrupt chunk header");
+        }
+        byte[] sealed = new byte[length];
+        in.readFully(sealed);
+        return sealed;
+    }
+
+    static void checkTrailer(DataInputStream in, byte[] expected) throws IOException {
+        byte[] trailer = new byte[DIGEST_LENGTH];
+        in.readFully(trailer);
+        if (!MessageDigest.isEqual(expected, trailer)) {
+            throw new IllegalArgumentException("Archive digest mismatch");
+        }
+        if (in.read() != -1) {
+            throw new IllegalArgumentException("Unexpected data after archive trailer");
+        }
+    }
+
+    static byte[] aad(byte[] headerDigest, long chunkIndex, boolean last) {
+        return ByteBuffer.allocate(headerDigest.length + Long.BYTES + 1)
+                .put(headerDigest)
+                .putLong(chunkIndex)
+                .put((byte) (last ? 1 : 0))
+                .array();
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
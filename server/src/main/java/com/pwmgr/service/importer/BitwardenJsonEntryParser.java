@@ -0,0 +1,58 @@
+package com.pwmgr.service.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.PasswordEntryRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public class BitwardenJsonEntryParser implements EntryParser {
+
+    private static final int LOGIN_ITEM_TYPE = 1;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public void parse(InputStream input, Consumer<PasswordEntryRequest> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Bitwarden export must be a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if ("encrypted".equals(field) && value == JsonToken.VALUE_TRUE) {
+                    throw new IllegalArgumentException("Encrypted Bitwarden exports are not supported");
+                } else if ("items".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        JsonNode item = objectMapper.readTree(parser);
+                        if (item.path("type").asInt() == LOGIN_ITEM_TYPE) {
+                            sink.accept(toRequest(item));
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private PasswordEntryRequest toRequest(JsonNode item) {
+        JsonNode login = item.path("login");
+        String siteName = item.path("name").asText(null);
+        if (siteName == null || siteName.isBlank()) {
+            siteName = login.path("uris").path(0).path("uri").asText(null);
+        }
+        return new PasswordEntryRequest(
+                siteName,
+                login.path("username").asText(null),
+                login.path("password").asText(null),
+                item.path("notes").asText(null));
+    }
+}
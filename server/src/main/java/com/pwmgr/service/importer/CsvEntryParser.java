@@ -0,0 +1,110 @@
+package com.pwmgr.service.importer;
+
+import com.pwmgr.dto.PasswordEntryRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+public class CsvEntryParser implements EntryParser {
+
+    private static final List<String> SITE_COLUMNS = List.of("name", "title", "url", "login_uri");
+    private static final List<String> USERNAME_COLUMNS = List.of("username", "login_username", "login", "user");
+    private static final List<String> PASSWORD_COLUMNS = List.of("password", "login_password");
+    private static final List<String> NOTES_COLUMNS = List.of("notes", "note", "extra", "comments");
+
+    @Override
+    public void parse(InputStream input, Consumer<PasswordEntryRequest> sink) throws IOException {
+        Reader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        List<String> header = readRecord(reader);
+        if (header == null) {
+            return;
+        }
+        for (int i = 0; i < header.size(); i++) {
+            header.set(i, header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT));
+        }
+
+        int siteColumn = findColumn(header, SITE_COLUMNS);
+        int usernameColumn = findColumn(header, USERNAME_COLUMNS);
+        int passwordColumn = findColumn(header, PASSWORD_COLUMNS);
+        int notesColumn = findColumn(header, NOTES_COLUMNS);
+        if (passwordColumn < 0) {
+            throw new IllegalArgumentException("CSV header has no password column");
+        }
+
+        List<String> record;
+        while ((record = readRecord(reader)) != null) {
+            sink.accept(new PasswordEntryRequest(
+                    field(record, siteColumn),
+                    field(record, usernameColumn),
+                    field(record, passwordColumn),
+                    field(record, notesColumn)));
+        }
+    }
+
+    private int findColumn(List<String> header, List<String> candidates) {
+        for (String candidate : candidates) {
+            int index = header.indexOf(candidate);
+            if (index >= 0) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private String field(List<String> record, int column) {
+        return column >= 0 && column < record.size() ? record.get(column) : null;
+    }
+
+    private List<String> readRecord(Reader reader) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawData = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            sawData = true;
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                fields.add(field.toString());
+                return fields;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+
+        if (!sawData) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
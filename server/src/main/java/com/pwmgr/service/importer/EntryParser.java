@@ -0,0 +1,11 @@
+package com.pwmgr.service.importer;
+
+import com.pwmgr.dto.PasswordEntryRequest;
+
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+public interface EntryParser {
+
+    void parse(InputStream input, Consumer<PasswordEntryRequest> sink) throws Exception;
+}
@@ -0,0 +1,29 @@
+package com.pwmgr.service.importer;
+
+import java.util.Locale;
+import java.util.function.Supplier;
+
+public enum ImportFormat {
+
+    CSV(CsvEntryParser::new),
+    BITWARDEN(BitwardenJsonEntryParser::new),
+    KEEPASS(KeePassXmlEntryParser::new);
+
+    private final Supplier<EntryParser> parserFactory;
+
+    ImportFormat(Supplier<EntryParser> parserFactory) {
+        this.parserFactory = parserFactory;
+    }
+
+    public EntryParser createParser() {
+        return parserFactory.get();
+    }
+
+    public static ImportFormat fromString(String value) {
+        try {
+            return ImportFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Unsupported import format: " + value);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.pwmgr.service.importer;
+
+import com.pwmgr.dto.PasswordEntryRequest;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+public class KeePassXmlEntryParser implements EntryParser {
+
+    @Override
+    public void parse(InputStream input, Consumer<PasswordEntryRequest> sink) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+
+        XMLStreamReader reader = factory.createXMLStreamReader(input);
+        try {
+            int historyDepth = 0;
+            Map<String, String> fields = null;
+            String key = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("History".equals(name)) {
+                        historyDepth++;
+                    } else if (historyDepth > 0) {
+                        continue;
+                    } else if ("Entry".equals(name)) {
+                        fields = new HashMap<>();
+                    } else if ("Key".equals(name) && fields != null) {
+                        key = reader.getElementText();
+                    } else if ("Value".equals(name) && fields != null && key != null) {
+                        fields.put(key, reader.getElementText());
+                        key = null;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    String name = reader.getLocalName();
+                    if ("History".equals(name)) {
+                        historyDepth--;
+                    } else if ("Entry".equals(name) && historyDepth == 0 && fields != null) {
+                        sink.accept(toRequest(fields));
+                        fields = null;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+    }
+
+    private PasswordEntryRequest toRequest(Map<String, String> fields) {
+        String siteName = fields.get("Title");
+        if (siteName == null || siteName.isBlank()) {
+            siteName = fields.get("URL");
+        }
+        return new PasswordEntryRequest(
+                siteName,
+                fields.get("UserName"),
+                fields.get("Password"),
+                fields.get("Notes"));
+    }
+}
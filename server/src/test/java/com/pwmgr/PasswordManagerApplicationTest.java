@@ -0,0 +1,26 @@
+package com.pwmgr;
+
+import com.pwmgr.security.ApiRateLimitFilter;
+import com.pwmgr.security.ConcurrencyLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:context-load;DB_CLOSE_DELAY=-1",
+        "app.backup.enabled=false"
+})
+class PasswordManagerApplicationTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Test
+    void contextLoads() {
+        assertNotNull(context.getBean(ApiRateLimitFilter.class));
+        assertNotNull(context.getBean(ConcurrencyLimitFilter.class));
+    }
+}
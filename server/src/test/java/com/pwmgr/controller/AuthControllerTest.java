@@ -2,7 +2,9 @@ package com.pwmgr.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pwmgr.dto.LoginRequest;
+import com.pwmgr.dto.QuickUnlockRequest;
 import com.pwmgr.dto.SetupRequest;
+import com.pwmgr.security.LoginChallengeService;
 import com.pwmgr.service.AuthService.RateLimitException;
 import com.pwmgr.service.AuthService;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,6 +17,8 @@ import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
 
+import javax.crypto.SecretKey;
+
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
@@ -36,6 +40,9 @@ class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private LoginChallengeService loginChallengeService;
+
     private MockHttpSession session;
 
     @BeforeEach
@@ -179,6 +186,50 @@ class AuthControllerTest {
                 .andExpect(jsonPath("$.message").value("Too many failed attempts. Try again in 15 minutes"));
     }
 
+    @Test
+    void login_underLoadWithoutSolution_returnsChallengeWithoutCheckingPassword() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setMasterPassword("AnyPassword");
+
+        when(loginChallengeService.requiredDifficulty(anyString())).thenReturn(16);
+        when(loginChallengeService.verify(null, null, 16)).thenReturn(false);
+        when(loginChallengeService.recordAttempt(anyString())).thenReturn(18);
+        when(loginChallengeService.issue(18)).thenReturn("18.1.nonce.sig");
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .session(session))
+                .andExpect(status().isPreconditionRequired())
+                .andExpect(jsonPath("$.success").value(false))
+                .andExpect(jsonPath("$.data.challenge").value("18.1.nonce.sig"))
+                .andExpect(jsonPath("$.data.difficulty").value(18));
+
+        verify(authService, never()).authenticate(anyString(), anyString(), any());
+    }
+
+    @Test
+    void login_underLoadWithValidSolution_authenticates() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setMasterPassword("CorrectPassword");
+        request.setChallenge("18.1.nonce.sig");
+        request.setChallengeSolution("abc");
+
+        when(loginChallengeService.requiredDifficulty(anyString())).thenReturn(18);
+        when(loginChallengeService.verify("18.1.nonce.sig", "abc", 18)).thenReturn(true);
+        when(authService.authenticate(eq("CorrectPassword"), anyString(), eq(session)))
+                .thenReturn(true);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true));
+
+        verify(loginChallengeService, never()).recordAttempt(anyString());
+    }
+
     @Test
     void login_extractsClientIdFromXForwardedForHeader() throws Exception {
         LoginRequest request = new LoginRequest();
@@ -197,6 +248,29 @@ class AuthControllerTest {
         verify(authService).authenticate(eq("TestPassword"), eq("10.0.0.1"), eq(session));
     }
 
+    @Test
+    void login_keysPuzzleOnRemoteAddrRatherThanXForwardedFor() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setMasterPassword("TestPassword");
+
+        when(authService.authenticate(anyString(), anyString(), eq(session)))
+                .thenReturn(true);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .session(session)
+                        .header("X-Forwarded-For", "10.0.0.1")
+                        .with(req -> {
+                            req.setRemoteAddr("203.0.113.9");
+                            return req;
+                        }))
+                .andExpect(status().isOk());
+
+        verify(loginChallengeService).requiredDifficulty("203.0.113.9");
+        verify(loginChallengeService).recordAttempt("203.0.113.9");
+    }
+
     @Test
     void login_whenNoXForwardedForHeader_usesRemoteAddr() throws Exception {
         LoginRequest request = new LoginRequest();
@@ -215,6 +289,105 @@ class AuthControllerTest {
         verify(authService).authenticate(eq("TestPassword"), anyString(), eq(session));
     }
 
+    @Test
+    void enableQuickUnlock_whenNotAuthenticated_returnsUnauthorized() throws Exception {
+        mockMvc.perform(post("/api/auth/quick-unlock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuickUnlockRequest("1234")))
+                        .session(session))
+                .andExpect(status().isUnauthorized());
+
+        verify(authService, never()).enableQuickUnlock(any(), anyString());
+    }
+
+    @Test
+    void enableQuickUnlock_withInvalidPin_returnsBadRequest() throws Exception {
+        when(authService.getSessionKey(session)).thenReturn(mock(SecretKey.class));
+        doThrow(new IllegalArgumentException("PIN must be 4 to 12 digits"))
+                .when(authService).enableQuickUnlock(session, "12ab");
+
+        mockMvc.perform(post("/api/auth/quick-unlock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuickUnlockRequest("12ab")))
+                        .session(session))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("PIN must be 4 to 12 digits"));
+    }
+
+    @Test
+    void unlock_withWrongPin_returnsRemainingAttempts() throws Exception {
+        when(authService.unlock(session, "0000")).thenReturn(false);
+        when(authService.getQuickUnlockRemainingAttempts(session)).thenReturn(2);
+
+        mockMvc.perform(post("/api/auth/unlock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuickUnlockRequest("0000")))
+                        .session(session))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Invalid PIN"))
+                .andExpect(jsonPath("$.data.remainingAttempts").value(2));
+    }
+
+    @Test
+    void unlock_withCorrectPin_returnsSuccess() throws Exception {
+        when(authService.unlock(session, "1234")).thenReturn(true);
+
+        mockMvc.perform(post("/api/auth/unlock")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuickUnlockRequest("1234")))
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.authenticated").value(true));
+    }
+
+    @Test
+    void lock_dropsSessionKey() throws Exception {
+        mockMvc.perform(post("/api/auth/lock").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Vault locked"));
+
+        verify(authService).lock(session);
+    }
+
+    @Test
+    void login_inStatelessMode_returnsToken() throws Exception {
+        LoginRequest request = new LoginRequest();
+        request.setMasterPassword("CorrectPassword");
+
+        when(authService.authenticate(eq("CorrectPassword"), anyString(), any())).thenReturn(true);
+        when(authService.issueToken(any())).thenReturn("sealed-token");
+        when(authService.getTokenTtlSeconds()).thenReturn(900L);
+
+        mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("sealed-token"))
+                .andExpect(jsonPath("$.data.expiresIn").value(900));
+    }
+
+    @Test
+    void refresh_inSessionMode_returnsBadRequest() throws Exception {
+        when(authService.getSessionKey(session)).thenReturn(mock(SecretKey.class));
+        when(authService.issueToken(session)).thenReturn(null);
+
+        mockMvc.perform(post("/api/auth/refresh").session(session))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void refresh_withValidToken_returnsNewToken() throws Exception {
+        when(authService.getSessionKey(session)).thenReturn(mock(SecretKey.class));
+        when(authService.issueToken(session)).thenReturn("fresh-token");
+        when(authService.getTokenTtlSeconds()).thenReturn(900L);
+
+        mockMvc.perform(post("/api/auth/refresh").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.token").value("fresh-token"))
+                .andExpect(jsonPath("$.data.expiresIn").value(900));
+    }
+
     @Test
     void logout_invalidatesSession() throws Exception {
         doNothing().when(authService).logout(session);
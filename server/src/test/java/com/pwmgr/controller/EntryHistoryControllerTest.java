@@ -0,0 +1,87 @@
+package com.pwmgr.controller;
+
+import com.pwmgr.dto.EntryVersionResponse;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.EntryHistoryService;
+import com.pwmgr.service.PasswordEntryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(EntryHistoryController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class EntryHistoryControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EntryHistoryService entryHistoryService;
+
+    @MockBean
+    private AuthService authService;
+
+    private MockHttpSession session;
+    private SecretKey mockKey;
+
+    @BeforeEach
+    void setUp() {
+        session = new MockHttpSession();
+        mockKey = mock(SecretKey.class);
+        when(authService.getSessionKey(session)).thenReturn(mockKey);
+    }
+
+    @Test
+    void getHistory_returnsVersions() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        when(entryHistoryService.getHistory(1L, mockKey)).thenReturn(List.of(
+                new EntryVersionResponse(7L, 1L, "github.com", "user", "oldPassword", null, now, now)));
+
+        mockMvc.perform(get("/api/entries/1/history").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(7))
+                .andExpect(jsonPath("$.data[0].password").value("oldPassword"));
+    }
+
+    @Test
+    void getHistory_unknownEntry_returnsNotFound() throws Exception {
+        when(entryHistoryService.getHistory(9L, mockKey))
+                .thenThrow(new PasswordEntryService.EntryNotFoundException("Password entry not found"));
+
+        mockMvc.perform(get("/api/entries/9/history").session(session))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void checkReuse_returnsMatchingEntryIds() throws Exception {
+        when(entryHistoryService.findEntriesPreviouslyUsing("reused", mockKey)).thenReturn(List.of(1L, 3L));
+
+        mockMvc.perform(post("/api/entries/history/reuse")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"reused\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0]").value(1))
+                .andExpect(jsonPath("$.data[1]").value(3));
+    }
+
+    @Test
+    void getHistory_withoutSession_returnsUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/entries/1/history"))
+                .andExpect(status().isUnauthorized());
+    }
+}
@@ -0,0 +1,113 @@
+package com.pwmgr.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.ArchiveVerification;
+import com.pwmgr.dto.ExportRequest;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.crypto.SecretKey;
+import java.io.OutputStream;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockBean
+    private ExportService exportService;
+
+    @MockBean
+    private AuthService authService;
+
+    private MockHttpSession session;
+    private SecretKey mockKey;
+
+    @BeforeEach
+    void setUp() {
+        session = new MockHttpSession();
+        mockKey = mock(SecretKey.class);
+        when(authService.getSessionKey(session)).thenReturn(mockKey);
+        when(authService.isAuthenticated(session)).thenReturn(true);
+    }
+
+    @Test
+    void exportVault_streamsArchive() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(0);
+            output.write(new byte[]{1, 2, 3});
+            return null;
+        }).when(exportService).exportArchive(any(), eq("long-passphrase"), eq(mockKey));
+
+        MvcResult result = mockMvc.perform(post("/api/entries/export")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExportRequest("long-passphrase"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Disposition",
+                        startsWith("attachment; filename=\"pwmgr-")))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void exportVault_withShortPassphrase_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/entries/export")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExportRequest("short"))))
+                .andExpect(status().isBadRequest());
+
+        verify(exportService, never()).exportArchive(any(), any(), any());
+    }
+
+    @Test
+    void exportVault_whenNotAuthenticated_returnsUnauthorized() throws Exception {
+        when(authService.getSessionKey(session)).thenReturn(null);
+
+        mockMvc.perform(post("/api/entries/export")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ExportRequest("long-passphrase"))))
+                .andExpect(status().isUnauthorized())
+                .andExpect(jsonPath("$.message").value("Not authenticated"));
+    }
+
+    @Test
+    void verifyArchive_returnsVerificationResult() throws Exception {
+        when(exportService.verifyArchive(any()))
+                .thenReturn(new ArchiveVerification(true, 3, 250, "Archive is intact"));
+
+        mockMvc.perform(post("/api/entries/export/verify")
+                        .session(session)
+                        .content(new byte[]{0}))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.valid").value(true))
+                .andExpect(jsonPath("$.data.entries").value(250));
+    }
+}
@@ -0,0 +1,111 @@
+package com.pwmgr.controller;
+
+import com.pwmgr.dto.ImportProgress;
+import com.pwmgr.service.AuthService;
+import com.pwmgr.service.ImportService;
+import com.pwmgr.service.importer.ImportFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.SecretKey;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ImportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ImportService importService;
+
+    @MockBean
+    private AuthService authService;
+
+    private MockHttpSession session;
+    private SecretKey mockKey;
+
+    @BeforeEach
+    void setUp() {
+        session = new MockHttpSession();
+        mockKey = mock(SecretKey.class);
+        when(authService.getSessionKey(session)).thenReturn(mockKey);
+        when(authService.isAuthenticated(session)).thenReturn(true);
+    }
+
+    @Test
+    void importEntries_withCsv_returnsSummary() throws Exception {
+        doAnswer(invocation -> {
+            ImportProgress progress = invocation.getArgument(3);
+            progress.incrementParsed();
+            progress.addImported(1);
+            return null;
+        }).when(importService).importEntries(any(), eq(ImportFormat.CSV), eq(mockKey), any());
+
+        mockMvc.perform(post("/api/entries/import")
+                        .session(session)
+                        .param("format", "csv")
+                        .content("name,username,password\nsite.com,user,pw\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.data.format").value("CSV"))
+                .andExpect(jsonPath("$.data.imported").value(1));
+    }
+
+    @Test
+    void importEntries_withUnknownFormat_returnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/entries/import")
+                        .session(session)
+                        .param("format", "lastpass-binary")
+                        .content("data"))
+                .andExpect(status().isBadRequest());
+
+        verify(importService, never()).importEntries(any(), any(), any(), any());
+    }
+
+    @Test
+    void importEntries_whenNotAuthenticated_returnsUnauthorized() throws Exception {
+        when(authService.getSessionKey(session)).thenReturn(null);
+
+        mockMvc.perform(post("/api/entries/import")
+                        .session(session)
+                        .param("format", "csv")
+                        .content("data"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void importEntries_whileImportRunning_returnsConflict() throws Exception {
+        session.setAttribute("importProgress", new ImportProgress("CSV"));
+
+        mockMvc.perform(post("/api/entries/import")
+                        .session(session)
+                        .param("format", "csv")
+                        .content("data"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void getProgress_returnsSessionProgress() throws Exception {
+        ImportProgress progress = new ImportProgress("KEEPASS");
+        progress.incrementParsed();
+        session.setAttribute("importProgress", progress);
+
+        mockMvc.perform(get("/api/entries/import/progress").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.parsed").value(1))
+                .andExpect(jsonPath("$.data.completed").value(false));
+    }
+}
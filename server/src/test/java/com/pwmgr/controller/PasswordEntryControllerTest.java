@@ -1,17 +1,26 @@
 package com.pwmgr.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.BatchOperation;
+import com.pwmgr.dto.BatchRequest;
+import com.pwmgr.dto.BatchResponse;
+import com.pwmgr.dto.EntryChangesResponse;
 import com.pwmgr.dto.PasswordEntryRequest;
 import com.pwmgr.dto.PasswordEntryResponse;
+import com.pwmgr.model.UuidV7;
 import com.pwmgr.service.PasswordEntryService.EntryNotFoundException;
+import com.pwmgr.service.PasswordEntryService.SyncTokenExpiredException;
 import com.pwmgr.service.AuthService;
+import com.pwmgr.service.IdempotencyService;
 import com.pwmgr.service.PasswordEntryService;
+import com.pwmgr.service.VaultRevisionService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.test.web.servlet.MockMvc;
@@ -23,6 +32,7 @@ import java.util.Collections;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -31,6 +41,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(PasswordEntryController.class)
 @AutoConfigureMockMvc(addFilters = false)
+@Import(IdempotencyService.class)
 class PasswordEntryControllerTest {
 
     @Autowired
@@ -45,6 +56,9 @@ class PasswordEntryControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private VaultRevisionService vaultRevisionService;
+
     private MockHttpSession session;
     private SecretKey mockKey;
     private PasswordEntryResponse sampleEntry;
@@ -64,12 +78,13 @@ class PasswordEntryControllerTest {
         sampleEntry.setUpdatedAt(LocalDateTime.now());
 
         when(authService.getSessionKey(session)).thenReturn(mockKey);
+        when(vaultRevisionService.getETag()).thenReturn("\"1-3\"");
     }
 
     @Test
     void getAllEntries_whenAuthenticated_returnsAllEntries() throws Exception {
         List<PasswordEntryResponse> entries = Arrays.asList(sampleEntry);
-        when(entryService.getAllEntries(mockKey)).thenReturn(entries);
+        when(entryService.getAllEntries(mockKey, session.getId())).thenReturn(entries);
 
         mockMvc.perform(get("/api/entries").session(session))
                 .andExpect(status().isOk())
@@ -79,7 +94,7 @@ class PasswordEntryControllerTest {
                 .andExpect(jsonPath("$.data[0].username").value("testuser"))
                 .andExpect(jsonPath("$.data[0].password").value("decryptedPassword"));
 
-        verify(entryService).getAllEntries(mockKey);
+        verify(entryService).getAllEntries(mockKey, session.getId());
     }
 
     @Test
@@ -91,7 +106,41 @@ class PasswordEntryControllerTest {
                 .andExpect(jsonPath("$.success").value(false))
                 .andExpect(jsonPath("$.message").value("Not authenticated"));
 
-        verify(entryService, never()).getAllEntries(any());
+        verify(entryService, never()).getAllEntries(any(), any());
+    }
+
+    @Test
+    void getAllEntries_returnsETagHeader() throws Exception {
+        when(entryService.getAllEntries(mockKey, session.getId())).thenReturn(Arrays.asList(sampleEntry));
+
+        mockMvc.perform(get("/api/entries").session(session))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3\""))
+                .andExpect(header().string("Cache-Control", "no-store"));
+    }
+
+    @Test
+    void getAllEntries_withMatchingIfNoneMatch_returnsNotModified() throws Exception {
+        when(vaultRevisionService.matches("\"1-3\"", "\"1-3\"")).thenReturn(true);
+
+        mockMvc.perform(get("/api/entries")
+                        .session(session)
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3\""));
+
+        verify(entryService, never()).getAllEntries(any(), any());
+    }
+
+    @Test
+    void getAllEntries_withMatchingIfNoneMatch_whenNotAuthenticated_returnsUnauthorized() throws Exception {
+        when(authService.getSessionKey(session)).thenReturn(null);
+        when(vaultRevisionService.matches("\"1-3\"", "\"1-3\"")).thenReturn(true);
+
+        mockMvc.perform(get("/api/entries")
+                        .session(session)
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isUnauthorized());
     }
 
     @Test
@@ -107,6 +156,18 @@ class PasswordEntryControllerTest {
         verify(entryService).getEntry(1L, mockKey);
     }
 
+    @Test
+    void getEntry_withMatchingIfNoneMatch_returnsNotModified() throws Exception {
+        when(vaultRevisionService.matches("\"1-3\"", "\"1-3\"")).thenReturn(true);
+
+        mockMvc.perform(get("/api/entries/1")
+                        .session(session)
+                        .header("If-None-Match", "\"1-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(entryService, never()).getEntry(any(), any());
+    }
+
     @Test
     void getEntry_withInvalidId_returnsNotFound() throws Exception {
         when(entryService.getEntry(999L, mockKey))
@@ -141,6 +202,23 @@ class PasswordEntryControllerTest {
         verify(entryService).createEntry(any(PasswordEntryRequest.class), eq(mockKey));
     }
 
+    @Test
+    void createEntry_withTakenUuid_returnsConflict() throws Exception {
+        PasswordEntryRequest request = new PasswordEntryRequest("example.com", "user", "pass", null);
+        request.setUuid(UuidV7.generate());
+
+        when(entryService.createEntry(any(PasswordEntryRequest.class), eq(mockKey)))
+                .thenThrow(new PasswordEntryService.DuplicateEntryException("Entry uuid already exists"));
+
+        mockMvc.perform(post("/api/entries")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request))
+                        .with(csrf()))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
     @Test
     void createEntry_withMissingRequiredFields_returnsBadRequest() throws Exception {
         PasswordEntryRequest request = new PasswordEntryRequest();
@@ -198,6 +276,90 @@ class PasswordEntryControllerTest {
                 .andExpect(jsonPath("$.success").value(false));
     }
 
+    @Test
+    void createEntry_retriedWithIdempotencyKey_writesOnce() throws Exception {
+        PasswordEntryRequest request = new PasswordEntryRequest("github.com", "testuser", "password123", null);
+        when(entryService.createEntry(any(PasswordEntryRequest.class), eq(mockKey))).thenReturn(sampleEntry);
+
+        for (int attempt = 0; attempt < 2; attempt++) {
+            mockMvc.perform(post("/api/entries")
+                            .session(session)
+                            .with(csrf())
+                            .header("Idempotency-Key", "create-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.data.id").value(1));
+        }
+
+        verify(entryService, times(1)).createEntry(any(PasswordEntryRequest.class), eq(mockKey));
+    }
+
+    @Test
+    void createEntry_idempotencyKeyReusedWithDifferentBody_returnsUnprocessableEntity() throws Exception {
+        when(entryService.createEntry(any(PasswordEntryRequest.class), eq(mockKey))).thenReturn(sampleEntry);
+
+        mockMvc.perform(post("/api/entries")
+                        .session(session)
+                        .with(csrf())
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new PasswordEntryRequest("github.com", "testuser", "password123", null))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/entries")
+                        .session(session)
+                        .with(csrf())
+                        .header("Idempotency-Key", "create-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new PasswordEntryRequest("gitlab.com", "testuser", "password123", null))))
+                .andExpect(status().isUnprocessableEntity());
+
+        verify(entryService, times(1)).createEntry(any(PasswordEntryRequest.class), eq(mockKey));
+    }
+
+    @Test
+    void patchEntry_withPartialBody_returnsOk() throws Exception {
+        mockMvc.perform(patch("/api/entries/1")
+                        .session(session)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"siteName\":\"renamed.com\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Entry updated"));
+
+        verify(entryService).patchEntry(eq(1L),
+                argThat(patch -> "renamed.com".equals(patch.getSiteName()) && patch.getPassword() == null),
+                eq(mockKey));
+    }
+
+    @Test
+    void patchEntry_withBlankPassword_returnsBadRequest() throws Exception {
+        mockMvc.perform(patch("/api/entries/1")
+                        .session(session)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"password\":\"  \"}"))
+                .andExpect(status().isBadRequest());
+
+        verify(entryService, never()).patchEntry(anyLong(), any(), any());
+    }
+
+    @Test
+    void patchEntry_withUnknownId_returnsNotFound() throws Exception {
+        doThrow(new EntryNotFoundException("Password entry not found"))
+                .when(entryService).patchEntry(eq(999L), any(), eq(mockKey));
+
+        mockMvc.perform(patch("/api/entries/999")
+                        .session(session)
+                        .with(csrf())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"renamed\"}"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void deleteEntry_withValidId_deletesEntry() throws Exception {
         doNothing().when(entryService).deleteEntry(1L);
@@ -220,10 +382,38 @@ class PasswordEntryControllerTest {
                 .andExpect(jsonPath("$.success").value(false));
     }
 
+    @Test
+    void getTrash_returnsTrashedEntries() throws Exception {
+        when(entryService.getTrash(mockKey)).thenReturn(Arrays.asList(sampleEntry));
+
+        mockMvc.perform(get("/api/entries/trash").session(session))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Trash retrieved"))
+                .andExpect(jsonPath("$.data[0].id").value(1));
+    }
+
+    @Test
+    void restoreEntry_returnsRestoredEntry() throws Exception {
+        when(entryService.restoreEntry(1L, mockKey)).thenReturn(sampleEntry);
+
+        mockMvc.perform(post("/api/entries/1/restore").session(session).with(csrf()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.message").value("Entry restored"));
+    }
+
+    @Test
+    void restoreEntry_notInTrash_returnsNotFound() throws Exception {
+        when(entryService.restoreEntry(999L, mockKey))
+                .thenThrow(new EntryNotFoundException("Password entry not found in trash"));
+
+        mockMvc.perform(post("/api/entries/999/restore").session(session).with(csrf()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void searchEntries_withQuery_returnsMatchingEntries() throws Exception {
         List<PasswordEntryResponse> results = Arrays.asList(sampleEntry);
-        when(entryService.searchEntries("github", mockKey)).thenReturn(results);
+        when(entryService.searchEntries("github", mockKey, session.getId())).thenReturn(results);
 
         mockMvc.perform(get("/api/entries/search")
                         .session(session)
@@ -232,12 +422,12 @@ class PasswordEntryControllerTest {
                 .andExpect(jsonPath("$.success").value(true))
                 .andExpect(jsonPath("$.data[0].siteName").value("github.com"));
 
-        verify(entryService).searchEntries("github", mockKey);
+        verify(entryService).searchEntries("github", mockKey, session.getId());
     }
 
     @Test
     void searchEntries_withEmptyResults_returnsEmptyArray() throws Exception {
-        when(entryService.searchEntries("nonexistent", mockKey))
+        when(entryService.searchEntries("nonexistent", mockKey, session.getId()))
                 .thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/entries/search")
@@ -248,4 +438,96 @@ class PasswordEntryControllerTest {
                 .andExpect(jsonPath("$.data").isArray())
                 .andExpect(jsonPath("$.data").isEmpty());
     }
+
+    @Test
+    void getChanges_withToken_returnsChangesAndTombstones() throws Exception {
+        EntryChangesResponse changes = new EntryChangesResponse(
+                Arrays.asList(sampleEntry), Arrays.asList(5L), "1700000000000");
+        when(entryService.getChanges("1690000000000", mockKey)).thenReturn(changes);
+
+        mockMvc.perform(get("/api/entries/changes")
+                        .session(session)
+                        .param("since", "1690000000000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.entries[0].siteName").value("github.com"))
+                .andExpect(jsonPath("$.data.deletedIds[0]").value(5))
+                .andExpect(jsonPath("$.data.token").value("1700000000000"));
+    }
+
+    @Test
+    void getChanges_withExpiredToken_returnsGone() throws Exception {
+        when(entryService.getChanges("1", mockKey))
+                .thenThrow(new SyncTokenExpiredException("Sync token expired, a full reload is required"));
+
+        mockMvc.perform(get("/api/entries/changes")
+                        .session(session)
+                        .param("since", "1"))
+                .andExpect(status().isGone())
+                .andExpect(jsonPath("$.success").value(false));
+    }
+
+    @Test
+    void getChanges_withMalformedToken_returnsBadRequest() throws Exception {
+        when(entryService.getChanges("abc", mockKey))
+                .thenThrow(new IllegalArgumentException("Invalid sync token"));
+
+        mockMvc.perform(get("/api/entries/changes")
+                        .session(session)
+                        .param("since", "abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid sync token"));
+    }
+
+    @Test
+    void applyBatch_withValidOperations_returnsResult() throws Exception {
+        BatchRequest request = new BatchRequest(Arrays.asList(
+                new BatchOperation(BatchOperation.Type.CREATE, null,
+                        new PasswordEntryRequest("example.com", "user", "pass", null)),
+                new BatchOperation(BatchOperation.Type.DELETE, 3L, null)
+        ));
+        BatchResponse result = new BatchResponse(
+                Arrays.asList(sampleEntry), Collections.emptyList(), Arrays.asList(3L));
+
+        when(entryService.applyBatch(anyList(), eq(mockKey))).thenReturn(result);
+
+        mockMvc.perform(post("/api/entries/batch")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.created[0].id").value(1))
+                .andExpect(jsonPath("$.data.deletedIds[0]").value(3));
+    }
+
+    @Test
+    void applyBatch_withInvalidEntry_returnsBadRequest() throws Exception {
+        BatchRequest request = new BatchRequest(Arrays.asList(
+                new BatchOperation(BatchOperation.Type.CREATE, null,
+                        new PasswordEntryRequest("", "user", "pass", null))
+        ));
+
+        mockMvc.perform(post("/api/entries/batch")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isBadRequest());
+
+        verify(entryService, never()).applyBatch(any(), any());
+    }
+
+    @Test
+    void applyBatch_withUnknownId_returnsNotFound() throws Exception {
+        BatchRequest request = new BatchRequest(Arrays.asList(
+                new BatchOperation(BatchOperation.Type.DELETE, 999L, null)
+        ));
+
+        when(entryService.applyBatch(anyList(), eq(mockKey)))
+                .thenThrow(new EntryNotFoundException("Password entry not found"));
+
+        mockMvc.perform(post("/api/entries/batch")
+                        .session(session)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isNotFound());
+    }
 }
@@ -0,0 +1,42 @@
+package com.pwmgr.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UuidV7Test {
+
+    @Test
+    void generate_producesVersion7WithRfcVariant() {
+        UUID uuid = UuidV7.generate();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(UuidV7.isValid(uuid));
+    }
+
+    @Test
+    void fromEpochMillis_embedsTimestamp() {
+        long millis = 1_760_000_000_000L;
+
+        UUID uuid = UuidV7.fromEpochMillis(millis);
+
+        assertEquals(millis, UuidV7.epochMillis(uuid));
+    }
+
+    @Test
+    void fromEpochMillis_sortsByTime() {
+        UUID earlier = UuidV7.fromEpochMillis(1_760_000_000_000L);
+        UUID later = UuidV7.fromEpochMillis(1_760_000_000_001L);
+
+        assertTrue(earlier.toString().compareTo(later.toString()) < 0);
+    }
+
+    @Test
+    void isValid_rejectsOtherVersions() {
+        assertFalse(UuidV7.isValid(UUID.randomUUID()));
+        assertFalse(UuidV7.isValid(null));
+    }
+}
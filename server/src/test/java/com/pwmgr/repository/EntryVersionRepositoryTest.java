@@ -0,0 +1,49 @@
+package com.pwmgr.repository;
+
+import com.pwmgr.model.EntryVersion;
+import com.pwmgr.model.PasswordEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class EntryVersionRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntryVersionRepository repository;
+
+    @Test
+    void findKeysByEntryIdInNewestFirst_groupsByEntryNewestFirst() {
+        EntryVersion firstOfOne = persistVersion(1L);
+        EntryVersion firstOfTwo = persistVersion(2L);
+        EntryVersion secondOfOne = persistVersion(1L);
+        persistVersion(3L);
+
+        List<EntryVersionRepository.VersionKey> keys = repository.findKeysByEntryIdInNewestFirst(List.of(1L, 2L));
+
+        assertEquals(List.of(secondOfOne.getId(), firstOfOne.getId(), firstOfTwo.getId()),
+                keys.stream().map(EntryVersionRepository.VersionKey::getId).toList());
+        assertEquals(List.of(1L, 1L, 2L),
+                keys.stream().map(EntryVersionRepository.VersionKey::getEntryId).toList());
+    }
+
+    private EntryVersion persistVersion(Long entryId) {
+        PasswordEntry entry = new PasswordEntry();
+        entry.setId(entryId);
+        entry.setSiteName("site" + entryId + ".com");
+        entry.setUsername("user");
+        entry.setEncryptedPassword("encrypted");
+        entry.setIv("iv");
+        EntryVersion version = entityManager.persist(new EntryVersion(entry, null));
+        entityManager.flush();
+        return version;
+    }
+}
@@ -5,8 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -84,7 +88,7 @@ class PasswordEntryRepositoryTest {
     }
 
     @Test
-    void findAllByOrderBySiteNameAsc_sortsByName() {
+    void findByDeletedAtIsNullOrderBySiteNameAsc_sortsByName() {
         PasswordEntry entry1 = createEntry("zebra.com", "user1", "pass1", "iv1");
         PasswordEntry entry2 = createEntry("apple.com", "user2", "pass2", "iv2");
         PasswordEntry entry3 = createEntry("middle.com", "user3", "pass3", "iv3");
@@ -94,7 +98,7 @@ class PasswordEntryRepositoryTest {
         entityManager.persist(entry3);
         entityManager.flush();
 
-        List<PasswordEntry> results = repository.findAllByOrderBySiteNameAsc();
+        List<PasswordEntry> results = repository.findByDeletedAtIsNullOrderBySiteNameAsc();
 
         assertEquals(3, results.size());
         assertEquals("apple.com", results.get(0).getSiteName());
@@ -102,6 +106,91 @@ class PasswordEntryRepositoryTest {
         assertEquals("zebra.com", results.get(2).getSiteName());
     }
 
+    @Test
+    void moveToTrash_hidesEntryFromListAndSearch() {
+        PasswordEntry kept = createEntry("github.com", "user1", "pass1", "iv1");
+        PasswordEntry trashed = createEntry("gitlab.com", "user2", "pass2", "iv2");
+        entityManager.persist(kept);
+        entityManager.persist(trashed);
+        entityManager.flush();
+
+        int moved = repository.moveToTrash(List.of(trashed.getId()), LocalDateTime.now(), 7L);
+
+        assertEquals(1, moved);
+        assertEquals(7L, repository.findById(trashed.getId()).orElseThrow().getRevision());
+        assertEquals(List.of("github.com"), repository.findByDeletedAtIsNullOrderBySiteNameAsc().stream()
+                .map(PasswordEntry::getSiteName).toList());
+        assertEquals(1, repository.searchByQuery("git").size());
+        assertEquals(1, repository.findByDeletedAtIsNotNullOrderByDeletedAtDesc().size());
+        assertEquals(0, repository.moveToTrash(List.of(trashed.getId()), LocalDateTime.now(), 8L));
+    }
+
+    @Test
+    void restoreFromTrash_andFindIdsTrashedBefore() {
+        PasswordEntry entry = createEntry("github.com", "user", "pass", "iv");
+        entityManager.persist(entry);
+        entityManager.flush();
+        repository.moveToTrash(List.of(entry.getId()), LocalDateTime.now().minusDays(40), 1L);
+
+        assertEquals(List.of(entry.getId()), repository.findIdsTrashedBefore(
+                LocalDateTime.now().minusDays(30), PageRequest.of(0, 10)));
+
+        assertEquals(1, repository.restoreFromTrash(entry.getId(), LocalDateTime.now(), 2L));
+        assertEquals(1, repository.findByDeletedAtIsNullOrderBySiteNameAsc().size());
+        assertEquals(0, repository.restoreFromTrash(entry.getId(), LocalDateTime.now(), 3L));
+    }
+
+    @Test
+    void findByRevisionGreaterThan_returnsOnlyLiveRowsStampedAfterIt() {
+        PasswordEntry old = createEntry("old.com", "user", "pass", "iv");
+        old.setRevision(10L);
+        PasswordEntry changed = createEntry("new.com", "user", "pass", "iv");
+        changed.setRevision(11L);
+        PasswordEntry trashed = createEntry("gone.com", "user", "pass", "iv");
+        trashed.setRevision(12L);
+        trashed.setDeletedAt(LocalDateTime.now());
+        entityManager.persist(old);
+        entityManager.persist(changed);
+        entityManager.persist(trashed);
+        entityManager.flush();
+
+        assertEquals(List.of("new.com"), repository.findByDeletedAtIsNullAndRevisionGreaterThanOrderBySiteNameAsc(10L)
+                .stream().map(PasswordEntry::getSiteName).toList());
+    }
+
+    @Test
+    void updateFields_changesOnlyGivenColumns() {
+        PasswordEntry entry = createEntry("github.com", "user", "pass", "iv");
+        entry.setEncryptedNotes("notes");
+        entry.setNotesIv("notesIv");
+        entityManager.persist(entry);
+        entityManager.flush();
+
+        Map<String, Object> changes = new HashMap<>();
+        changes.put("siteName", "github.io");
+        changes.put("encryptedNotes", null);
+        changes.put("notesIv", null);
+        int updated = repository.updateFields(entry.getId(), changes);
+        entityManager.clear();
+
+        PasswordEntry reloaded = repository.findById(entry.getId()).orElseThrow();
+        assertEquals(1, updated);
+        assertEquals("github.io", reloaded.getSiteName());
+        assertEquals("pass", reloaded.getEncryptedPassword());
+        assertNull(reloaded.getEncryptedNotes());
+        assertNull(reloaded.getNotesIv());
+    }
+
+    @Test
+    void updateFields_skipsTrashedEntries() {
+        PasswordEntry entry = createEntry("github.com", "user", "pass", "iv");
+        entityManager.persist(entry);
+        entityManager.flush();
+        repository.moveToTrash(List.of(entry.getId()), LocalDateTime.now(), 1L);
+
+        assertEquals(0, repository.updateFields(entry.getId(), Map.of("siteName", "github.io")));
+    }
+
     @Test
     void save_setsCreatedAtAndUpdatedAt() {
         PasswordEntry entry = createEntry("test.com", "user", "pass", "iv");
@@ -0,0 +1,89 @@
+package com.pwmgr.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void tryAcquire_rejectsOnceLimitIsReached() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.releaseWithoutSample();
+
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+    }
+
+    @Test
+    void limit_growsWhileLatencyStaysFlatUnderLoad() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 200; i++) {
+            saturateAndRelease(limiter, FAST);
+        }
+
+        assertTrue(limiter.getLimit() > 10);
+    }
+
+    @Test
+    void limit_doesNotGrowWhenMostlyIdle() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100);
+
+        for (int i = 0; i < 200; i++) {
+            assertTrue(limiter.tryAcquire());
+            limiter.release(FAST);
+        }
+
+        assertEquals(10, limiter.getLimit());
+    }
+
+    @Test
+    void limit_shrinksWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100);
+        for (int i = 0; i < 50; i++) {
+            saturateAndRelease(limiter, FAST);
+        }
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 20; i++) {
+            saturateAndRelease(limiter, SLOW);
+        }
+
+        assertTrue(limiter.getLimit() < before);
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    @Test
+    void limit_staysWithinBounds() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(500, 5, 8);
+        assertEquals(8, limiter.getLimit());
+
+        for (int i = 0; i < 100; i++) {
+            saturateAndRelease(limiter, i < 10 ? FAST : SLOW * (i + 1));
+        }
+
+        assertEquals(5, limiter.getLimit());
+    }
+
+    private void saturateAndRelease(AdaptiveConcurrencyLimiter limiter, long rttNanos) {
+        int acquired = 0;
+        while (limiter.tryAcquire()) {
+            acquired++;
+        }
+        limiter.release(rttNanos);
+        for (int i = 1; i < acquired; i++) {
+            limiter.releaseWithoutSample();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.pwmgr.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ApiRateLimitFilterTest {
+
+    private AtomicLong clock;
+    private ApiRateLimitFilter filter;
+    private MockHttpSession session;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        filter = new ApiRateLimitFilter(new ObjectMapper(), clock::get);
+        ReflectionTestUtils.setField(filter, "capacity", 20L);
+        ReflectionTestUtils.setField(filter, "refillPerSecond", 5L);
+        session = new MockHttpSession();
+    }
+
+    @Test
+    void listRequests_costMoreThanSingleEntryReads() throws Exception {
+        assertEquals(200, perform("GET", "/api/entries").getStatus());
+        assertEquals(200, perform("GET", "/api/entries").getStatus());
+
+        MockHttpServletResponse throttled = perform("GET", "/api/entries");
+
+        assertEquals(429, throttled.getStatus());
+        assertEquals("2", throttled.getHeader("Retry-After"));
+        assertTrue(throttled.getContentAsString().contains("\"success\":false"));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/api/entries/7").getStatus());
+        }
+        assertEquals(429, perform("GET", "/api/entries/7").getStatus());
+    }
+
+    @Test
+    void tokens_refillOverTime() throws Exception {
+        perform("GET", "/api/entries");
+        perform("GET", "/api/entries");
+        assertEquals(429, perform("GET", "/api/entries").getStatus());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(200, perform("GET", "/api/entries").getStatus());
+    }
+
+    @Test
+    void sessions_haveIndependentBuckets() throws Exception {
+        perform("GET", "/api/entries");
+        perform("GET", "/api/entries");
+        assertEquals(429, perform("GET", "/api/entries").getStatus());
+
+        session = new MockHttpSession();
+
+        assertEquals(200, perform("GET", "/api/entries").getStatus());
+    }
+
+    @Test
+    void writesAndAuth_areNotThrottled() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            assertEquals(200, perform("POST", "/api/entries").getStatus());
+            assertEquals(200, perform("POST", "/api/auth/login").getStatus());
+        }
+    }
+
+    @Test
+    void statelessMode_sharesOneBucketPerTokenSession() throws Exception {
+        MockServletContext servletContext = new MockServletContext();
+
+        // Every request rebuilds its own session object from the token.
+        assertEquals(200, perform("GET", "/api/entries", new TokenSession("token-1", servletContext, false)).getStatus());
+        assertEquals(200, perform("GET", "/api/entries", new TokenSession("token-1", servletContext, false)).getStatus());
+        assertEquals(429, perform("GET", "/api/entries", new TokenSession("token-1", servletContext, false)).getStatus());
+
+        assertEquals(200, perform("GET", "/api/entries", new TokenSession("token-2", servletContext, false)).getStatus());
+    }
+
+    @Test
+    void generate_isThrottledOnItsOwnBucket() throws Exception {
+        perform("GET", "/api/entries");
+        perform("GET", "/api/entries");
+
+        assertEquals(200, perform("GET", "/api/generate").getStatus());
+    }
+
+    @Test
+    void evictIdle_dropsRefilledBuckets() throws Exception {
+        perform("GET", "/api/entries");
+        assertEquals(1, filter.bucketCount());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        filter.evictIdle();
+
+        assertEquals(0, filter.bucketCount());
+    }
+
+    @Test
+    void buckets_areCappedAndDropLeastRecentlyUsedFirst() throws Exception {
+        ReflectionTestUtils.setField(filter, "maxBuckets", 3);
+        MockHttpSession first = session;
+        perform("GET", "/api/entries");
+        perform("GET", "/api/entries");
+
+        for (int i = 0; i < 10; i++) {
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+            session = new MockHttpSession();
+            perform("GET", "/api/entries");
+            assertTrue(filter.bucketCount() <= 3);
+        }
+
+        // The newest bucket survived the sweeps and still holds what it spent.
+        assertEquals(200, perform("GET", "/api/entries").getStatus());
+        assertEquals(429, perform("GET", "/api/entries").getStatus());
+
+        session = first;
+        assertEquals(200, perform("GET", "/api/entries").getStatus());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        return perform(method, uri, session);
+    }
+
+    private MockHttpServletResponse perform(String method, String uri, HttpSession session) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setSession(session);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
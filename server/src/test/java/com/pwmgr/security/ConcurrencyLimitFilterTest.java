@@ -0,0 +1,87 @@
+package com.pwmgr.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ConcurrencyLimitFilter(new ObjectMapper(), new AtomicLong()::incrementAndGet);
+        ReflectionTestUtils.setField(filter, "initialLimit", 2);
+        ReflectionTestUtils.setField(filter, "minLimit", 1);
+        filter.init();
+    }
+
+    @Test
+    void requestsOverTheLimit_areRejectedWithServiceUnavailable() throws Exception {
+        filter.limiter(ApiEndpointClass.LIST).tryAcquire();
+        filter.limiter(ApiEndpointClass.LIST).tryAcquire();
+
+        MockHttpServletResponse rejected = perform("GET", "/api/entries");
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertTrue(rejected.getContentAsString().contains("\"success\":false"));
+    }
+
+    @Test
+    void endpointClasses_haveIndependentLimits() throws Exception {
+        filter.limiter(ApiEndpointClass.LOGIN).tryAcquire();
+        filter.limiter(ApiEndpointClass.LOGIN).tryAcquire();
+
+        assertEquals(503, perform("POST", "/api/auth/login").getStatus());
+        assertEquals(200, perform("GET", "/api/auth/status").getStatus());
+        assertEquals(200, perform("GET", "/api/entries/7").getStatus());
+    }
+
+    @Test
+    void completedRequests_releaseTheirSlot() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/api/entries").getStatus());
+        }
+
+        assertEquals(0, filter.limiter(ApiEndpointClass.LIST).getInFlight());
+    }
+
+    @Test
+    void asyncRequests_holdTheirSlotUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/entries");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+
+        assertEquals(1, filter.limiter(ApiEndpointClass.LIST).getInFlight());
+
+        request.getAsyncContext().complete();
+
+        assertEquals(0, filter.limiter(ApiEndpointClass.LIST).getInFlight());
+    }
+
+    @Test
+    void nonApiPaths_areNotLimited() throws Exception {
+        filter.limiter(ApiEndpointClass.OTHER).tryAcquire();
+        filter.limiter(ApiEndpointClass.OTHER).tryAcquire();
+
+        assertEquals(200, perform("GET", "/index.html").getStatus());
+    }
+
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.RepeatedTest;
 
 import javax.crypto.SecretKey;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.HashSet;
 import java.util.Set;
@@ -81,6 +82,18 @@ class EncryptionServiceTest {
         assertEquals(32, key.getEncoded().length, "Key should be 256 bits (32 bytes)");
     }
 
+    @Test
+    void deriveKey_withIterationCount_dependsOnIterations() throws Exception {
+        String salt = encryptionService.generateSalt();
+
+        SecretKey key1 = encryptionService.deriveKey("1234", salt, 1000);
+        SecretKey key2 = encryptionService.deriveKey("1234", salt, 1000);
+        SecretKey key3 = encryptionService.deriveKey("1234", salt, 2000);
+
+        assertArrayEquals(key1.getEncoded(), key2.getEncoded());
+        assertFalse(Arrays.equals(key1.getEncoded(), key3.getEncoded()));
+    }
+
     @Test
     void deriveKey_differentSaltsProduceDifferentKeys() throws Exception {
         String password = "TestPassword123";
@@ -221,6 +234,29 @@ class EncryptionServiceTest {
         assertEquals(originalText, decrypted, "Decrypted text should match original");
     }
 
+    @Test
+    void verifyWithIv_acceptsIntactCiphertext() throws Exception {
+        SecretKey key = encryptionService.deriveKey("SecurePassword", encryptionService.generateSalt());
+        EncryptionService.EncryptedData encrypted = encryptionService.encryptWithIv("Secret", key);
+
+        assertTrue(encryptionService.verifyWithIv(encrypted.getCiphertext(), encrypted.getIv(), key));
+    }
+
+    @Test
+    void verifyWithIv_rejectsTamperedCiphertextAndWrongKey() throws Exception {
+        SecretKey key = encryptionService.deriveKey("SecurePassword", encryptionService.generateSalt());
+        SecretKey otherKey = encryptionService.deriveKey("OtherPassword", encryptionService.generateSalt());
+        EncryptionService.EncryptedData encrypted = encryptionService.encryptWithIv("Secret", key);
+
+        byte[] tampered = Base64.getDecoder().decode(encrypted.getCiphertext());
+        tampered[0] ^= 1;
+
+        assertFalse(encryptionService.verifyWithIv(
+                Base64.getEncoder().encodeToString(tampered), encrypted.getIv(), key));
+        assertFalse(encryptionService.verifyWithIv(encrypted.getCiphertext(), encrypted.getIv(), otherKey));
+        assertFalse(encryptionService.verifyWithIv("not base64!", encrypted.getIv(), key));
+    }
+
     @Test
     void encryptWithIv_returnsIvAndCiphertext() throws Exception {
         String text = "Secret";
@@ -0,0 +1,118 @@
+package com.pwmgr.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class JdbcRateLimitStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcRateLimitStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcRateLimitStore(jdbcTemplate);
+        store.createTables();
+    }
+
+    @Test
+    void addFailures_accumulatesAcrossFlushes() {
+        store.addFailures(Map.of("10.0.0.1", 2), 100);
+        store.addFailures(Map.of("10.0.0.1", 1), 99);
+
+        Map<String, RateLimitStore.WindowCounts> totals = store.addFailures(Map.of("10.0.0.1", 3), 100);
+
+        assertEquals(5, totals.get("10.0.0.1").getCurrent());
+        assertEquals(1, totals.get("10.0.0.1").getPrevious());
+    }
+
+    @Test
+    void lockouts_areVisibleUntilTheyExpire() {
+        store.recordLockouts(Map.of("10.0.0.1", 2_000L, "10.0.0.2", 500L), 100);
+
+        assertEquals(Map.of("10.0.0.1", 2_000L, "10.0.0.2", 500L), store.findLockoutsSince(0, 400));
+        assertEquals(Map.of("10.0.0.1", 2_000L), store.findLockoutsSince(0, 1_000));
+        assertTrue(store.findLockoutsSince(200, 400).isEmpty());
+    }
+
+    @Test
+    void clear_removesCountsAndLockouts() {
+        store.addFailures(Map.of("10.0.0.1", 2), 100);
+        store.recordLockouts(Map.of("10.0.0.1", 2_000L), 100);
+
+        store.clear(List.of("10.0.0.1"));
+
+        assertTrue(store.findLockoutsSince(0, 0).isEmpty());
+        assertEquals(1, store.addFailures(Map.of("10.0.0.1", 1), 100).get("10.0.0.1").getCurrent());
+    }
+
+    @Test
+    void purgeExpired_dropsOldBucketsAndLockouts() {
+        store.addFailures(Map.of("10.0.0.1", 2), 90);
+        store.recordLockouts(Map.of("10.0.0.1", 500L), 100);
+
+        store.purgeExpired(99, 1_000);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM auth_attempts", Integer.class));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM auth_lockouts", Integer.class));
+    }
+
+    @Test
+    void lockout_onOneNode_blocksClientOnAnother() {
+        AtomicLong clock = new AtomicLong();
+        AtomicLong wallClock = new AtomicLong(1_000_000);
+        RateLimitService nodeA = node(clock, wallClock);
+        RateLimitService nodeB = node(clock, wallClock);
+        String clientId = "192.168.1.1";
+
+        for (int i = 0; i < 3; i++) {
+            nodeA.recordFailedAttempt(clientId);
+        }
+        nodeA.syncWithStore();
+        for (int i = 0; i < 2; i++) {
+            nodeB.recordFailedAttempt(clientId);
+        }
+        assertFalse(nodeB.isBlocked(clientId));
+
+        nodeB.syncWithStore();
+        assertTrue(nodeB.isBlocked(clientId));
+
+        nodeA.syncWithStore();
+        assertTrue(nodeA.isBlocked(clientId));
+    }
+
+    @Test
+    void lockouts_surviveRestart() {
+        AtomicLong clock = new AtomicLong();
+        AtomicLong wallClock = new AtomicLong(1_000_000);
+        RateLimitService before = node(clock, wallClock);
+        for (int i = 0; i < 5; i++) {
+            before.recordFailedAttempt("192.168.1.1");
+        }
+        before.syncWithStore();
+
+        RateLimitService after = node(clock, wallClock);
+        after.syncWithStore();
+
+        assertTrue(after.isBlocked("192.168.1.1"));
+    }
+
+    private RateLimitService node(AtomicLong clock, AtomicLong wallClock) {
+        RateLimitService service = new RateLimitService(store, clock::get, wallClock::get);
+        ReflectionTestUtils.setField(service, "maxAttempts", 5);
+        ReflectionTestUtils.setField(service, "lockoutMinutes", 15);
+        return service;
+    }
+}
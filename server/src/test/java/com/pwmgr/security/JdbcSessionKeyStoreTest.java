@@ -0,0 +1,72 @@
+package com.pwmgr.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class JdbcSessionKeyStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private JdbcSessionKeyStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new JdbcSessionKeyStore(jdbcTemplate);
+        store.createTables();
+    }
+
+    @Test
+    void save_thenFind_returnsStoredKeyUntilItExpires() {
+        store.save(new SessionKeyStore.StoredKey("id-1", new byte[]{1, 2, 3}, "salt", 1_000));
+
+        Optional<SessionKeyStore.StoredKey> found = store.find("id-1", 500);
+
+        assertTrue(found.isPresent());
+        assertArrayEquals(new byte[]{1, 2, 3}, found.get().getWrappedKey());
+        assertEquals("salt", found.get().getMasterSalt());
+        assertTrue(store.find("id-1", 1_000).isEmpty());
+    }
+
+    @Test
+    void touch_onlyExtendsExpiry() {
+        store.save(new SessionKeyStore.StoredKey("id-1", new byte[]{1}, "salt", 1_000));
+
+        store.touch("id-1", 2_000);
+        store.touch("id-1", 1_500);
+
+        assertEquals(2_000, store.find("id-1", 0).get().getExpiresAt());
+    }
+
+    @Test
+    void sessionsSurviveAStoreInstanceRestart() {
+        store.save(new SessionKeyStore.StoredKey("id-1", new byte[]{1}, "salt", 1_000));
+
+        JdbcSessionKeyStore restarted = new JdbcSessionKeyStore(jdbcTemplate);
+        restarted.createTables();
+
+        assertTrue(restarted.find("id-1", 0).isPresent());
+    }
+
+    @Test
+    void delete_andPurgeExpired_removeRows() {
+        store.save(new SessionKeyStore.StoredKey("id-1", new byte[]{1}, "salt", 1_000));
+        store.save(new SessionKeyStore.StoredKey("id-2", new byte[]{1}, "salt", 5_000));
+        store.save(new SessionKeyStore.StoredKey("id-3", new byte[]{1}, "salt", 5_000));
+
+        store.delete("id-2");
+        store.purgeExpired(2_000);
+
+        assertTrue(store.find("id-1", 0).isEmpty());
+        assertTrue(store.find("id-2", 0).isEmpty());
+        assertTrue(store.find("id-3", 0).isPresent());
+    }
+}
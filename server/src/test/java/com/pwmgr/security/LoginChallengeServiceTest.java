@@ -0,0 +1,188 @@
+package com.pwmgr.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoginChallengeServiceTest {
+
+    private AtomicLong clock;
+    private LoginChallengeService service;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        service = new LoginChallengeService(clock::get);
+        ReflectionTestUtils.setField(service, "thresholdPerMinute", 5);
+        ReflectionTestUtils.setField(service, "clientThresholdPerMinute", 2);
+        ReflectionTestUtils.setField(service, "baseDifficulty", 8);
+        ReflectionTestUtils.setField(service, "maxDifficulty", 20);
+    }
+
+    @Test
+    void recordAttempt_belowThreshold_requiresNoPuzzle() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, service.recordAttempt("10.0.0." + i));
+        }
+    }
+
+    @Test
+    void recordAttempt_difficultyScalesWithClientLoadUpToMax() {
+        for (int i = 0; i < 5; i++) {
+            service.recordAttempt("attacker");
+        }
+
+        assertEquals(9, service.recordAttempt("attacker"));
+
+        for (int i = 0; i < 100; i++) {
+            service.recordAttempt("attacker");
+        }
+        assertEquals(17, service.recordAttempt("attacker"));
+
+        for (int i = 0; i < 1000; i++) {
+            service.recordAttempt("attacker");
+        }
+        assertEquals(20, service.recordAttempt("attacker"));
+    }
+
+    @Test
+    void recordAttempt_floodSpreadOverManyClients_raisesDifficultyForEveryone() {
+        for (int i = 0; i < 100; i++) {
+            service.recordAttempt("10.0.0." + i);
+        }
+
+        assertEquals(12, service.recordAttempt("10.0.1.1"));
+    }
+
+    @Test
+    void recordAttempt_underLoad_quietClientsPayOnlyTheOverallTerm() {
+        for (int i = 0; i < 100; i++) {
+            service.recordAttempt("attacker");
+        }
+
+        assertEquals(12, service.recordAttempt("user"));
+        assertEquals(12, service.requiredDifficulty("user"));
+        assertEquals(17, service.requiredDifficulty("attacker"));
+    }
+
+    @Test
+    void requiredDifficulty_doesNotCountAsAnAttempt() {
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, service.requiredDifficulty("user"));
+        }
+
+        assertEquals(0, service.recordAttempt("user"));
+    }
+
+    @Test
+    void recordAttempt_loadDecaysOutOfTheWindow() {
+        for (int i = 0; i < 20; i++) {
+            service.recordAttempt("attacker");
+        }
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        assertEquals(0, service.recordAttempt("attacker"));
+    }
+
+    @Test
+    void trackedClients_areCappedAndPurgedOnceIdle() {
+        ReflectionTestUtils.setField(service, "maxTrackedClients", 10);
+        for (int i = 0; i < 50; i++) {
+            service.recordAttempt("10.0.0." + i);
+        }
+        assertEquals(10, service.trackedClients());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        service.purgeExpired();
+
+        assertEquals(0, service.trackedClients());
+    }
+
+    @Test
+    void verify_acceptsSolvedChallengeOnce() {
+        String challenge = service.issue(8);
+        String solution = solve(challenge, 8);
+
+        assertTrue(service.verify(challenge, solution, 8));
+        assertFalse(service.verify(challenge, solution, 8));
+    }
+
+    @Test
+    void verify_rejectsWrongSolution() {
+        String challenge = service.issue(8);
+
+        assertFalse(service.verify(challenge, unsolved(challenge, 8), 8));
+        assertFalse(service.verify(challenge, null, 8));
+    }
+
+    @Test
+    void verify_rejectsTamperedDifficulty() {
+        String challenge = service.issue(8);
+        String tampered = "0" + challenge.substring(challenge.indexOf('.'));
+
+        assertFalse(service.verify(tampered, solve(tampered, 0), 0));
+    }
+
+    @Test
+    void verify_rejectsExpiredChallenge() {
+        String challenge = service.issue(8);
+        String solution = solve(challenge, 8);
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(3));
+
+        assertFalse(service.verify(challenge, solution, 8));
+    }
+
+    @Test
+    void verify_rejectsChallengeFarBelowCurrentDifficulty() {
+        String challenge = service.issue(8);
+
+        assertFalse(service.verify(challenge, solve(challenge, 8), 12));
+    }
+
+    @Test
+    void purgeExpired_dropsUsedChallengesAfterTheirTtl() {
+        String challenge = service.issue(8);
+        service.verify(challenge, solve(challenge, 8), 8);
+        assertEquals(1, service.usedChallengeCount());
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(3));
+        service.purgeExpired();
+
+        assertEquals(0, service.usedChallengeCount());
+    }
+
+    @Test
+    void leadingZeroBits_countsAcrossBytes() {
+        assertEquals(0, LoginChallengeService.leadingZeroBits(new byte[]{(byte) 0x80, 0}));
+        assertEquals(3, LoginChallengeService.leadingZeroBits(new byte[]{0x10, 0}));
+        assertEquals(12, LoginChallengeService.leadingZeroBits(new byte[]{0, 0x08}));
+        assertEquals(16, LoginChallengeService.leadingZeroBits(new byte[]{0, 0}));
+    }
+
+    private String solve(String challenge, int difficulty) {
+        for (int counter = 0; ; counter++) {
+            String solution = Integer.toString(counter, 36);
+            if (LoginChallengeService.leadingZeroBits(LoginChallengeService.sha256(challenge + ":" + solution))
+                    >= difficulty) {
+                return solution;
+            }
+        }
+    }
+
+    private String unsolved(String challenge, int difficulty) {
+        for (int counter = 0; ; counter++) {
+            String solution = Integer.toString(counter, 36);
+            if (LoginChallengeService.leadingZeroBits(LoginChallengeService.sha256(challenge + ":" + solution))
+                    < difficulty) {
+                return solution;
+            }
+        }
+    }
+}
@@ -4,7 +4,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
 
 class RateLimitServiceTest {
 
@@ -160,4 +166,140 @@ class RateLimitServiceTest {
         assertTrue(rateLimitService.isBlocked(client1));
         assertFalse(rateLimitService.isBlocked(client2));
     }
+
+    @Test
+    void failedAttempts_slideOutOfWindow() {
+        AtomicLong clock = new AtomicLong();
+        RateLimitService service = withClock(clock);
+        String clientId = "192.168.1.1";
+
+        for (int i = 0; i < 4; i++) {
+            service.recordFailedAttempt(clientId);
+        }
+        assertEquals(1, service.getRemainingAttempts(clientId));
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(15) + TimeUnit.MINUTES.toNanos(15) / 2);
+        assertEquals(3, service.getRemainingAttempts(clientId));
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(15));
+        assertEquals(5, service.getRemainingAttempts(clientId));
+    }
+
+    @Test
+    void lockout_usesMonotonicClock() {
+        AtomicLong clock = new AtomicLong();
+        RateLimitService service = withClock(clock);
+        String clientId = "192.168.1.1";
+
+        for (int i = 0; i < 5; i++) {
+            service.recordFailedAttempt(clientId);
+        }
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(14));
+        assertTrue(service.isBlocked(clientId));
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertFalse(service.isBlocked(clientId));
+        assertEquals(5, service.getRemainingAttempts(clientId));
+    }
+
+    @Test
+    void trackedClients_neverExceedCapacity() {
+        ReflectionTestUtils.setField(rateLimitService, "maxTrackedClients", 100);
+
+        for (int i = 0; i < 1000; i++) {
+            rateLimitService.recordFailedAttempt("10.0." + (i / 256) + "." + (i % 256));
+        }
+
+        assertEquals(100, rateLimitService.trackedClients());
+    }
+
+    @Test
+    void overflow_keepsLockedOutClients() {
+        ReflectionTestUtils.setField(rateLimitService, "maxTrackedClients", 10);
+        String attacker = "192.168.1.1";
+        for (int i = 0; i < 5; i++) {
+            rateLimitService.recordFailedAttempt(attacker);
+        }
+
+        for (int i = 0; i < 50; i++) {
+            rateLimitService.recordFailedAttempt("10.0.0." + i);
+        }
+
+        assertTrue(rateLimitService.isBlocked(attacker));
+    }
+
+    @Test
+    void overflow_evictsOnlyTheLeastRecentlyUsedClient() {
+        AtomicLong clock = new AtomicLong();
+        RateLimitService service = withClock(clock);
+        ReflectionTestUtils.setField(service, "maxTrackedClients", 10);
+        for (int i = 0; i < 10; i++) {
+            service.recordFailedAttempt("10.0.0." + i);
+        }
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(30));
+        service.recordFailedAttempt("10.0.1.1");
+
+        assertEquals(10, service.trackedClients());
+        service.evictExpired();
+        assertEquals(1, service.trackedClients());
+    }
+
+    @Test
+    void evictExpired_dropsIdleAndExpiredClients() {
+        AtomicLong clock = new AtomicLong();
+        RateLimitService service = withClock(clock);
+        service.recordFailedAttempt("192.168.1.1");
+        for (int i = 0; i < 5; i++) {
+            service.recordFailedAttempt("192.168.1.2");
+        }
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(30));
+        service.evictExpired();
+
+        assertEquals(0, service.trackedClients());
+    }
+
+    @Test
+    void storeSync_batchesFailuresOffTheLoginPath() {
+        RateLimitStore store = mock(RateLimitStore.class);
+        when(store.addFailures(anyMap(), anyLong())).thenReturn(Map.of());
+        when(store.findLockoutsSince(anyLong(), anyLong())).thenReturn(Map.of());
+        RateLimitService service = new RateLimitService(store, new AtomicLong()::get, () -> 1_000_000L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 5);
+        ReflectionTestUtils.setField(service, "lockoutMinutes", 15);
+
+        service.recordFailedAttempt("192.168.1.1");
+        service.recordFailedAttempt("192.168.1.1");
+        service.isBlocked("192.168.1.1");
+        verifyNoInteractions(store);
+
+        service.syncWithStore();
+
+        verify(store).addFailures(eq(Map.of("192.168.1.1", 2)), anyLong());
+    }
+
+    @Test
+    void storeSync_whenStoreFails_keepsBufferedFailures() {
+        RateLimitStore store = mock(RateLimitStore.class);
+        when(store.addFailures(anyMap(), anyLong()))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(Map.of());
+        when(store.findLockoutsSince(anyLong(), anyLong())).thenReturn(Map.of());
+        RateLimitService service = new RateLimitService(store, new AtomicLong()::get, () -> 1_000_000L);
+        ReflectionTestUtils.setField(service, "maxAttempts", 5);
+
+        service.recordFailedAttempt("192.168.1.1");
+        service.syncWithStore();
+        service.syncWithStore();
+
+        verify(store, times(2)).addFailures(eq(Map.of("192.168.1.1", 1)), anyLong());
+    }
+
+    private RateLimitService withClock(AtomicLong clock) {
+        RateLimitService service = new RateLimitService(clock::get);
+        ReflectionTestUtils.setField(service, "maxAttempts", 5);
+        ReflectionTestUtils.setField(service, "lockoutMinutes", 15);
+        return service;
+    }
 }
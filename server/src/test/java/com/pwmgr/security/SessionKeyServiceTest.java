@@ -0,0 +1,181 @@
+package com.pwmgr.security;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SessionKeyServiceTest {
+
+    private static final String KEK = kek((byte) 1);
+
+    @Mock
+    private SessionKeyStore store;
+
+    private AtomicLong nanoClock;
+    private SessionKeyService service;
+    private SecretKey vaultKey;
+
+    @BeforeEach
+    void setUp() {
+        nanoClock = new AtomicLong();
+        service = newService(KEK);
+        byte[] keyBytes = new byte[32];
+        Arrays.fill(keyBytes, (byte) 42);
+        vaultKey = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    @Test
+    void register_storesWrappedKeyUnderTokenHash() throws Exception {
+        String token = service.register(vaultKey, "salt");
+
+        SessionKeyStore.StoredKey stored = captureSaved();
+        assertNotEquals(token, stored.getId());
+        assertFalse(containsKeyBytes(stored.getWrappedKey()));
+        assertEquals("salt", stored.getMasterSalt());
+        assertEquals(1_000 + TimeUnit.MINUTES.toMillis(30), stored.getExpiresAt());
+    }
+
+    @Test
+    void resolve_servesFromNearCacheWithinTtl() throws Exception {
+        String token = service.register(vaultKey, "salt");
+
+        Optional<SessionKeyService.RestoredKey> restored = service.resolve(token);
+
+        assertArrayEquals(vaultKey.getEncoded(), restored.get().getKey().getEncoded());
+        verify(store, never()).find(anyString(), anyLong());
+    }
+
+    @Test
+    void resolve_onAnotherNode_unwrapsFromStoreAndSlidesExpiry() throws Exception {
+        String token = service.register(vaultKey, "salt");
+        SessionKeyStore.StoredKey stored = captureSaved();
+        SessionKeyService otherNode = newService(KEK);
+        when(store.find(eq(stored.getId()), anyLong())).thenReturn(Optional.of(stored));
+
+        Optional<SessionKeyService.RestoredKey> restored = otherNode.resolve(token);
+
+        assertArrayEquals(vaultKey.getEncoded(), restored.get().getKey().getEncoded());
+        assertEquals("salt", restored.get().getMasterSalt());
+        verify(store).touch(eq(stored.getId()), anyLong());
+    }
+
+    @Test
+    void resolve_afterTtl_seesRevocationFromAnotherNode() throws Exception {
+        String token = service.register(vaultKey, "salt");
+        when(store.find(anyString(), anyLong())).thenReturn(Optional.empty());
+
+        nanoClock.addAndGet(TimeUnit.SECONDS.toNanos(16));
+
+        assertTrue(service.resolve(token).isEmpty());
+        assertEquals(0, service.nearCacheSize());
+    }
+
+    @Test
+    void resolve_withDifferentKek_returnsEmpty() throws Exception {
+        String token = service.register(vaultKey, "salt");
+        SessionKeyStore.StoredKey stored = captureSaved();
+        SessionKeyService otherNode = newService(kek((byte) 2));
+        when(store.find(eq(stored.getId()), anyLong())).thenReturn(Optional.of(stored));
+
+        assertTrue(otherNode.resolve(token).isEmpty());
+    }
+
+    @Test
+    void revoke_deletesFromStoreAndNearCache() throws Exception {
+        String token = service.register(vaultKey, "salt");
+        String id = captureSaved().getId();
+
+        service.revoke(token);
+
+        verify(store).delete(id);
+        assertEquals(0, service.nearCacheSize());
+    }
+
+    @Test
+    void withoutStore_isDisabled() throws Exception {
+        SessionKeyService disabled = new SessionKeyService(null, new EncryptionService(), nanoClock::get, () -> 0L);
+        disabled.init();
+
+        assertFalse(disabled.isEnabled());
+        assertNull(disabled.register(vaultKey, "salt"));
+        assertTrue(disabled.resolve("token").isEmpty());
+    }
+
+    @Test
+    void token_roundTripsThroughCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        service.writeToken(response, "token");
+
+        String header = response.getHeader("Set-Cookie");
+        assertTrue(header.startsWith("PWMGR_VAULT=token"));
+        assertTrue(header.contains("HttpOnly"));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("PWMGR_VAULT", "token"));
+        assertEquals("token", service.readToken(request));
+    }
+
+    @Test
+    void init_withStoreButNoKek_failsFast() {
+        assertThrows(IllegalStateException.class, () -> newService(""));
+    }
+
+    @Test
+    void init_rejectsKekOfWrongLength() {
+        assertThrows(IllegalStateException.class,
+                () -> newService(Base64.getEncoder().encodeToString(new byte[16])));
+    }
+
+    private SessionKeyService newService(String kek) {
+        SessionKeyService created = new SessionKeyService(store, new EncryptionService(), nanoClock::get, () -> 1_000L);
+        ReflectionTestUtils.setField(created, "kekBase64", kek);
+        created.init();
+        return created;
+    }
+
+    private static String kek(byte fill) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, fill);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    private SessionKeyStore.StoredKey captureSaved() {
+        ArgumentCaptor<SessionKeyStore.StoredKey> captor = ArgumentCaptor.forClass(SessionKeyStore.StoredKey.class);
+        verify(store).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private boolean containsKeyBytes(byte[] wrapped) {
+        byte[] key = vaultKey.getEncoded();
+        outer:
+        for (int i = 0; i + key.length <= wrapped.length; i++) {
+            for (int j = 0; j < key.length; j++) {
+                if (wrapped[i + j] != key[j]) {
+                    continue outer;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+package com.pwmgr.security;
+
+import com.pwmgr.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StatelessTokenFilterTest {
+
+    private StatelessTokenService tokenService;
+    private AuthService authService;
+    private StatelessTokenFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        tokenService = new StatelessTokenService(new EncryptionService());
+        ReflectionTestUtils.setField(tokenService, "secretBase64", Base64.getEncoder().encodeToString(new byte[32]));
+        tokenService.init();
+        authService = mock(AuthService.class);
+        filter = new StatelessTokenFilter(tokenService, authService);
+    }
+
+    @Test
+    void bearerToken_restoresSessionForTheRequest() throws Exception {
+        SecretKeySpec key = new SecretKeySpec(new byte[32], "AES");
+        String token = tokenService.issue("sid-1", key, "salt");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/entries");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        HttpServletRequest seen = perform(request);
+
+        HttpSession session = seen.getSession(false);
+        assertNotNull(session);
+        assertEquals("sid-1", session.getId());
+        verify(authService).restoreSessionKey(eq(session), argThat(k -> k.getEncoded().length == 32), eq("salt"));
+        assertNull(request.getSession(false));
+    }
+
+    @Test
+    void invalidToken_leavesRequestWithoutSession() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/entries");
+        request.addHeader("Authorization", "Bearer garbage");
+
+        HttpServletRequest seen = perform(request);
+
+        assertNull(seen.getSession(false));
+        verify(authService, never()).restoreSessionKey(any(), any(), any());
+    }
+
+    @Test
+    void newSession_isNotKeptByTheContainer() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+
+        HttpServletRequest seen = perform(request);
+
+        HttpSession session = seen.getSession(true);
+        assertTrue(session.isNew());
+        assertSame(session, seen.getSession(false));
+        assertNull(request.getSession(false));
+    }
+
+    private HttpServletRequest perform(MockHttpServletRequest request) throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+        return (HttpServletRequest) chain.getRequest();
+    }
+}
@@ -0,0 +1,118 @@
+package com.pwmgr.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatelessTokenServiceTest {
+
+    private AtomicLong clock;
+    private StatelessTokenService service;
+    private SecretKey vaultKey;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong(TimeUnit.HOURS.toMillis(1000));
+        service = newService(secret((byte) 1));
+        byte[] keyBytes = new byte[32];
+        Arrays.fill(keyBytes, (byte) 42);
+        vaultKey = new SecretKeySpec(keyBytes, "AES");
+    }
+
+    @Test
+    void issue_thenParse_returnsKeySaltAndSessionId() throws Exception {
+        String token = service.issue("sid-1", vaultKey, "salt");
+
+        Optional<StatelessTokenService.TokenClaims> claims = service.parse(token);
+
+        assertTrue(claims.isPresent());
+        assertArrayEquals(vaultKey.getEncoded(), claims.get().getKey().getEncoded());
+        assertEquals("salt", claims.get().getMasterSalt());
+        assertEquals("sid-1", claims.get().getSessionId());
+    }
+
+    @Test
+    void token_doesNotContainKeyInTheClear() throws Exception {
+        byte[] token = Base64.getUrlDecoder().decode(service.issue("sid-1", vaultKey, "salt"));
+
+        for (int i = 0; i + 32 <= token.length; i++) {
+            assertFalse(Arrays.equals(Arrays.copyOfRange(token, i, i + 32), vaultKey.getEncoded()));
+        }
+    }
+
+    @Test
+    void parse_isServedFromCacheOnRepeat() throws Exception {
+        String token = service.issue("sid-1", vaultKey, "salt");
+
+        service.parse(token);
+        service.parse(token);
+
+        assertEquals(1, service.cachedTokens());
+    }
+
+    @Test
+    void parse_rejectsExpiredToken() throws Exception {
+        String token = service.issue("sid-1", vaultKey, "salt");
+        service.parse(token);
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(16));
+
+        assertTrue(service.parse(token).isEmpty());
+    }
+
+    @Test
+    void parse_rejectsTamperedToken() throws Exception {
+        byte[] token = Base64.getUrlDecoder().decode(service.issue("sid-1", vaultKey, "salt"));
+        token[token.length - 1] ^= 1;
+
+        assertTrue(service.parse(Base64.getUrlEncoder().withoutPadding().encodeToString(token)).isEmpty());
+        assertTrue(service.parse("not a token").isEmpty());
+    }
+
+    @Test
+    void parse_onAnotherNodeWithSameSecret_succeeds() throws Exception {
+        String token = service.issue("sid-1", vaultKey, "salt");
+
+        assertTrue(newService(secret((byte) 1)).parse(token).isPresent());
+        assertTrue(newService(secret((byte) 2)).parse(token).isEmpty());
+    }
+
+    @Test
+    void parse_acceptsTokenFromPreviousEpochWhileItIsAlive() throws Exception {
+        clock.set(TimeUnit.HOURS.toMillis(1001) - TimeUnit.MINUTES.toMillis(1));
+        String token = service.issue("sid-1", vaultKey, "salt");
+
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(5));
+
+        assertTrue(newService(secret((byte) 1)).parse(token).isPresent());
+    }
+
+    @Test
+    void init_rejectsSecretOfWrongLength() {
+        assertThrows(IllegalStateException.class,
+                () -> newService(Base64.getEncoder().encodeToString(new byte[16])));
+    }
+
+    private StatelessTokenService newService(String secret) {
+        StatelessTokenService created = new StatelessTokenService(new EncryptionService(), clock::get);
+        ReflectionTestUtils.setField(created, "secretBase64", secret);
+        created.init();
+        return created;
+    }
+
+    private static String secret(byte fill) {
+        byte[] bytes = new byte[32];
+        Arrays.fill(bytes, fill);
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+}
@@ -4,6 +4,8 @@ import com.pwmgr.model.MasterPassword;
 import com.pwmgr.repository.MasterPasswordRepository;
 import com.pwmgr.security.EncryptionService;
 import com.pwmgr.security.RateLimitService;
+import com.pwmgr.security.SessionKeyService;
+import com.pwmgr.security.StatelessTokenService;
 import com.pwmgr.service.AuthService.RateLimitException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,8 +13,12 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import javax.crypto.AEADBadTagException;
 import javax.crypto.SecretKey;
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -33,6 +39,21 @@ class AuthServiceTest {
     @Mock
     private RateLimitService rateLimitService;
 
+    @Mock
+    private SessionEntryCache sessionEntryCache;
+
+    @Mock
+    private IdempotencyService idempotencyService;
+
+    @Mock
+    private VaultPrefetchService vaultPrefetchService;
+
+    @Mock
+    private SessionKeyService sessionKeyService;
+
+    @Mock
+    private StatelessTokenService statelessTokenService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -63,6 +84,45 @@ class AuthServiceTest {
         assertFalse(authService.isSetupRequired());
     }
 
+    @Test
+    void isSetupRequired_calledRepeatedly_queriesRepositoryOnce() {
+        when(masterPasswordRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.of(new MasterPassword()));
+
+        authService.isSetupRequired();
+        authService.isSetupRequired();
+        authService.isSetupRequired();
+
+        verify(masterPasswordRepository, times(1)).findFirstByOrderByIdAsc();
+    }
+
+    @Test
+    void setupMasterPassword_invalidatesCachedRecord() throws Exception {
+        when(masterPasswordRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new MasterPassword("hash", "salt")));
+        when(encryptionService.generateSalt()).thenReturn("salt");
+        when(encryptionService.deriveVerificationHash("SecurePassword123", "salt")).thenReturn("hash");
+
+        assertTrue(authService.isSetupRequired());
+        authService.setupMasterPassword("SecurePassword123");
+
+        assertFalse(authService.isSetupRequired());
+        assertFalse(authService.isSetupRequired());
+        verify(masterPasswordRepository, times(3)).findFirstByOrderByIdAsc();
+    }
+
+    @Test
+    void isSetupRequired_whileNotConfigured_queriesRepositoryEachTime() {
+        when(masterPasswordRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new MasterPassword("hash", "salt")));
+
+        assertTrue(authService.isSetupRequired());
+        assertFalse(authService.isSetupRequired());
+    }
+
     @Test
     void setupMasterPassword_createsNewMasterPassword() throws Exception {
         String password = "SecurePassword123";
@@ -119,6 +179,7 @@ class AuthServiceTest {
         assertEquals(mockKey, session.getAttribute("encryptionKey"));
         verify(rateLimitService).recordSuccessfulAttempt(clientId);
         verify(rateLimitService, never()).recordFailedAttempt(clientId);
+        verify(vaultPrefetchService).prefetch(session.getId(), mockKey);
     }
 
     @Test
@@ -145,6 +206,7 @@ class AuthServiceTest {
         verify(rateLimitService).recordFailedAttempt(clientId);
         verify(rateLimitService, never()).recordSuccessfulAttempt(clientId);
         verify(encryptionService, never()).deriveKey(anyString(), anyString());
+        verify(vaultPrefetchService, never()).prefetch(any(), any());
     }
 
     @Test
@@ -159,14 +221,189 @@ class AuthServiceTest {
         verify(masterPasswordRepository, never()).findFirstByOrderByIdAsc();
     }
 
+    @Test
+    void enableQuickUnlock_wrapsSessionKeyUnderPinKey() throws Exception {
+        SecretKey pinKey = mock(SecretKey.class);
+        byte[] keyBytes = new byte[32];
+        session.setAttribute("encryptionKey", mockKey);
+        when(mockKey.getEncoded()).thenReturn(keyBytes);
+        when(encryptionService.generateSalt()).thenReturn("pinSalt");
+        when(encryptionService.deriveKey("1234", "pinSalt", 10_000)).thenReturn(pinKey);
+        when(encryptionService.encryptBytes(eq(keyBytes), any(), eq(pinKey))).thenReturn(new byte[60]);
+
+        authService.enableQuickUnlock(session, "1234");
+
+        assertTrue(authService.isQuickUnlockAvailable(session));
+        assertEquals(3, authService.getQuickUnlockRemainingAttempts(session));
+        verify(encryptionService, never()).deriveKey(anyString(), anyString());
+    }
+
+    @Test
+    void enableQuickUnlock_withNonNumericPin_throwsException() {
+        session.setAttribute("encryptionKey", mockKey);
+
+        assertThrows(IllegalArgumentException.class, () -> authService.enableQuickUnlock(session, "12ab"));
+        assertFalse(authService.isQuickUnlockAvailable(session));
+    }
+
+    @Test
+    void unlock_withCorrectPin_restoresSessionKey() throws Exception {
+        enableQuickUnlock();
+        authService.lock(session);
+        assertNull(session.getAttribute("encryptionKey"));
+
+        SecretKey pinKey = mock(SecretKey.class);
+        when(encryptionService.deriveKey("1234", "pinSalt", 10_000)).thenReturn(pinKey);
+        when(encryptionService.decryptBytes(any(), any(), eq(pinKey))).thenReturn(new byte[32]);
+
+        assertTrue(authService.unlock(session, "1234"));
+
+        SecretKey restored = authService.getSessionKey(session);
+        assertNotNull(restored);
+        assertEquals("AES", restored.getAlgorithm());
+        verify(vaultPrefetchService).prefetch(session.getId(), restored);
+        verify(sessionEntryCache, times(2)).evict(session.getId());
+    }
+
+    @Test
+    void unlock_afterMaxFailures_discardsWrappedKey() throws Exception {
+        enableQuickUnlock();
+        authService.lock(session);
+        when(encryptionService.deriveKey(eq("0000"), eq("pinSalt"), eq(10_000))).thenReturn(mock(SecretKey.class));
+        when(encryptionService.decryptBytes(any(), any(), any())).thenThrow(new AEADBadTagException());
+
+        assertFalse(authService.unlock(session, "0000"));
+        assertEquals(2, authService.getQuickUnlockRemainingAttempts(session));
+        assertFalse(authService.unlock(session, "0000"));
+        assertFalse(authService.unlock(session, "0000"));
+
+        assertFalse(authService.isQuickUnlockAvailable(session));
+        assertThrows(IllegalStateException.class, () -> authService.unlock(session, "1234"));
+        assertNull(session.getAttribute("encryptionKey"));
+    }
+
+    @Test
+    void unlock_withoutQuickUnlock_throwsException() {
+        assertThrows(IllegalStateException.class, () -> authService.unlock(session, "1234"));
+    }
+
+    @Test
+    void lock_dropsSessionKeyButKeepsSession() {
+        session.setAttribute("encryptionKey", mockKey);
+
+        authService.lock(session);
+
+        assertFalse(session.isInvalid());
+        assertFalse(authService.isAuthenticated(session));
+        verify(sessionEntryCache).evict(session.getId());
+        verify(idempotencyService).evictSession(session.getId());
+    }
+
+    @Test
+    void authenticate_registersKeyInSharedStore() throws Exception {
+        MasterPassword mp = new MasterPassword("hash", "salt");
+        when(masterPasswordRepository.findFirstByOrderByIdAsc()).thenReturn(Optional.of(mp));
+        when(encryptionService.deriveVerificationHash("pw", "salt")).thenReturn("hash");
+        when(encryptionService.deriveKey("pw", "salt")).thenReturn(mockKey);
+        when(sessionKeyService.register(mockKey, "salt")).thenReturn("token");
+
+        authService.authenticate("pw", "client", session);
+
+        assertEquals("token", session.getAttribute("sessionToken"));
+    }
+
+    @Test
+    void logout_revokesSharedToken() {
+        session.setAttribute("sessionToken", "token");
+
+        authService.logout(session);
+
+        verify(sessionKeyService).revoke("token");
+    }
+
+    @Test
+    void syncSharedSession_restoresKeyFromTokenOnFreshSession() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        when(sessionKeyService.isEnabled()).thenReturn(true);
+        when(sessionKeyService.readToken(request)).thenReturn("token");
+        when(sessionKeyService.resolve("token"))
+                .thenReturn(Optional.of(new SessionKeyService.RestoredKey(mockKey, "salt")));
+
+        authService.syncSharedSession(request, new MockHttpServletResponse());
+
+        assertEquals(mockKey, authService.getSessionKey(request.getSession(false)));
+        assertEquals("token", request.getSession(false).getAttribute("sessionToken"));
+    }
+
+    @Test
+    void syncSharedSession_dropsKeyRevokedOnAnotherNode() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        request.setSession(session);
+        session.setAttribute("encryptionKey", mockKey);
+        session.setAttribute("sessionToken", "token");
+        when(sessionKeyService.isEnabled()).thenReturn(true);
+        when(sessionKeyService.readToken(request)).thenReturn("token");
+        when(sessionKeyService.resolve("token")).thenReturn(Optional.empty());
+
+        authService.syncSharedSession(request, response);
+
+        assertFalse(authService.isAuthenticated(session));
+        verify(sessionEntryCache).evict(session.getId());
+        verify(sessionKeyService).clearToken(response);
+    }
+
+    @Test
+    void issueToken_inSessionMode_returnsNull() throws Exception {
+        session.setAttribute("encryptionKey", mockKey);
+
+        assertNull(authService.issueToken(session));
+        verifyNoInteractions(statelessTokenService);
+    }
+
+    @Test
+    void issueToken_inStatelessMode_sealsSessionKey() throws Exception {
+        ReflectionTestUtils.setField(authService, "authMode", "stateless");
+        session.setAttribute("encryptionKey", mockKey);
+        session.setAttribute("masterSalt", "salt");
+        when(statelessTokenService.issue(session.getId(), mockKey, "salt")).thenReturn("token");
+
+        assertEquals("token", authService.issueToken(session));
+    }
+
+    @Test
+    void authenticate_inStatelessMode_skipsSharedStore() throws Exception {
+        ReflectionTestUtils.setField(authService, "authMode", "stateless");
+        when(masterPasswordRepository.findFirstByOrderByIdAsc())
+                .thenReturn(Optional.of(new MasterPassword("hash", "salt")));
+        when(encryptionService.deriveVerificationHash("pw", "salt")).thenReturn("hash");
+        when(encryptionService.deriveKey("pw", "salt")).thenReturn(mockKey);
+
+        assertTrue(authService.authenticate("pw", "client", session));
+
+        verify(sessionKeyService, never()).register(any(), any());
+        verify(vaultPrefetchService, never()).prefetch(any(), any());
+    }
+
+    @Test
+    void enableQuickUnlock_inStatelessMode_throwsException() {
+        ReflectionTestUtils.setField(authService, "authMode", "stateless");
+        session.setAttribute("encryptionKey", mockKey);
+
+        assertThrows(IllegalStateException.class, () -> authService.enableQuickUnlock(session, "1234"));
+    }
+
     @Test
     void logout_invalidatesSession() {
         session.setAttribute("encryptionKey", mockKey);
         session.setAttribute("otherAttribute", "value");
+        String sessionId = session.getId();
 
         authService.logout(session);
 
         assertTrue(session.isInvalid());
+        verify(sessionEntryCache).evict(sessionId);
+        verify(idempotencyService).evictSession(sessionId);
     }
 
     @Test
@@ -207,4 +444,13 @@ class AuthServiceTest {
         assertEquals(3, remaining);
         verify(rateLimitService).getRemainingAttempts(clientId);
     }
+
+    private void enableQuickUnlock() throws Exception {
+        session.setAttribute("encryptionKey", mockKey);
+        when(mockKey.getEncoded()).thenReturn(new byte[32]);
+        when(encryptionService.generateSalt()).thenReturn("pinSalt");
+        when(encryptionService.deriveKey("1234", "pinSalt", 10_000)).thenReturn(mock(SecretKey.class));
+        when(encryptionService.encryptBytes(any(), any(), any())).thenReturn(new byte[60]);
+        authService.enableQuickUnlock(session, "1234");
+    }
 }
@@ -0,0 +1,231 @@
+package com.pwmgr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.config.EntrySequenceInitializer;
+import com.pwmgr.dto.BackupInfo;
+import com.pwmgr.model.DeletedEntry;
+import com.pwmgr.model.EntryVersion;
+import com.pwmgr.model.MasterPassword;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.DeletedEntryRepository;
+import com.pwmgr.repository.VaultRevisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+class BackupServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DeletedEntryRepository deletedEntryRepository;
+
+    @Autowired
+    private VaultRevisionRepository vaultRevisionRepository;
+
+    @TempDir
+    Path backupDir;
+
+    private AuthService authService;
+    private VaultRevisionService vaultRevisionService;
+    private BackupService backupService;
+
+    @BeforeEach
+    void setUp() {
+        authService = mock(AuthService.class);
+        vaultRevisionService = new VaultRevisionService(vaultRevisionRepository);
+        vaultRevisionService.seed();
+        backupService = new BackupService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                new ObjectMapper(), deletedEntryRepository, authService, vaultRevisionService,
+                new EntryRowCache(), new SessionEntryCache(), new EntrySequenceInitializer(jdbcTemplate));
+        ReflectionTestUtils.setField(backupService, "directory", backupDir.toString());
+        ReflectionTestUtils.setField(backupService, "retainFull", 2);
+
+        entityManager.persist(new MasterPassword("hash", "salt"));
+        entityManager.flush();
+    }
+
+    @Test
+    void createBackup_withoutExistingBackups_writesFullBackup() throws Exception {
+        persist("github.com");
+
+        BackupInfo backup = backupService.createBackup(BackupService.BackupType.INCREMENTAL);
+
+        assertEquals("FULL", backup.getType());
+        assertNull(backup.getParent());
+        assertTrue(Files.exists(backupDir.resolve(backup.getName())));
+        assertTrue(backupService.verify(backup.getName()).getValid());
+    }
+
+    @Test
+    void createBackup_incremental_linksToPreviousBackup() throws Exception {
+        persist("github.com");
+        BackupInfo full = backupService.createBackup(BackupService.BackupType.FULL);
+
+        BackupInfo incremental = backupService.createBackup(BackupService.BackupType.INCREMENTAL);
+
+        assertEquals("INCREMENTAL", incremental.getType());
+        assertEquals(full.getName(), incremental.getParent());
+        assertEquals(2, backupService.listBackups().size());
+    }
+
+    @Test
+    void restore_replaysFullAndIncrementalChain() throws Exception {
+        PasswordEntry kept = persist("github.com");
+        PasswordEntry removed = persist("gitlab.com");
+        backupService.createBackup(BackupService.BackupType.FULL);
+
+        kept.setSiteName("github.io");
+        kept.setRevision(vaultRevisionService.increment());
+        long removedAt = vaultRevisionService.increment();
+        jdbcTemplate.update("UPDATE password_entries SET deleted_at = ?, revision = ? WHERE id = ?",
+                LocalDateTime.now(), removedAt, removed.getId());
+        entityManager.persist(new DeletedEntry(removed.getId(), removedAt));
+        PasswordEntry added = persist("example.com");
+        entityManager.flush();
+        BackupInfo incremental = backupService.createBackup(BackupService.BackupType.INCREMENTAL);
+
+        persist("after-backup.com");
+        jdbcTemplate.update("DELETE FROM password_entries WHERE id = ?", kept.getId());
+        entityManager.clear();
+
+        backupService.restore(incremental.getName());
+
+        List<String> sites = jdbcTemplate.queryForList(
+                "SELECT site_name FROM password_entries WHERE deleted_at IS NULL ORDER BY site_name", String.class);
+        assertEquals(List.of("example.com", "github.io"), sites);
+        assertEquals(List.of("gitlab.com"), jdbcTemplate.queryForList(
+                "SELECT site_name FROM password_entries WHERE deleted_at IS NOT NULL", String.class));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM password_entries WHERE id = ?", Integer.class, added.getId()));
+        verify(authService).invalidateMasterPasswordCache();
+    }
+
+    @Test
+    void restore_replaysTombstoneAsMoveToTrash() throws Exception {
+        PasswordEntry trashed = persist("github.com");
+        backupService.createBackup(BackupService.BackupType.FULL);
+        entityManager.persist(new DeletedEntry(trashed.getId(), vaultRevisionService.increment()));
+        entityManager.flush();
+        BackupInfo incremental = backupService.createBackup(BackupService.BackupType.INCREMENTAL);
+        entityManager.clear();
+
+        backupService.restore(incremental.getName());
+
+        assertNotNull(jdbcTemplate.queryForObject(
+                "SELECT deleted_at FROM password_entries WHERE id = ?", LocalDateTime.class, trashed.getId()));
+    }
+
+    @Test
+    void createBackup_incremental_copiesOnlyRowsStampedAfterParent() throws Exception {
+        persist("github.com");
+        persist("gitlab.com");
+        backupService.createBackup(BackupService.BackupType.FULL);
+        persist("example.com");
+
+        BackupInfo incremental = backupService.createBackup(BackupService.BackupType.INCREMENTAL);
+
+        assertEquals("Backup is intact (2 records)", backupService.verify(incremental.getName()).getMessage());
+    }
+
+    @Test
+    void restore_dropsHistoryOfEntriesMissingFromBackup() throws Exception {
+        PasswordEntry kept = persist("github.com");
+        BackupInfo full = backupService.createBackup(BackupService.BackupType.FULL);
+        PasswordEntry added = persist("gitlab.com");
+        entityManager.persist(new EntryVersion(kept, null));
+        entityManager.persist(new EntryVersion(added, null));
+        entityManager.flush();
+        entityManager.clear();
+
+        backupService.restore(full.getName());
+
+        assertEquals(List.of(kept.getId()), jdbcTemplate.queryForList(
+                "SELECT entry_id FROM entry_versions", Long.class));
+    }
+
+    @Test
+    void restore_movesEntrySequencePastRestoredIds() throws Exception {
+        PasswordEntry entry = persist("github.com");
+        BackupInfo full = backupService.createBackup(BackupService.BackupType.FULL);
+        jdbcTemplate.execute("ALTER SEQUENCE password_entries_seq RESTART WITH 1");
+        entityManager.clear();
+
+        backupService.restore(full.getName());
+
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR password_entries_seq", Long.class);
+        assertTrue(next > entry.getId() + PasswordEntry.ID_ALLOCATION_SIZE);
+    }
+
+    @Test
+    void restore_unknownBackup_throwsNotFound() {
+        assertThrows(BackupService.BackupNotFoundException.class,
+                () -> backupService.restore("full-20240101-000000-000.bak.gz"));
+        assertThrows(BackupService.BackupNotFoundException.class,
+                () -> backupService.restore("../pwmgr.mv.db"));
+    }
+
+    @Test
+    void verify_truncatedBackup_reportsInvalid() throws Exception {
+        persist("github.com");
+        BackupInfo backup = backupService.createBackup(BackupService.BackupType.FULL);
+        Path file = backupDir.resolve(backup.getName());
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 12));
+
+        BackupInfo result = backupService.verify(backup.getName());
+
+        assertFalse(result.getValid());
+    }
+
+    @Test
+    void createBackup_full_appliesRetention() throws Exception {
+        persist("github.com");
+        BackupInfo first = backupService.createBackup(BackupService.BackupType.FULL);
+        backupService.createBackup(BackupService.BackupType.INCREMENTAL);
+        backupService.createBackup(BackupService.BackupType.FULL);
+        backupService.createBackup(BackupService.BackupType.FULL);
+
+        List<BackupInfo> backups = backupService.listBackups();
+
+        assertEquals(2, backups.size());
+        assertTrue(backups.stream().allMatch(b -> "FULL".equals(b.getType())));
+        assertFalse(Files.exists(backupDir.resolve(first.getName())));
+    }
+
+    private PasswordEntry persist(String siteName) {
+        PasswordEntry entry = new PasswordEntry();
+        entry.setSiteName(siteName);
+        entry.setUsername("user");
+        entry.setEncryptedPassword("encrypted");
+        entry.setIv("iv");
+        entry.setRevision(vaultRevisionService.increment());
+        entityManager.persist(entry);
+        entityManager.flush();
+        return entry;
+    }
+}
@@ -0,0 +1,165 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.EntryVersionResponse;
+import com.pwmgr.model.EntryVersion;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.EntryVersionRepository;
+import com.pwmgr.repository.PasswordEntryRepository;
+import com.pwmgr.security.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntryHistoryServiceTest {
+
+    @Mock
+    private EntryVersionRepository versionRepository;
+
+    @Mock
+    private PasswordEntryRepository entryRepository;
+
+    @Mock
+    private EncryptionService encryptionService;
+
+    @InjectMocks
+    private EntryHistoryService historyService;
+
+    private SecretKey mockKey;
+    private PasswordEntry entry;
+
+    @BeforeEach
+    void setUp() {
+        mockKey = mock(SecretKey.class);
+        ReflectionTestUtils.setField(historyService, "maxVersions", 2);
+
+        entry = new PasswordEntry();
+        entry.setId(1L);
+        entry.setSiteName("github.com");
+        entry.setUsername("user");
+        entry.setEncryptedPassword("oldCiphertext");
+        entry.setIv("oldIv");
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void archive_copiesCiphertextAndStoresPasswordFingerprint() throws Exception {
+        when(encryptionService.decryptWithIv("oldCiphertext", "oldIv", mockKey)).thenReturn("oldPassword");
+        when(encryptionService.fingerprint(mockKey, "password", "oldPassword")).thenReturn("fp-old");
+        when(versionRepository.findKeysByEntryIdInNewestFirst(List.of(1L)))
+                .thenReturn(Arrays.asList(key(5L, 1L), key(4L, 1L)));
+
+        historyService.archive(List.of(entry), mockKey);
+
+        ArgumentCaptor<List<EntryVersion>> captor = ArgumentCaptor.forClass(List.class);
+        verify(versionRepository).saveAll(captor.capture());
+        EntryVersion version = captor.getValue().get(0);
+        assertEquals(1L, version.getEntryId());
+        assertEquals("oldCiphertext", version.getEncryptedPassword());
+        assertEquals("oldIv", version.getIv());
+        assertEquals("fp-old", version.getPasswordFingerprint());
+        verify(versionRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void archive_prunesVersionsBeyondCap() throws Exception {
+        when(encryptionService.decryptWithIv(anyString(), anyString(), eq(mockKey))).thenReturn("oldPassword");
+        when(encryptionService.fingerprint(eq(mockKey), any(String[].class))).thenReturn("fp-old");
+        when(versionRepository.findKeysByEntryIdInNewestFirst(List.of(1L)))
+                .thenReturn(Arrays.asList(key(9L, 1L), key(8L, 1L), key(7L, 1L), key(6L, 1L)));
+
+        historyService.archive(List.of(entry), mockKey);
+
+        verify(versionRepository).deleteAllByIdInBatch(Arrays.asList(7L, 6L));
+    }
+
+    @Test
+    void archive_manyEntries_trimsWithOneQueryAndOneDelete() throws Exception {
+        when(encryptionService.decryptWithIv(anyString(), anyString(), eq(mockKey))).thenReturn("oldPassword");
+        when(encryptionService.fingerprint(eq(mockKey), any(String[].class))).thenReturn("fp-old");
+        PasswordEntry other = new PasswordEntry();
+        other.setId(2L);
+        other.setEncryptedPassword("otherCiphertext");
+        other.setIv("otherIv");
+        when(versionRepository.findKeysByEntryIdInNewestFirst(List.of(1L, 2L))).thenReturn(Arrays.asList(
+                key(9L, 1L), key(8L, 1L), key(7L, 1L),
+                key(12L, 2L), key(11L, 2L)));
+
+        historyService.archive(List.of(entry, other), mockKey);
+
+        verify(versionRepository, times(1)).findKeysByEntryIdInNewestFirst(any());
+        verify(versionRepository, times(1)).deleteAllByIdInBatch(List.of(7L));
+    }
+
+    @Test
+    void archive_withUndecryptablePassword_storesVersionWithoutFingerprint() throws Exception {
+        when(encryptionService.decryptWithIv("oldCiphertext", "oldIv", mockKey))
+                .thenThrow(new javax.crypto.AEADBadTagException("Tag mismatch"));
+        when(versionRepository.findKeysByEntryIdInNewestFirst(List.of(1L)))
+                .thenReturn(Collections.singletonList(key(3L, 1L)));
+
+        historyService.archive(List.of(entry), mockKey);
+
+        verify(versionRepository).saveAll(argThat(versions ->
+                ((List<EntryVersion>) versions).get(0).getPasswordFingerprint() == null));
+    }
+
+    @Test
+    void getHistory_decryptsVersionsNewestFirst() throws Exception {
+        EntryVersion version = new EntryVersion(entry, "fp-old");
+        when(entryRepository.existsById(1L)).thenReturn(true);
+        when(versionRepository.findByEntryIdOrderByIdDesc(1L)).thenReturn(Collections.singletonList(version));
+        when(encryptionService.decryptWithIv("oldCiphertext", "oldIv", mockKey)).thenReturn("oldPassword");
+
+        List<EntryVersionResponse> history = historyService.getHistory(1L, mockKey);
+
+        assertEquals(1, history.size());
+        assertEquals("oldPassword", history.get(0).getPassword());
+        assertNull(history.get(0).getNotes());
+    }
+
+    @Test
+    void getHistory_unknownEntry_throwsEntryNotFoundException() {
+        when(entryRepository.existsById(9L)).thenReturn(false);
+
+        assertThrows(PasswordEntryService.EntryNotFoundException.class,
+                () -> historyService.getHistory(9L, mockKey));
+    }
+
+    @Test
+    void findEntriesPreviouslyUsing_matchesByFingerprint() throws Exception {
+        when(encryptionService.fingerprint(mockKey, "password", "reused")).thenReturn("fp-reused");
+        when(versionRepository.findEntryIdsByPasswordFingerprint("fp-reused")).thenReturn(List.of(1L, 3L));
+
+        assertEquals(List.of(1L, 3L), historyService.findEntriesPreviouslyUsing("reused", mockKey));
+        verify(encryptionService, never()).decryptWithIv(anyString(), anyString(), any());
+    }
+
+    private static EntryVersionRepository.VersionKey key(Long id, Long entryId) {
+        return new EntryVersionRepository.VersionKey() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getEntryId() {
+                return entryId;
+            }
+        };
+    }
+}
@@ -0,0 +1,95 @@
+package com.pwmgr.service;
+
+import com.pwmgr.model.PasswordEntry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntryRowCacheTest {
+
+    private EntryRowCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new EntryRowCache();
+        ReflectionTestUtils.setField(cache, "maxEntries", 2);
+    }
+
+    @Test
+    void get_returnsDetachedCopy() {
+        cache.put(entry(1L), cache.generation());
+
+        PasswordEntry first = cache.get(1L).orElseThrow();
+        first.setSiteName("changed.com");
+
+        assertEquals("site1.com", cache.get(1L).orElseThrow().getSiteName());
+    }
+
+    @Test
+    void put_evictsLeastRecentlyReadRow() {
+        cache.put(entry(1L), cache.generation());
+        cache.put(entry(2L), cache.generation());
+        cache.get(1L);
+
+        cache.put(entry(3L), cache.generation());
+
+        assertEquals(2, cache.size());
+        assertTrue(cache.get(1L).isPresent());
+        assertTrue(cache.get(2L).isEmpty());
+        assertTrue(cache.get(3L).isPresent());
+    }
+
+    @Test
+    void put_withSharedSessionStore_keepsNothing() {
+        ReflectionTestUtils.setField(cache, "sessionStoreType", "jdbc");
+
+        cache.put(entry(1L), cache.generation());
+
+        assertTrue(cache.get(1L).isEmpty());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void put_afterInvalidation_dropsStaleLoad() {
+        long generation = cache.generation();
+        cache.invalidate(1L);
+
+        cache.put(entry(1L), generation);
+
+        assertTrue(cache.get(1L).isEmpty());
+    }
+
+    @Test
+    void invalidate_removesOnlyGivenRows() {
+        cache.put(entry(1L), cache.generation());
+        cache.put(entry(2L), cache.generation());
+
+        cache.invalidate(List.of(1L));
+
+        assertTrue(cache.get(1L).isEmpty());
+        assertTrue(cache.get(2L).isPresent());
+    }
+
+    @Test
+    void invalidateAll_clearsCache() {
+        cache.put(entry(1L), cache.generation());
+
+        cache.invalidateAll();
+
+        assertEquals(0, cache.size());
+    }
+
+    private PasswordEntry entry(Long id) {
+        PasswordEntry entry = new PasswordEntry();
+        entry.setId(id);
+        entry.setSiteName("site" + id + ".com");
+        entry.setUsername("user");
+        entry.setEncryptedPassword("encrypted");
+        entry.setIv("iv");
+        return entry;
+    }
+}
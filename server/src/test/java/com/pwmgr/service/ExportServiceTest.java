@@ -0,0 +1,151 @@
+package com.pwmgr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.ArchiveVerification;
+import com.pwmgr.dto.PasswordEntryResponse;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.PasswordEntryRepository;
+import com.pwmgr.security.EncryptionService;
+import com.pwmgr.service.export.VaultArchiveReader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ExportServiceTest {
+
+    private static final String PASSPHRASE = "export-passphrase";
+
+    @Mock
+    private PasswordEntryRepository entryRepository;
+
+    @Mock
+    private PasswordEntryService entryService;
+
+    private EncryptionService encryptionService;
+    private ObjectMapper objectMapper;
+    private ExportService exportService;
+    private SecretKey mockKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        encryptionService = new EncryptionService();
+        objectMapper = new ObjectMapper().findAndRegisterModules();
+        exportService = new ExportService(entryRepository, entryService, encryptionService, objectMapper);
+        mockKey = mock(SecretKey.class);
+
+        PasswordEntry first = entry(1L);
+        PasswordEntry second = entry(2L);
+        PasswordEntry third = entry(3L);
+        when(entryRepository.findByDeletedAtIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(first, second));
+        when(entryRepository.findByDeletedAtIsNullAndIdGreaterThanOrderByIdAsc(eq(2L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(third));
+        when(entryRepository.findByDeletedAtIsNullAndIdGreaterThanOrderByIdAsc(eq(3L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+        when(entryService.decryptEntry(any(PasswordEntry.class), eq(mockKey)))
+                .thenAnswer(invocation -> {
+                    PasswordEntry entry = invocation.getArgument(0);
+                    return new PasswordEntryResponse(entry.getId(), entry.getSiteName(), "user",
+                            "password" + entry.getId(), null, LocalDateTime.now(), LocalDateTime.now());
+                });
+    }
+
+    @Test
+    void exportArchive_producesVerifiableArchive() throws Exception {
+        byte[] archive = export();
+
+        ArchiveVerification result = exportService.verifyArchive(new ByteArrayInputStream(archive));
+
+        assertTrue(result.isValid(), result.getMessage());
+        assertEquals(3, result.getChunks());
+        assertEquals(3, result.getEntries());
+    }
+
+    @Test
+    void exportArchive_roundTripsWithPassphrase() throws Exception {
+        byte[] archive = export();
+
+        List<PasswordEntryResponse> entries = new ArrayList<>();
+        List<Long> skipped = VaultArchiveReader.read(
+                new ByteArrayInputStream(archive), PASSPHRASE, encryptionService, objectMapper, entries::add);
+
+        assertEquals(3, entries.size());
+        assertTrue(skipped.isEmpty());
+        assertEquals("password1", entries.get(0).getPassword());
+        assertEquals("site3.com", entries.get(2).getSiteName());
+    }
+
+    @Test
+    void exportArchive_withUndecryptableEntry_skipsItAndListsItInClosingRecord() throws Exception {
+        when(entryService.decryptEntry(argThat(entry -> entry != null && entry.getId() == 2L), eq(mockKey)))
+                .thenThrow(new IllegalStateException("Tag mismatch"));
+        byte[] archive = export();
+
+        List<PasswordEntryResponse> entries = new ArrayList<>();
+        List<Long> skipped = VaultArchiveReader.read(
+                new ByteArrayInputStream(archive), PASSPHRASE, encryptionService, objectMapper, entries::add);
+
+        assertEquals(List.of(1L, 3L), entries.stream().map(PasswordEntryResponse::getId).toList());
+        assertEquals(List.of(2L), skipped);
+        assertTrue(exportService.verifyArchive(new ByteArrayInputStream(archive)).isValid());
+    }
+
+    @Test
+    void readArchive_withWrongPassphrase_throwsException() throws Exception {
+        byte[] archive = export();
+
+        assertThrows(Exception.class, () -> VaultArchiveReader.read(
+                new ByteArrayInputStream(archive), "wrong-passphrase", encryptionService, objectMapper, e -> {}));
+    }
+
+    @Test
+    void verifyArchive_withCorruptedByte_reportsInvalid() throws Exception {
+        byte[] archive = export();
+        archive[archive.length / 2] ^= 0x01;
+
+        ArchiveVerification result = exportService.verifyArchive(new ByteArrayInputStream(archive));
+
+        assertFalse(result.isValid());
+    }
+
+    @Test
+    void verifyArchive_withTruncatedArchive_reportsTruncation() throws Exception {
+        byte[] archive = export();
+        byte[] truncated = Arrays.copyOf(archive, archive.length - 40);
+
+        ArchiveVerification result = exportService.verifyArchive(new ByteArrayInputStream(truncated));
+
+        assertFalse(result.isValid());
+        assertEquals("Archive is truncated", result.getMessage());
+    }
+
+    private byte[] export() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        exportService.exportArchive(output, PASSPHRASE, mockKey);
+        return output.toByteArray();
+    }
+
+    private PasswordEntry entry(Long id) {
+        PasswordEntry entry = new PasswordEntry();
+        entry.setId(id);
+        entry.setSiteName("site" + id + ".com");
+        return entry;
+    }
+}
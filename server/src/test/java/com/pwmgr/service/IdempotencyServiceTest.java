@@ -0,0 +1,129 @@
+package com.pwmgr.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.PasswordEntryRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyServiceTest {
+
+    private IdempotencyService idempotencyService;
+    private AtomicInteger calls;
+    private PasswordEntryRequest request;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(new ObjectMapper());
+        ReflectionTestUtils.setField(idempotencyService, "ttlMinutes", 10L);
+        ReflectionTestUtils.setField(idempotencyService, "maxEntries", 100);
+        calls = new AtomicInteger();
+        request = new PasswordEntryRequest("github.com", "user", "password", null);
+    }
+
+    @Test
+    void execute_withoutKey_alwaysRunsAction() throws Exception {
+        idempotencyService.execute("session", "POST /api/entries", null, request, this::created);
+        idempotencyService.execute("session", "POST /api/entries", null, request, this::created);
+
+        assertEquals(2, calls.get());
+        assertEquals(0, idempotencyService.size());
+    }
+
+    @Test
+    void execute_retryWithSameKey_replaysCachedResponse() throws Exception {
+        ResponseEntity<String> first = idempotencyService.execute(
+                "session", "POST /api/entries", "key-1", request, this::created);
+        ResponseEntity<String> retry = idempotencyService.execute(
+                "session", "POST /api/entries", "key-1", request, this::created);
+
+        assertEquals(1, calls.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertEquals(first.getBody(), retry.getBody());
+        assertEquals("true", retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void execute_sameKeyDifferentSessionOrScope_runsAgain() throws Exception {
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+        idempotencyService.execute("other", "POST /api/entries", "key-1", request, this::created);
+        idempotencyService.execute("session", "PUT /api/entries/1", "key-1", request, this::created);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void evictSession_dropsOnlyThatSessionsRecords() throws Exception {
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+        idempotencyService.execute("other", "POST /api/entries", "key-1", request, this::created);
+
+        idempotencyService.evictSession("session");
+
+        assertEquals(1, idempotencyService.size());
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    void execute_sameKeyDifferentBody_throwsReused() throws Exception {
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+
+        PasswordEntryRequest changed = new PasswordEntryRequest("github.com", "user", "other", null);
+        assertThrows(IdempotencyService.IdempotencyKeyReusedException.class, () ->
+                idempotencyService.execute("session", "POST /api/entries", "key-1", changed, this::created));
+    }
+
+    @Test
+    void execute_failedResponse_isNotCached() throws Exception {
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, () -> {
+            calls.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("failed");
+        });
+        ResponseEntity<String> retry = idempotencyService.execute(
+                "session", "POST /api/entries", "key-1", request, this::created);
+
+        assertEquals(2, calls.get());
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+    }
+
+    @Test
+    void execute_expiredRecord_runsAgain() throws Exception {
+        ReflectionTestUtils.setField(idempotencyService, "ttlMinutes", 0L);
+
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+        idempotencyService.evictExpired();
+
+        assertEquals(2, calls.get());
+        assertEquals(0, idempotencyService.size());
+    }
+
+    @Test
+    void execute_beyondCapacity_evictsEldest() throws Exception {
+        ReflectionTestUtils.setField(idempotencyService, "maxEntries", 2);
+
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+        idempotencyService.execute("session", "POST /api/entries", "key-2", request, this::created);
+        idempotencyService.execute("session", "POST /api/entries", "key-3", request, this::created);
+        idempotencyService.execute("session", "POST /api/entries", "key-1", request, this::created);
+
+        assertEquals(4, calls.get());
+        assertEquals(2, idempotencyService.size());
+    }
+
+    @Test
+    void execute_withOversizedKey_throwsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> idempotencyService.execute(
+                "session", "POST /api/entries", "k".repeat(256), request, this::created));
+    }
+
+    private ResponseEntity<String> created() {
+        return ResponseEntity.status(HttpStatus.CREATED).body("entry-" + calls.incrementAndGet());
+    }
+}
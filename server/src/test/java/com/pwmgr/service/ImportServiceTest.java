@@ -0,0 +1,163 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.ImportProgress;
+import com.pwmgr.dto.PasswordEntryRequest;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.PasswordEntryRepository;
+import com.pwmgr.service.importer.ImportFormat;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.SecretKey;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+
+    @Mock
+    private PasswordEntryRepository entryRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private PasswordEntryService entryService;
+
+    @Mock
+    private VaultRevisionService vaultRevisionService;
+
+    @Mock
+    private SessionEntryCache sessionEntryCache;
+
+    @InjectMocks
+    private ImportService importService;
+
+    private SecretKey mockKey;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockKey = mock(SecretKey.class);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        lenient().when(entryService.fingerprint(any(PasswordEntryRequest.class), eq(mockKey)))
+                .thenAnswer(invocation -> "fp-" + ((PasswordEntryRequest) invocation.getArgument(0)).getSiteName());
+        lenient().when(entryService.buildEntry(any(PasswordEntryRequest.class), eq(mockKey)))
+                .thenAnswer(invocation -> {
+                    PasswordEntryRequest request = invocation.getArgument(0);
+                    PasswordEntry entry = new PasswordEntry();
+                    entry.setSiteName(request.getSiteName());
+                    entry.setEncryptedPassword("enc-" + request.getPassword());
+                    return entry;
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void importEntries_skipsDuplicatesAndIncompleteRows() throws Exception {
+        String csv = "name,username,password\n" +
+                "existing.com,alice,pw1\n" +
+                "new.com,bob,pw2\n" +
+                "new.com,bob,pw2\n" +
+                "incomplete.com,,pw3\n";
+        when(entryRepository.findAllFingerprints()).thenReturn(Arrays.asList("fp-existing.com"));
+        List<String> saved = new ArrayList<>();
+        when(entryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PasswordEntry> entries = invocation.getArgument(0);
+            entries.forEach(entry -> saved.add(entry.getSiteName()));
+            return entries;
+        });
+
+        ImportProgress progress = new ImportProgress("CSV");
+        importService.importEntries(stream(csv), ImportFormat.CSV, mockKey, progress);
+
+        assertEquals(Arrays.asList("new.com"), saved);
+        assertEquals(4, progress.getParsed());
+        assertEquals(1, progress.getImported());
+        assertEquals(2, progress.getDuplicates());
+        assertEquals(1, progress.getSkipped());
+        assertTrue(progress.isCompleted());
+        assertNull(progress.getError());
+        verify(entryService).backfillFingerprints(mockKey);
+        verify(vaultRevisionService).increment();
+    }
+
+    @Test
+    void importEntries_persistsInBatches() throws Exception {
+        StringBuilder csv = new StringBuilder("name,username,password\n");
+        for (int i = 0; i < 1200; i++) {
+            csv.append("site").append(i).append(".com,user,pw\n");
+        }
+        when(entryRepository.findAllFingerprints()).thenReturn(new ArrayList<>());
+        when(entryRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ImportProgress progress = new ImportProgress("CSV");
+        importService.importEntries(stream(csv.toString()), ImportFormat.CSV, mockKey, progress);
+
+        assertEquals(1200, progress.getImported());
+        verify(entryRepository, times(3)).saveAll(anyList());
+        verify(vaultRevisionService, times(3)).increment();
+    }
+
+    @Test
+    void importEntries_skipsRowsThatExceedColumnLimits() throws Exception {
+        String csv = "name,username,password\n" +
+                "ok.com,alice,pw1\n" +
+                "x".repeat(PasswordEntry.SITE_NAME_MAX_LENGTH + 1) + ",bob,pw2\n" +
+                "long-password.com,carol," + "p".repeat(PasswordEntry.ENCRYPTED_PASSWORD_MAX_LENGTH) + "\n";
+        when(entryRepository.findAllFingerprints()).thenReturn(new ArrayList<>());
+        List<String> saved = new ArrayList<>();
+        when(entryRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<PasswordEntry> entries = invocation.getArgument(0);
+            entries.forEach(entry -> saved.add(entry.getSiteName()));
+            return entries;
+        });
+
+        ImportProgress progress = new ImportProgress("CSV");
+        importService.importEntries(stream(csv), ImportFormat.CSV, mockKey, progress);
+
+        assertEquals(List.of("ok.com"), saved);
+        assertEquals(1, progress.getImported());
+        assertEquals(2, progress.getSkipped());
+        assertNull(progress.getError());
+    }
+
+    @Test
+    void importEntries_whenPersistFails_reportsError() throws Exception {
+        when(entryRepository.findAllFingerprints()).thenReturn(new ArrayList<>());
+        when(entryRepository.saveAll(anyList())).thenThrow(new IllegalStateException("disk full"));
+
+        ImportProgress progress = new ImportProgress("CSV");
+
+        assertThrows(IllegalStateException.class, () -> importService.importEntries(
+                stream("name,username,password\nsite.com,user,pw\n"), ImportFormat.CSV, mockKey, progress));
+        assertTrue(progress.isCompleted());
+        assertEquals("disk full", progress.getError());
+    }
+
+    private InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
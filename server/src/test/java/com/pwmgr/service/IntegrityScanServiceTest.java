@@ -0,0 +1,99 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.IntegrityReport;
+import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.repository.PasswordEntryRepository;
+import com.pwmgr.security.EncryptionService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import javax.crypto.SecretKey;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IntegrityScanServiceTest {
+
+    @Mock
+    private PasswordEntryRepository entryRepository;
+
+    private EncryptionService encryptionService;
+    private IntegrityScanService scanService;
+    private SecretKey key;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        encryptionService = new EncryptionService();
+        scanService = new IntegrityScanService(entryRepository, encryptionService);
+        key = encryptionService.deriveKey("master-password", encryptionService.generateSalt());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scanService.shutdown();
+    }
+
+    @Test
+    void scan_reportsCorruptIdsAcrossBatches() throws Exception {
+        List<PasswordEntry> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            firstPage.add(entry(id, id == 7 || id == 300));
+        }
+        List<PasswordEntry> secondPage = List.of(entry(501L, false), entry(502L, true));
+        when(entryRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(firstPage);
+        when(entryRepository.findByIdGreaterThanOrderByIdAsc(eq(500L), any(Pageable.class)))
+                .thenReturn(secondPage);
+
+        IntegrityReport report = scanService.scan(key);
+
+        assertEquals(502, report.getScanned());
+        assertEquals(List.of(7L, 300L, 502L), report.getCorruptIds());
+    }
+
+    @Test
+    void scan_flagsCorruptNotes() throws Exception {
+        PasswordEntry entry = entry(1L, false);
+        EncryptionService.EncryptedData notes = encryptionService.encryptWithIv("notes", key);
+        entry.setEncryptedNotes(notes.getCiphertext());
+        entry.setNotesIv(encryptionService.generateIv());
+        when(entryRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(entry));
+
+        IntegrityReport report = scanService.scan(key);
+
+        assertEquals(List.of(1L), report.getCorruptIds());
+    }
+
+    @Test
+    void scan_emptyVault_reportsNothing() throws Exception {
+        when(entryRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class)))
+                .thenReturn(Collections.emptyList());
+
+        IntegrityReport report = scanService.scan(key);
+
+        assertEquals(0, report.getScanned());
+        assertTrue(report.getCorruptIds().isEmpty());
+    }
+
+    private PasswordEntry entry(Long id, boolean corrupt) throws Exception {
+        EncryptionService.EncryptedData password = encryptionService.encryptWithIv("password-" + id, key);
+        PasswordEntry entry = new PasswordEntry();
+        entry.setId(id);
+        entry.setSiteName("site" + id + ".com");
+        entry.setUsername("user");
+        entry.setEncryptedPassword(password.getCiphertext());
+        entry.setIv(corrupt ? encryptionService.generateIv() : password.getIv());
+        return entry;
+    }
+}
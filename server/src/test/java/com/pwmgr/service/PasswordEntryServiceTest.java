@@ -1,23 +1,44 @@
 package com.pwmgr.service;
 
+import com.pwmgr.dto.BatchOperation;
+import com.pwmgr.dto.BatchResponse;
+import com.pwmgr.dto.EntryChangesResponse;
+import com.pwmgr.dto.PasswordEntryPatchRequest;
 import com.pwmgr.dto.PasswordEntryRequest;
 import com.pwmgr.dto.PasswordEntryResponse;
+import com.pwmgr.model.DeletedEntry;
 import com.pwmgr.model.PasswordEntry;
+import com.pwmgr.model.UuidV7;
+import com.pwmgr.repository.DeletedEntryRepository;
 import com.pwmgr.repository.PasswordEntryRepository;
 import com.pwmgr.security.EncryptionService;
 import com.pwmgr.security.EncryptionService.EncryptedData;
 import com.pwmgr.service.PasswordEntryService.EntryNotFoundException;
+import com.pwmgr.service.PasswordEntryService.SyncTokenExpiredException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import javax.crypto.SecretKey;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -29,9 +50,30 @@ class PasswordEntryServiceTest {
     @Mock
     private PasswordEntryRepository entryRepository;
 
+    @Mock
+    private DeletedEntryRepository deletedEntryRepository;
+
     @Mock
     private EncryptionService encryptionService;
 
+    @Mock
+    private VaultRevisionService vaultRevisionService;
+
+    @Mock
+    private EntryHistoryService entryHistoryService;
+
+    @Mock
+    private EntryRowCache entryRowCache;
+
+    @Mock
+    private SessionEntryCache sessionEntryCache;
+
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer();
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private PasswordEntryService entryService;
 
@@ -148,6 +190,10 @@ class PasswordEntryServiceTest {
         assertEquals("updated.com", result.getSiteName());
         verify(entryRepository).findById(1L);
         verify(entryRepository).save(sampleEntry);
+        verify(entryHistoryService).archive(List.of(sampleEntry), mockKey);
+        verify(entryRowCache).invalidate(List.of(1L));
+        verify(sessionEntryCache).invalidate(List.of(1L));
+        verify(vaultRevisionService).increment();
     }
 
     @Test
@@ -165,23 +211,170 @@ class PasswordEntryServiceTest {
         verify(entryRepository, never()).save(any());
     }
 
+    @SuppressWarnings("unchecked")
     @Test
-    void deleteEntry_withValidId_deletesEntry() {
-        when(entryRepository.existsById(1L)).thenReturn(true);
+    void patchEntry_metadataOnly_issuesSingleUpdateWithoutCrypto() throws Exception {
+        when(entryRepository.updateFields(eq(1L), anyMap())).thenReturn(1);
+
+        when(vaultRevisionService.increment()).thenReturn(42L);
+
+        entryService.patchEntry(1L, new PasswordEntryPatchRequest("renamed.com", null, null, null), mockKey);
+
+        verify(entryRepository).updateFields(eq(1L), argThat(changes ->
+                changes.size() == 3
+                        && "renamed.com".equals(changes.get("siteName"))
+                        && Long.valueOf(42L).equals(changes.get("revision"))
+                        && changes.containsKey("fingerprint") && changes.get("fingerprint") == null));
+        verify(entryRepository, never()).findById(anyLong());
+        verify(entryRepository, never()).save(any());
+        verifyNoInteractions(encryptionService, entryHistoryService);
+        verify(vaultRevisionService).increment();
+    }
+
+    @Test
+    void patchEntry_notesOnly_encryptsNotesAndKeepsFingerprint() throws Exception {
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(sampleEntry));
+        when(encryptionService.encryptWithIv("new notes", mockKey))
+                .thenReturn(new EncryptedData("notesCiphertext", "notesIv"));
+        when(entryRepository.updateFields(eq(1L), anyMap())).thenReturn(1);
+
+        entryService.patchEntry(1L, new PasswordEntryPatchRequest(null, null, null, "new notes"), mockKey);
+
+        verify(entryHistoryService).archive(List.of(sampleEntry), mockKey);
+        verify(entryRepository).updateFields(eq(1L), argThat(changes ->
+                changes.size() == 3
+                        && "notesCiphertext".equals(changes.get("encryptedNotes"))
+                        && "notesIv".equals(changes.get("notesIv"))));
+        verify(encryptionService, never()).encryptWithIv(eq("password"), any());
+        verify(encryptionService, never()).fingerprint(any(), any(String[].class));
+    }
+
+    @Test
+    void patchEntry_allIdentityFields_recomputesFingerprint() throws Exception {
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(sampleEntry));
+        when(encryptionService.encryptWithIv("newPass", mockKey))
+                .thenReturn(new EncryptedData("passCiphertext", "passIv"));
+        when(encryptionService.fingerprint(mockKey, "site.com", "user", "newPass")).thenReturn("fp");
+        when(entryRepository.updateFields(eq(1L), anyMap())).thenReturn(1);
+
+        entryService.patchEntry(1L, new PasswordEntryPatchRequest("site.com", "user", "newPass", ""), mockKey);
+
+        verify(entryRepository).updateFields(eq(1L), argThat(changes ->
+                "fp".equals(changes.get("fingerprint"))
+                        && "passCiphertext".equals(changes.get("encryptedPassword"))
+                        && changes.containsKey("encryptedNotes") && changes.get("encryptedNotes") == null));
+    }
+
+    @Test
+    void patchEntry_withUnknownId_throwsEntryNotFoundException() {
+        when(entryRepository.updateFields(eq(999L), anyMap())).thenReturn(0);
+
+        assertThrows(EntryNotFoundException.class, () -> entryService.patchEntry(
+                999L, new PasswordEntryPatchRequest(null, "renamed", null, null), mockKey));
+    }
+
+    @Test
+    void patchEntry_withNoFields_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> entryService.patchEntry(
+                1L, new PasswordEntryPatchRequest(), mockKey));
+    }
+
+    @Test
+    void deleteEntry_withValidId_movesEntryToTrash() {
+        when(vaultRevisionService.increment()).thenReturn(42L);
+        when(entryRepository.moveToTrash(eq(List.of(1L)), any(LocalDateTime.class), eq(42L))).thenReturn(1);
 
         entryService.deleteEntry(1L);
 
-        verify(entryRepository).deleteById(1L);
+        verify(entryRepository, never()).deleteById(anyLong());
+        verify(deletedEntryRepository).save(argThat(tombstone -> tombstone.getEntryId().equals(1L)
+                && tombstone.getRevision().equals(42L)));
+        verify(entryHistoryService, never()).deleteHistory(any());
+        verify(entryRowCache).invalidate(List.of(1L));
+        verify(sessionEntryCache).invalidate(List.of(1L));
+        verify(vaultRevisionService).increment();
     }
 
     @Test
     void deleteEntry_withInvalidId_throwsEntryNotFoundException() {
-        when(entryRepository.existsById(999L)).thenReturn(false);
+        when(entryRepository.moveToTrash(eq(List.of(999L)), any(LocalDateTime.class), anyLong())).thenReturn(0);
 
         assertThrows(EntryNotFoundException.class,
                 () -> entryService.deleteEntry(999L));
 
-        verify(entryRepository, never()).deleteById(anyLong());
+        verify(deletedEntryRepository, never()).save(any());
+    }
+
+    @Test
+    void restoreEntry_clearsTrashAndTombstone() throws Exception {
+        when(entryRepository.restoreFromTrash(eq(1L), any(LocalDateTime.class), anyLong())).thenReturn(1);
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(sampleEntry));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        PasswordEntryResponse result = entryService.restoreEntry(1L, mockKey);
+
+        assertEquals(1L, result.getId());
+        verify(deletedEntryRepository).deleteByEntryId(1L);
+        verify(vaultRevisionService).increment();
+    }
+
+    @Test
+    void restoreEntry_notInTrash_throwsEntryNotFoundException() {
+        when(entryRepository.restoreFromTrash(eq(1L), any(LocalDateTime.class), anyLong())).thenReturn(0);
+
+        assertThrows(EntryNotFoundException.class, () -> entryService.restoreEntry(1L, mockKey));
+
+        verify(deletedEntryRepository, never()).deleteByEntryId(anyLong());
+    }
+
+    @Test
+    void getEntry_trashedEntry_throwsEntryNotFoundException() {
+        sampleEntry.setDeletedAt(LocalDateTime.now());
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(sampleEntry));
+
+        assertThrows(EntryNotFoundException.class, () -> entryService.getEntry(1L, mockKey));
+    }
+
+    @Test
+    void getTrash_returnsTrashedEntriesWithDeletionTime() throws Exception {
+        LocalDateTime deletedAt = LocalDateTime.now();
+        sampleEntry.setDeletedAt(deletedAt);
+        when(entryRepository.findByDeletedAtIsNotNullOrderByDeletedAtDesc()).thenReturn(List.of(sampleEntry));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        List<PasswordEntryResponse> trash = entryService.getTrash(mockKey);
+
+        assertEquals(1, trash.size());
+        assertEquals(deletedAt, trash.get(0).getDeletedAt());
+    }
+
+    @Test
+    void purgeTrash_hardDeletesExpiredEntriesInBatches() {
+        List<Long> fullBatch = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            fullBatch.add(id);
+        }
+        when(entryRepository.findIdsTrashedBefore(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(fullBatch)
+                .thenReturn(List.of(501L));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        entryService.purgeTrash();
+
+        verify(entryRepository).deleteAllByIdInBatch(fullBatch);
+        verify(entryRepository).deleteAllByIdInBatch(List.of(501L));
+        verify(entryHistoryService).deleteHistory(fullBatch);
+        verify(entryHistoryService).deleteHistory(List.of(501L));
+        verify(transactionTemplate, times(2)).executeWithoutResult(any());
     }
 
     @Test
@@ -202,6 +395,34 @@ class PasswordEntryServiceTest {
         assertEquals("decrypted notes", result.getNotes());
     }
 
+    @Test
+    void getEntry_cachedRow_skipsRepository() throws Exception {
+        when(entryRowCache.get(1L)).thenReturn(Optional.of(sampleEntry));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        PasswordEntryResponse result = entryService.getEntry(1L, mockKey);
+
+        assertEquals("decryptedPassword", result.getPassword());
+        verify(entryRepository, never()).findById(any());
+    }
+
+    @Test
+    void getEntry_cacheMiss_loadsAndCachesRow() throws Exception {
+        when(entryRowCache.generation()).thenReturn(7L);
+        when(entryRepository.findById(1L)).thenReturn(Optional.of(sampleEntry));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        entryService.getEntry(1L, mockKey);
+
+        verify(entryRowCache).put(sampleEntry, 7L);
+    }
+
     @Test
     void getEntry_withInvalidId_throwsEntryNotFoundException() {
         when(entryRepository.findById(999L)).thenReturn(Optional.empty());
@@ -210,6 +431,49 @@ class PasswordEntryServiceTest {
                 () -> entryService.getEntry(999L, mockKey));
     }
 
+    @Test
+    void getAllEntriesForSession_cacheMiss_loadsAndCachesList() throws Exception {
+        when(vaultRevisionService.getRevision()).thenReturn(4L);
+        when(sessionEntryCache.generation()).thenReturn(3L);
+        when(entryRepository.findByDeletedAtIsNullOrderBySiteNameAsc()).thenReturn(List.of(sampleEntry));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        List<PasswordEntryResponse> result = entryService.getAllEntries(mockKey, "session-1");
+
+        assertEquals(1, result.size());
+        verify(sessionEntryCache).put("session-1", result, 3L);
+        verify(requestCoalescer).execute(eq("session-1\u00004\u0000list\u0000"), any());
+    }
+
+    @Test
+    void getAllEntriesForSession_staleIds_reloadsOnlyThoseRows() throws Exception {
+        SessionEntryCache cache = new SessionEntryCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", 1_000_000L);
+        PasswordEntryResponse cached = new PasswordEntryResponse(2L, "aaa.com", "bob", "pw", null, null, null);
+        PasswordEntryResponse old = new PasswordEntryResponse(1L, "github.com", "testuser", "old", null, null, null);
+        cache.put("session-1", List.of(cached, old), cache.generation());
+        cache.invalidate(1L);
+
+        when(sessionEntryCache.get("session-1")).thenReturn(cache.get("session-1"));
+        when(entryRepository.findAllById(Set.of(1L))).thenReturn(List.of(sampleEntry));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        List<PasswordEntryResponse> result = entryService.getAllEntries(mockKey, "session-1");
+
+        assertEquals(List.of("aaa.com", "github.com"),
+                result.stream().map(PasswordEntryResponse::getSiteName).collect(Collectors.toList()));
+        assertEquals("decryptedPassword", result.get(1).getPassword());
+        verify(entryRepository, never()).findByDeletedAtIsNullOrderBySiteNameAsc();
+        verify(sessionEntryCache).merge(any(), eq("session-1"), anyList());
+    }
+
     @Test
     void getAllEntries_returnsAllEntriesSortedBySiteName() throws Exception {
         PasswordEntry entry1 = new PasswordEntry();
@@ -226,7 +490,7 @@ class PasswordEntryServiceTest {
         entry2.setEncryptedPassword("enc2");
         entry2.setIv("iv2");
 
-        when(entryRepository.findAllByOrderBySiteNameAsc())
+        when(entryRepository.findByDeletedAtIsNullOrderBySiteNameAsc())
                 .thenReturn(Arrays.asList(entry1, entry2));
         when(encryptionService.decryptWithIv("enc1", "iv1", mockKey))
                 .thenReturn("pass1");
@@ -240,6 +504,34 @@ class PasswordEntryServiceTest {
         assertEquals("zebra.com", results.get(1).getSiteName());
     }
 
+    @Test
+    void getAllEntries_flagsCorruptEntryInsteadOfFailing() throws Exception {
+        PasswordEntry corrupt = new PasswordEntry();
+        corrupt.setId(2L);
+        corrupt.setSiteName("broken.com");
+        corrupt.setUsername("user2");
+        corrupt.setEncryptedPassword("damaged");
+        corrupt.setIv("iv2");
+
+        when(entryRepository.findByDeletedAtIsNullOrderBySiteNameAsc())
+                .thenReturn(Arrays.asList(corrupt, sampleEntry));
+        when(encryptionService.decryptWithIv("damaged", "iv2", mockKey))
+                .thenThrow(new javax.crypto.AEADBadTagException("Tag mismatch"));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        List<PasswordEntryResponse> results = entryService.getAllEntries(mockKey);
+
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).isCorrupt());
+        assertEquals("broken.com", results.get(0).getSiteName());
+        assertNull(results.get(0).getPassword());
+        assertFalse(results.get(1).isCorrupt());
+        assertEquals("decryptedPassword", results.get(1).getPassword());
+    }
+
     @Test
     void searchEntries_returnsMatchingEntries() throws Exception {
         when(entryRepository.searchByQuery("github"))
@@ -255,4 +547,207 @@ class PasswordEntryServiceTest {
         assertEquals("github.com", results.get(0).getSiteName());
         verify(entryRepository).searchByQuery("github");
     }
+
+    @Test
+    void getChanges_withoutToken_returnsAllEntries() throws Exception {
+        when(entryRepository.findByDeletedAtIsNullOrderBySiteNameAsc())
+                .thenReturn(Arrays.asList(sampleEntry));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        EntryChangesResponse changes = entryService.getChanges(null, mockKey);
+
+        assertEquals(1, changes.getEntries().size());
+        assertTrue(changes.getDeletedIds().isEmpty());
+        assertNotNull(changes.getToken());
+        verify(deletedEntryRepository, never()).findByRevisionGreaterThan(any());
+    }
+
+    @Test
+    void getChanges_withToken_returnsEntriesAndTombstonesStampedAfterIt() throws Exception {
+        when(vaultRevisionService.getRevision()).thenReturn(120L);
+        when(vaultRevisionService.getSyncHorizon()).thenReturn(100L);
+        when(entryRepository.findByDeletedAtIsNullAndRevisionGreaterThanOrderBySiteNameAsc(110L))
+                .thenReturn(Arrays.asList(sampleEntry));
+        when(deletedEntryRepository.findByRevisionGreaterThan(110L))
+                .thenReturn(Arrays.asList(new DeletedEntry(7L), new DeletedEntry(7L), new DeletedEntry(9L)));
+        when(encryptionService.decryptWithIv("encryptedPass", "iv123", mockKey))
+                .thenReturn("decryptedPassword");
+        when(encryptionService.decryptWithIv("encryptedNotes", "notesIv123", mockKey))
+                .thenReturn("decrypted notes");
+
+        EntryChangesResponse changes = entryService.getChanges("110", mockKey);
+
+        assertEquals(1, changes.getEntries().size());
+        assertEquals(Arrays.asList(7L, 9L), changes.getDeletedIds());
+        assertEquals("120", changes.getToken());
+        verify(entryRepository, never()).findByDeletedAtIsNullOrderBySiteNameAsc();
+    }
+
+    @Test
+    void getChanges_withTokenBelowHorizon_throwsSyncTokenExpiredException() {
+        when(vaultRevisionService.getRevision()).thenReturn(120L);
+        when(vaultRevisionService.getSyncHorizon()).thenReturn(100L);
+
+        assertThrows(SyncTokenExpiredException.class,
+                () -> entryService.getChanges("99", mockKey));
+    }
+
+    @Test
+    void getChanges_withTokenAheadOfRevision_throwsSyncTokenExpiredException() {
+        when(vaultRevisionService.getRevision()).thenReturn(120L);
+
+        assertThrows(SyncTokenExpiredException.class,
+                () -> entryService.getChanges("121", mockKey));
+    }
+
+    @Test
+    void purgeExpiredTombstones_raisesHorizonBeforeDeleting() {
+        ReflectionTestUtils.setField(entryService, "tombstoneRetentionDays", 30);
+        when(deletedEntryRepository.findMaxRevisionDeletedBefore(any(LocalDateTime.class)))
+                .thenReturn(Optional.of(105L));
+
+        entryService.purgeExpiredTombstones();
+
+        InOrder inOrder = inOrder(vaultRevisionService, deletedEntryRepository);
+        inOrder.verify(vaultRevisionService).raiseSyncHorizon(105L);
+        inOrder.verify(deletedEntryRepository).deleteByDeletedAtBefore(any(LocalDateTime.class));
+    }
+
+    @Test
+    void getChanges_withMalformedToken_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> entryService.getChanges("not-a-token", mockKey));
+    }
+
+    @Test
+    void applyBatch_appliesMixedOperations() throws Exception {
+        PasswordEntryRequest createRequest = new PasswordEntryRequest("new.com", "alice", "newPass", null);
+        PasswordEntryRequest updateRequest = new PasswordEntryRequest("github.com", "renamed", "updatedPass", "notes");
+
+        PasswordEntry toDelete = new PasswordEntry();
+        toDelete.setId(2L);
+
+        when(entryRepository.findAllById(any()))
+                .thenReturn(Arrays.asList(sampleEntry, toDelete));
+        when(encryptionService.encryptWithIv(anyString(), eq(mockKey)))
+                .thenReturn(new EncryptedData("ciphertext", "iv"));
+
+        BatchResponse result = entryService.applyBatch(Arrays.asList(
+                new BatchOperation(BatchOperation.Type.CREATE, null, createRequest),
+                new BatchOperation(BatchOperation.Type.UPDATE, 1L, updateRequest),
+                new BatchOperation(BatchOperation.Type.DELETE, 2L, null)
+        ), mockKey);
+
+        assertEquals(1, result.getCreated().size());
+        assertEquals("newPass", result.getCreated().get(0).getPassword());
+        assertNull(result.getCreated().get(0).getNotes());
+        assertEquals(1, result.getUpdated().size());
+        assertEquals("renamed", result.getUpdated().get(0).getUsername());
+        assertEquals(Arrays.asList(2L), result.getDeletedIds());
+
+        verify(entryRepository).moveToTrash(eq(Arrays.asList(2L)), any(LocalDateTime.class), anyLong());
+        verify(deletedEntryRepository).saveAll(any());
+        verify(entryHistoryService).archive(List.of(sampleEntry), mockKey);
+        verify(entryRepository).flush();
+        verify(vaultRevisionService, times(1)).increment();
+        verify(encryptionService, never()).decryptWithIv(anyString(), anyString(), any());
+    }
+
+    @Test
+    void createEntry_withClientUuid_keepsIt() throws Exception {
+        UUID uuid = UuidV7.generate();
+        PasswordEntryRequest request = new PasswordEntryRequest("new.com", "alice", "pass", null);
+        request.setUuid(uuid);
+        when(entryRepository.existsByUuid(uuid)).thenReturn(false);
+        when(encryptionService.encryptWithIv("pass", mockKey)).thenReturn(new EncryptedData("ct", "iv"));
+        when(entryRepository.save(any(PasswordEntry.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(encryptionService.decryptWithIv("ct", "iv", mockKey)).thenReturn("pass");
+
+        PasswordEntryResponse result = entryService.createEntry(request, mockKey);
+
+        assertEquals(uuid, result.getUuid());
+        verify(entryRepository).save(argThat(entry -> uuid.equals(entry.getUuid())));
+    }
+
+    @Test
+    void createEntry_withNonV7Uuid_throwsIllegalArgumentException() {
+        PasswordEntryRequest request = new PasswordEntryRequest("new.com", "alice", "pass", null);
+        request.setUuid(UUID.randomUUID());
+
+        assertThrows(IllegalArgumentException.class, () -> entryService.createEntry(request, mockKey));
+        verify(entryRepository, never()).save(any());
+    }
+
+    @Test
+    void createEntry_withExistingUuid_throwsDuplicateEntryException() {
+        UUID uuid = UuidV7.generate();
+        PasswordEntryRequest request = new PasswordEntryRequest("new.com", "alice", "pass", null);
+        request.setUuid(uuid);
+        when(entryRepository.existsByUuid(uuid)).thenReturn(true);
+
+        assertThrows(PasswordEntryService.DuplicateEntryException.class,
+                () -> entryService.createEntry(request, mockKey));
+        verify(entryRepository, never()).save(any());
+    }
+
+    @Test
+    void applyBatch_targetsEntriesByUuid() throws Exception {
+        UUID uuid = UuidV7.generate();
+        sampleEntry.setUuid(uuid);
+        BatchOperation delete = new BatchOperation(BatchOperation.Type.DELETE, null, null);
+        delete.setUuid(uuid);
+        when(entryRepository.findByUuidIn(Set.of(uuid))).thenReturn(List.of(sampleEntry));
+        when(entryRepository.findAllById(any())).thenReturn(List.of(sampleEntry));
+
+        BatchResponse result = entryService.applyBatch(List.of(delete), mockKey);
+
+        assertEquals(List.of(1L), result.getDeletedIds());
+        verify(entryRepository).moveToTrash(eq(List.of(1L)), any(LocalDateTime.class), anyLong());
+    }
+
+    @Test
+    void applyBatch_createWithTakenUuid_throwsDuplicateEntryException() {
+        UUID uuid = UuidV7.generate();
+        PasswordEntryRequest request = new PasswordEntryRequest("new.com", "alice", "pass", null);
+        request.setUuid(uuid);
+        when(entryRepository.findExistingUuids(any())).thenReturn(List.of(uuid));
+
+        assertThrows(PasswordEntryService.DuplicateEntryException.class, () -> entryService.applyBatch(
+                List.of(new BatchOperation(BatchOperation.Type.CREATE, null, request)), mockKey));
+        verify(entryRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void applyBatch_withUnknownId_throwsEntryNotFoundException() {
+        PasswordEntryRequest updateRequest = new PasswordEntryRequest("site.com", "user", "pass", null);
+
+        when(entryRepository.findAllById(any())).thenReturn(Collections.emptyList());
+
+        assertThrows(EntryNotFoundException.class, () -> entryService.applyBatch(Arrays.asList(
+                new BatchOperation(BatchOperation.Type.UPDATE, 42L, updateRequest)
+        ), mockKey));
+
+        verify(entryRepository, never()).saveAll(any());
+        verify(vaultRevisionService, never()).increment();
+    }
+
+    @Test
+    void applyBatch_withDuplicateTarget_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> entryService.applyBatch(Arrays.asList(
+                new BatchOperation(BatchOperation.Type.DELETE, 1L, null),
+                new BatchOperation(BatchOperation.Type.DELETE, 1L, null)
+        ), mockKey));
+
+        verify(entryRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void applyBatch_createWithoutEntry_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> entryService.applyBatch(Arrays.asList(
+                new BatchOperation(BatchOperation.Type.CREATE, null, null)
+        ), mockKey));
+    }
 }
@@ -0,0 +1,75 @@
+package com.pwmgr.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    @Test
+    void execute_concurrentCallsWithSameKey_shareOneComputation() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Object> firstResult = new AtomicReference<>();
+        AtomicReference<Object> secondResult = new AtomicReference<>();
+
+        Thread first = new Thread(() -> firstResult.set(call(() -> {
+            loads.incrementAndGet();
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of("result");
+        })));
+        first.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        Thread second = new Thread(() -> secondResult.set(call(() -> {
+            loads.incrementAndGet();
+            return List.of("other");
+        })));
+        second.start();
+        while (second.getState() != Thread.State.WAITING && second.isAlive()) {
+            Thread.sleep(5);
+        }
+        release.countDown();
+        first.join(5000);
+        second.join(5000);
+
+        assertSame(firstResult.get(), secondResult.get());
+        assertEquals(1, loads.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void execute_differentKeys_runSeparately() throws Exception {
+        assertEquals("a", coalescer.execute("key-a", () -> "a"));
+        assertEquals("b", coalescer.execute("key-b", () -> "b"));
+    }
+
+    @Test
+    void execute_failure_isNotCached() throws Exception {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute("key", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("ok", coalescer.execute("key", () -> "ok"));
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    private Object call(Callable<List<String>> loader) {
+        try {
+            return coalescer.execute("key", loader);
+        } catch (Exception e) {
+            return e;
+        }
+    }
+}
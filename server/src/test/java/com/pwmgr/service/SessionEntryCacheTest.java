@@ -0,0 +1,143 @@
+package com.pwmgr.service;
+
+import com.pwmgr.dto.PasswordEntryResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionEntryCacheTest {
+
+    private SessionEntryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SessionEntryCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "maxBytes", 100_000L);
+        ReflectionTestUtils.setField(cache, "idleMinutes", 10L);
+    }
+
+    @Test
+    void get_returnsEntriesSortedBySiteName() {
+        cache.put("s1", List.of(entry(2L, "zeta.com"), entry(1L, "alpha.com")), cache.generation());
+
+        SessionEntryCache.Snapshot snapshot = cache.get("s1");
+
+        assertEquals(List.of(1L, 2L), snapshot.getEntries().stream().map(PasswordEntryResponse::getId).toList());
+        assertTrue(snapshot.getStaleIds().isEmpty());
+    }
+
+    @Test
+    void invalidate_marksIdsStaleInEverySession() {
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+        cache.put("s2", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        cache.invalidate(List.of(1L, 5L));
+
+        assertEquals(Set.of(1L, 5L), cache.get("s1").getStaleIds());
+        assertEquals(Set.of(1L, 5L), cache.get("s2").getStaleIds());
+    }
+
+    @Test
+    void merge_replacesStaleEntriesAndClearsThem() {
+        cache.put("s1", List.of(entry(1L, "alpha.com"), entry(2L, "beta.com")), cache.generation());
+        cache.invalidate(List.of(1L, 2L));
+        SessionEntryCache.Snapshot snapshot = cache.get("s1");
+
+        List<PasswordEntryResponse> reloaded = List.of(entry(1L, "gamma.com"));
+        cache.merge(snapshot, "s1", reloaded);
+
+        SessionEntryCache.Snapshot after = cache.get("s1");
+        assertTrue(after.getStaleIds().isEmpty());
+        assertEquals(List.of("gamma.com"), after.getEntries().stream().map(PasswordEntryResponse::getSiteName).toList());
+        assertEquals(after.getEntries().size(), snapshot.withReloaded(reloaded).size());
+    }
+
+    @Test
+    void merge_keepsIdsInvalidatedAfterSnapshotStale() {
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+        cache.invalidate(1L);
+        SessionEntryCache.Snapshot snapshot = cache.get("s1");
+        cache.invalidate(1L);
+
+        cache.merge(snapshot, "s1", List.of(entry(1L, "alpha.com")));
+
+        assertEquals(Set.of(1L), cache.get("s1").getStaleIds());
+    }
+
+    @Test
+    void put_afterConcurrentWrite_isDropped() {
+        long generation = cache.generation();
+        cache.invalidate(1L);
+
+        cache.put("s1", List.of(entry(1L, "alpha.com")), generation);
+
+        assertNull(cache.get("s1"));
+    }
+
+    @Test
+    void put_overByteBudget_evictsLeastRecentlyUsedSession() {
+        ReflectionTestUtils.setField(cache, "maxBytes", 500L);
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+        cache.put("s2", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        cache.put("s3", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        assertNull(cache.get("s1"));
+        assertNotNull(cache.get("s3"));
+        assertTrue(cache.getTotalBytes() <= 500L);
+    }
+
+    @Test
+    void evict_dropsSession() {
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        cache.evict("s1");
+
+        assertNull(cache.get("s1"));
+        assertEquals(0, cache.getTotalBytes());
+    }
+
+    @Test
+    void evictIdle_dropsSessionsUnusedPastIdleTime() {
+        ReflectionTestUtils.setField(cache, "idleMinutes", 0L);
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        cache.evictIdle();
+
+        assertNull(cache.get("s1"));
+    }
+
+    @Test
+    void get_whenDisabled_returnsNull() {
+        ReflectionTestUtils.setField(cache, "enabled", false);
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        assertNull(cache.get("s1"));
+    }
+
+    @Test
+    void get_inStatelessMode_returnsNull() {
+        ReflectionTestUtils.setField(cache, "authMode", "stateless");
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        assertNull(cache.get("s1"));
+    }
+
+    @Test
+    void get_withSharedSessionStore_returnsNull() {
+        ReflectionTestUtils.setField(cache, "sessionStoreType", "jdbc");
+        cache.put("s1", List.of(entry(1L, "alpha.com")), cache.generation());
+
+        assertNull(cache.get("s1"));
+    }
+
+    private PasswordEntryResponse entry(Long id, String siteName) {
+        return new PasswordEntryResponse(id, siteName, "user", "password", null, null, null);
+    }
+}
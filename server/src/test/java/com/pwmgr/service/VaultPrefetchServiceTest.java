@@ -0,0 +1,54 @@
+package com.pwmgr.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VaultPrefetchServiceTest {
+
+    @Mock
+    private PasswordEntryService entryService;
+
+    @InjectMocks
+    private VaultPrefetchService prefetchService;
+
+    private SecretKey mockKey;
+
+    @BeforeEach
+    void setUp() {
+        mockKey = mock(SecretKey.class);
+        ReflectionTestUtils.setField(prefetchService, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetchService.shutdown();
+    }
+
+    @Test
+    void prefetch_loadsVaultIntoSessionCacheInBackground() throws Exception {
+        prefetchService.prefetch("session-1", mockKey);
+
+        verify(entryService, timeout(2000)).getAllEntries(mockKey, "session-1");
+    }
+
+    @Test
+    void prefetch_whenDisabled_doesNothing() throws Exception {
+        ReflectionTestUtils.setField(prefetchService, "enabled", false);
+
+        prefetchService.prefetch("session-1", mockKey);
+
+        verify(entryService, after(200).never()).getAllEntries(any(), any());
+    }
+}
@@ -0,0 +1,71 @@
+package com.pwmgr.service;
+
+import com.pwmgr.repository.VaultRevisionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class VaultRevisionServiceTest {
+
+    @Autowired
+    private VaultRevisionRepository vaultRevisionRepository;
+
+    private VaultRevisionService vaultRevisionService;
+
+    @BeforeEach
+    void setUp() {
+        vaultRevisionService = new VaultRevisionService(vaultRevisionRepository);
+        vaultRevisionService.seed();
+    }
+
+    @Test
+    void increment_changesETag() {
+        long revision = vaultRevisionService.getRevision();
+        String before = vaultRevisionService.getETag();
+
+        vaultRevisionService.increment();
+
+        assertNotEquals(before, vaultRevisionService.getETag());
+        assertEquals(revision + 1, vaultRevisionService.getRevision());
+    }
+
+    @Test
+    void revision_isSharedThroughTheDatabase() {
+        VaultRevisionService otherNode = new VaultRevisionService(vaultRevisionRepository);
+        otherNode.seed();
+
+        vaultRevisionService.increment();
+
+        assertEquals(vaultRevisionService.getETag(), otherNode.getETag());
+    }
+
+    @Test
+    void matches_withCurrentETag_returnsTrue() {
+        String eTag = vaultRevisionService.getETag();
+
+        assertTrue(vaultRevisionService.matches(eTag, eTag));
+        assertTrue(vaultRevisionService.matches("W/" + eTag, eTag));
+        assertTrue(vaultRevisionService.matches("\"other\", " + eTag, eTag));
+        assertTrue(vaultRevisionService.matches("*", eTag));
+    }
+
+    @Test
+    void matches_withStaleETag_returnsFalse() {
+        String stale = vaultRevisionService.getETag();
+        vaultRevisionService.increment();
+
+        assertFalse(vaultRevisionService.matches(stale, vaultRevisionService.getETag()));
+    }
+
+    @Test
+    void matches_withMissingHeader_returnsFalse() {
+        String eTag = vaultRevisionService.getETag();
+
+        assertFalse(vaultRevisionService.matches(null, eTag));
+        assertFalse(vaultRevisionService.matches("", eTag));
+    }
+}
@@ -0,0 +1,65 @@
+package com.pwmgr.service.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pwmgr.dto.PasswordEntryResponse;
+import com.pwmgr.security.EncryptionService;
+
+import javax.crypto.SecretKey;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Decrypts a {@link VaultArchive} so tests can check what an export wrote.
+ * Returns the ids the closing record reports as skipped.
+ */
+public final class VaultArchiveReader {
+
+    private VaultArchiveReader() {}
+
+    public static List<Long> read(InputStream input, String passphrase, EncryptionService encryptionService,
+                                  ObjectMapper objectMapper, Consumer<PasswordEntryResponse> sink) throws Exception {
+        MessageDigest digest = VaultArchive.sha256();
+        DigestInputStream digestInput = new DigestInputStream(input, digest);
+        DataInputStream in = new DataInputStream(digestInput);
+
+        byte[] salt = VaultArchive.readHeader(in);
+        byte[] headerDigest = VaultArchive.sha256().digest(VaultArchive.header(salt));
+        SecretKey key = encryptionService.deriveKey(passphrase, Base64.getEncoder().encodeToString(salt));
+        List<Long> skippedIds = new ArrayList<>();
+        for (long chunkIndex = 0; ; chunkIndex++) {
+            int entryCount = in.readInt();
+            byte[] sealed = VaultArchive.readRecordBody(in, entryCount);
+            byte[] plaintext = encryptionService.decryptBytes(
+                    sealed, VaultArchive.aad(headerDigest, chunkIndex, entryCount == 0), key);
+            if (entryCount == 0) {
+                for (JsonNode id : objectMapper.readTree(plaintext).path("skippedIds")) {
+                    skippedIds.add(id.asLong());
+                }
+                break;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(new ByteArrayInputStream(plaintext)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    sink.accept(objectMapper.readValue(line, PasswordEntryResponse.class));
+                }
+            }
+        }
+
+        digestInput.on(false);
+        VaultArchive.checkTrailer(in, digest.digest());
+        return skippedIds;
+    }
+}
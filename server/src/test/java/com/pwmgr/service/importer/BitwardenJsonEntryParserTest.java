@@ -0,0 +1,49 @@
+package com.pwmgr.service.importer;
+
+import com.pwmgr.dto.PasswordEntryRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitwardenJsonEntryParserTest {
+
+    private final BitwardenJsonEntryParser parser = new BitwardenJsonEntryParser();
+
+    @Test
+    void parse_loginItems_mapsFields() throws Exception {
+        String json = "{\"encrypted\":false,\"folders\":[{\"id\":\"f1\",\"name\":\"Work\"}],\"items\":[" +
+                "{\"type\":1,\"name\":\"github.com\",\"notes\":\"2fa on\"," +
+                "\"login\":{\"username\":\"alice\",\"password\":\"s3cret\",\"uris\":[{\"uri\":\"https://github.com\"}]}}," +
+                "{\"type\":2,\"name\":\"secure note\",\"notes\":\"not a login\"}," +
+                "{\"type\":1,\"name\":\"\",\"login\":{\"username\":\"bob\",\"password\":\"pw\"," +
+                "\"uris\":[{\"uri\":\"https://example.com\"}]}}" +
+                "]}";
+
+        List<PasswordEntryRequest> entries = parse(json);
+
+        assertEquals(2, entries.size());
+        assertEquals("github.com", entries.get(0).getSiteName());
+        assertEquals("alice", entries.get(0).getUsername());
+        assertEquals("s3cret", entries.get(0).getPassword());
+        assertEquals("2fa on", entries.get(0).getNotes());
+        assertEquals("https://example.com", entries.get(1).getSiteName());
+        assertNull(entries.get(1).getNotes());
+    }
+
+    @Test
+    void parse_encryptedExport_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> parse("{\"encrypted\":true,\"data\":\"...\"}"));
+    }
+
+    private List<PasswordEntryRequest> parse(String json) throws Exception {
+        List<PasswordEntryRequest> entries = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), entries::add);
+        return entries;
+    }
+}
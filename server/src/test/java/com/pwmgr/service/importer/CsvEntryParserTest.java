@@ -0,0 +1,72 @@
+package com.pwmgr.service.importer;
+
+import com.pwmgr.dto.PasswordEntryRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvEntryParserTest {
+
+    private final CsvEntryParser parser = new CsvEntryParser();
+
+    @Test
+    void parse_chromeExport_mapsColumns() throws Exception {
+        String csv = "name,url,username,password,note\n" +
+                "github.com,https://github.com,alice,s3cret,work account\n";
+
+        List<PasswordEntryRequest> entries = parse(csv);
+
+        assertEquals(1, entries.size());
+        assertEquals("github.com", entries.get(0).getSiteName());
+        assertEquals("alice", entries.get(0).getUsername());
+        assertEquals("s3cret", entries.get(0).getPassword());
+        assertEquals("work account", entries.get(0).getNotes());
+    }
+
+    @Test
+    void parse_bitwardenExport_mapsLoginColumns() throws Exception {
+        String csv = "\uFEFFfolder,favorite,type,name,notes,fields,reprompt,login_uri,login_username,login_password,login_totp\r\n" +
+                ",,login,example.com,,,0,https://example.com,bob,hunter2,\r\n";
+
+        List<PasswordEntryRequest> entries = parse(csv);
+
+        assertEquals(1, entries.size());
+        assertEquals("example.com", entries.get(0).getSiteName());
+        assertEquals("bob", entries.get(0).getUsername());
+        assertEquals("hunter2", entries.get(0).getPassword());
+    }
+
+    @Test
+    void parse_quotedFields_handlesCommasQuotesAndNewlines() throws Exception {
+        String csv = "name,username,password,notes\n" +
+                "\"site, inc\",user,\"pa\"\"ss\",\"line one\nline two\"\n";
+
+        List<PasswordEntryRequest> entries = parse(csv);
+
+        assertEquals(1, entries.size());
+        assertEquals("site, inc", entries.get(0).getSiteName());
+        assertEquals("pa\"ss", entries.get(0).getPassword());
+        assertEquals("line one\nline two", entries.get(0).getNotes());
+    }
+
+    @Test
+    void parse_withoutPasswordColumn_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> parse("name,username\nsite,user\n"));
+    }
+
+    @Test
+    void parse_emptyInput_producesNoEntries() throws Exception {
+        assertTrue(parse("").isEmpty());
+    }
+
+    private List<PasswordEntryRequest> parse(String csv) throws Exception {
+        List<PasswordEntryRequest> entries = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), entries::add);
+        return entries;
+    }
+}
@@ -0,0 +1,57 @@
+package com.pwmgr.service.importer;
+
+import com.pwmgr.dto.PasswordEntryRequest;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeePassXmlEntryParserTest {
+
+    private final KeePassXmlEntryParser parser = new KeePassXmlEntryParser();
+
+    @Test
+    void parse_entriesInNestedGroups_skipsHistory() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"utf-8\"?><KeePassFile><Root><Group><Name>Root</Name>" +
+                "<Entry><String><Key>Title</Key><Value>github.com</Value></String>" +
+                "<String><Key>UserName</Key><Value>alice</Value></String>" +
+                "<String><Key>Password</Key><Value Protected=\"True\">current</Value></String>" +
+                "<String><Key>Notes</Key><Value>work</Value></String>" +
+                "<History><Entry><String><Key>Password</Key><Value>old</Value></String></Entry></History>" +
+                "</Entry>" +
+                "<Group><Name>Sub</Name><Entry>" +
+                "<String><Key>Title</Key><Value/></String>" +
+                "<String><Key>URL</Key><Value>https://example.com</Value></String>" +
+                "<String><Key>UserName</Key><Value>bob</Value></String>" +
+                "<String><Key>Password</Key><Value>pw</Value></String>" +
+                "</Entry></Group></Group></Root></KeePassFile>";
+
+        List<PasswordEntryRequest> entries = parse(xml);
+
+        assertEquals(2, entries.size());
+        assertEquals("github.com", entries.get(0).getSiteName());
+        assertEquals("current", entries.get(0).getPassword());
+        assertEquals("work", entries.get(0).getNotes());
+        assertEquals("https://example.com", entries.get(1).getSiteName());
+        assertEquals("bob", entries.get(1).getUsername());
+    }
+
+    @Test
+    void parse_withDoctype_rejectsExternalEntities() {
+        String xml = "<?xml version=\"1.0\"?><!DOCTYPE x [<!ENTITY e SYSTEM \"file:///etc/passwd\">]>" +
+                "<KeePassFile><Root><Group><Entry><String><Key>Title</Key><Value>&e;</Value></String>" +
+                "</Entry></Group></Root></KeePassFile>";
+
+        assertThrows(Exception.class, () -> parse(xml));
+    }
+
+    private List<PasswordEntryRequest> parse(String xml) throws Exception {
+        List<PasswordEntryRequest> entries = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), entries::add);
+        return entries;
+    }
+}